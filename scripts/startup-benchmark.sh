@@ -0,0 +1,84 @@
+#!/usr/bin/env bash
+# Compares cold start of the plain jar with the startup-optimized run (Spring AOT, AppCDS, faststart profile).
+#
+# Usage: scripts/startup-benchmark.sh [runs]    (default 5 runs of each)
+#
+# Builds the jar with -Pfaststart, extracts it for class data sharing, records the CDS archive with a training
+# run that exits once the context is refreshed, then starts each variant <runs> times. For every start it reports
+# the time until the first 200 on GET /api/v1/products/1, the "Started WebappApplication in" time, and the resident
+# set size after that first request, and prints the medians. Set SKIP_BUILD=1 to reuse target/, PORT to move off
+# 8080 and JAVA_OPTS to pass the same JVM options to both variants. Needs Linux (/proc) and curl.
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=${PORT:-8080}
+JAVA_OPTS=${JAVA_OPTS:-}
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+JAR=$ROOT/target/GeneralWebProject-0.0.1-SNAPSHOT.jar
+EXTRACTED=$ROOT/target/faststart
+ARCHIVE=$EXTRACTED/application.jsa
+LOGS=$ROOT/target/startup-benchmark
+URL=http://localhost:$PORT/api/v1/products/1
+
+cd "$ROOT"
+if [ -z "${SKIP_BUILD:-}" ]; then
+  ${MVN:-mvn} -B -q -Pfaststart package -DskipTests
+fi
+
+rm -rf "$EXTRACTED" "$LOGS"
+mkdir -p "$LOGS"
+"$JAVA" -Djarmode=tools -jar "$JAR" extract --destination "$EXTRACTED" > /dev/null
+FASTSTART_JAR=$EXTRACTED/$(basename "$JAR")
+
+echo "Training run for the CDS archive..."
+# shellcheck disable=SC2086
+"$JAVA" $JAVA_OPTS -XX:ArchiveClassesAtExit="$ARCHIVE" -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh \
+  -jar "$FASTSTART_JAR" --spring.profiles.active=faststart --server.port=0 > "$LOGS/training.log" 2>&1
+
+# Prints "<ms to first 200> <started in s> <rss KB>" for one start of the given command
+measure() {
+  local log=$1; shift
+  local start pid elapsed started rss
+  start=$(date +%s%N)
+  "$@" > "$log" 2>&1 &
+  pid=$!
+  until [ "$(curl -s -o /dev/null -w '%{http_code}' -u john.doe:password "$URL")" = 200 ]; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "Application exited, see $log" >&2
+      exit 1
+    fi
+    sleep 0.02
+  done
+  elapsed=$(( ($(date +%s%N) - start) / 1000000 ))
+  rss=$(awk '/^VmRSS/ {print $2}' "/proc/$pid/status")
+  started=$(sed -n 's/.*Started WebappApplication in \([0-9.]*\) seconds.*/\1/p' "$log")
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  echo "$elapsed $started $rss"
+}
+
+median() {
+  sort -n | awk '{v[NR] = $1} END {print (NR % 2) ? v[(NR + 1) / 2] : (v[NR / 2] + v[NR / 2 + 1]) / 2}'
+}
+
+run() {
+  local name=$1; shift
+  local results=$LOGS/$name.txt
+  for i in $(seq 1 "$RUNS"); do
+    measure "$LOGS/$name-$i.log" "$@" | tee -a "$results" | sed "s/^/  $name run $i: /"
+  done
+  printf '%-10s %14s %14s %14s\n' "$name" "$(awk '{print $1}' "$results" | median) ms" \
+    "$(awk '{print $2}' "$results" | median) s" "$(( $(awk '{print $3}' "$results" | median | cut -d. -f1) / 1024 )) MB" \
+    >> "$LOGS/summary.txt"
+}
+
+# shellcheck disable=SC2086
+run baseline "$JAVA" $JAVA_OPTS -jar "$JAR" --server.port="$PORT"
+# shellcheck disable=SC2086
+run faststart "$JAVA" $JAVA_OPTS -XX:SharedArchiveFile="$ARCHIVE" -Dspring.aot.enabled=true \
+  -jar "$FASTSTART_JAR" --spring.profiles.active=faststart --server.port="$PORT"
+
+echo
+printf '%-10s %14s %14s %14s\n' "variant" "first 200" "started in" "RSS"
+cat "$LOGS/summary.txt"
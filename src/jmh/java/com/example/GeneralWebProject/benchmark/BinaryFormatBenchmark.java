@@ -0,0 +1,98 @@
+package com.example.GeneralWebProject.benchmark;
+
+import com.example.GeneralWebProject.dto.ProductDTO;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writing and reading a large list of {@link ProductDTO}s as JSON, Smile and CBOR, the representations the
+ * product and user endpoints negotiate with the Accept header. The mappers use the application's Jackson
+ * settings. The payload size of each format, raw and gzipped, is printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinaryFormatBenchmark {
+
+    @Param({"json", "smile", "cbor"})
+    public String format;
+
+    @Param({"100", "1000", "10000"})
+    public int products;
+
+    private List<ProductDTO> list;
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private byte[] payload;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = JsonSerializationBenchmark.objectMapper(switch (format) {
+            case "json" -> new JsonFactory();
+            case "smile" -> new SmileFactory();
+            case "cbor" -> new CBORFactory();
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        });
+        TypeReference<List<ProductDTO>> type = new TypeReference<>() { };
+        writer = objectMapper.writerFor(type);
+        reader = objectMapper.readerFor(type);
+
+        SplittableRandom seed = new SplittableRandom(42);
+        list = new ArrayList<>(products);
+        for (int i = 0; i < products; i++) {
+            list.add(new ProductDTO((long) i + 1, ProductNameSearchBenchmark.productName(seed),
+                    "Benchmark product description " + i, BigDecimal.valueOf(100 + seed.nextInt(100_000), 2),
+                    1 + seed.nextInt(500)));
+        }
+        payload = writer.writeValueAsBytes(list);
+        System.out.printf("%n%s, %,d products: %,d bytes, %,d gzipped%n",
+                format, products, payload.length, gzippedSize(payload));
+    }
+
+    @Benchmark
+    public byte[] write() throws IOException {
+        return writer.writeValueAsBytes(list);
+    }
+
+    @Benchmark
+    public List<ProductDTO> read() throws IOException {
+        return reader.readValue(payload);
+    }
+
+    private static int gzippedSize(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.size();
+    }
+}
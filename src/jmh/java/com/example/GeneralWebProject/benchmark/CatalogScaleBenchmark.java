@@ -0,0 +1,289 @@
+package com.example.GeneralWebProject.benchmark;
+
+import com.example.GeneralWebProject.WebappApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Every {@code ProductController} and {@code UserController} endpoint, driven in-process over HTTP against a
+ * synthetic catalog of {@link #products} products and {@link #users} users.
+ * <p>
+ * One invocation runs {@link #rounds} rounds; each round calls every endpoint once, in a create, read, update,
+ * reserve and delete sequence that leaves the catalog the size it started. The catalog export and the user list
+ * return every row, so they are called every {@link #FULL_SCAN_EVERY} rounds only. When the trial ends a table
+ * of p50/p99/p999 latency and single-client requests per second is printed per endpoint, with the heap in use
+ * after loading the catalog and after the run. Warmup samples are discarded.
+ * <p>
+ * As in {@code ProductEndpointLoad}, BCrypt is swapped for a no-op encoder so the numbers show the effect of
+ * data size rather than password hashing. The user list is not paginated, so users are sized separately.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class CatalogScaleBenchmark {
+
+    private static final int FULL_SCAN_EVERY = 50;
+    private static final int BULK_SIZE = 10;
+    private static final String[] SEARCHES = {"gaming", "wireless laptop", "acme", "hooli cam", "k-42", "drone"};
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*\"?([\\w-]+)\"?");
+    private static final Pattern IDS = Pattern.compile("\\d+");
+
+    @Param({"10000", "1000000", "10000000"})
+    public int products;
+
+    @Param({"10000"})
+    public int users;
+
+    @Param({"1000"})
+    public int rounds;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private String authorization;
+    private List<String> usernames;
+    private long maxProductId;
+    private long maxUserId;
+    private long loadMillis;
+    private long heapAfterLoad;
+    private final SplittableRandom random = new SplittableRandom(7);
+    private final Map<String, Latencies> latencies = new LinkedHashMap<>();
+    private int round;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        long start = System.nanoTime();
+        context = new SpringApplicationBuilder(WebappApplication.class)
+                .initializers(applicationContext -> applicationContext.getBeanFactory()
+                        .addBeanPostProcessor(new PlainTextPasswords()))
+                .run("--server.port=0",
+                        "--app.seed.synthetic.products=" + products,
+                        "--app.seed.synthetic.users=" + users,
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN");
+        loadMillis = (System.nanoTime() - start) / 1_000_000;
+        heapAfterLoad = heapUsedAfterGc();
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        maxProductId = jdbcTemplate.queryForObject("select max(id) from products", Long.class);
+        maxUserId = jdbcTemplate.queryForObject("select max(id) from users", Long.class);
+        // data.sql stores a BCrypt hash, which the plain-text encoder cannot match
+        jdbcTemplate.update("update users set password = ? where username = ?", "password", "john.doe");
+        usernames = jdbcTemplate.queryForList("select username from users where mod(id, ?) = 0",
+                String.class, Math.max(1, users / 1000));
+
+        baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        authorization = "Basic " + Base64.getEncoder().encodeToString("john.doe:password".getBytes(StandardCharsets.UTF_8));
+        client = HttpClient.newHttpClient();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetSamples() {
+        latencies.clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%n%,d products, %,d users: started and loaded in %,d ms, heap in use %,d MB after load"
+                        + " and %,d MB after the run%n",
+                products, users, loadMillis, heapAfterLoad >> 20, heapUsedAfterGc() >> 20);
+        System.out.printf("%-36s %7s %10s %10s %10s %10s%n", "Endpoint", "n", "p50 ms", "p99 ms", "p999 ms", "req/s");
+        latencies.forEach((endpoint, samples) -> System.out.printf("%-36s %7d %10.2f %10.2f %10.2f %10.0f%n",
+                endpoint, samples.count, samples.percentile(0.50), samples.percentile(0.99),
+                samples.percentile(0.999), samples.requestsPerSecond()));
+        context.close();
+    }
+
+    @Benchmark
+    public int rounds() throws Exception {
+        for (int i = 0; i < rounds; i++) {
+            round();
+        }
+        return latencies.size();
+    }
+
+    private void round() throws Exception {
+        round++;
+        get("GET /products", "/api/v1/products");
+        get("GET /products?after", "/api/v1/products?after=" + idCursor(random.nextLong(1, maxProductId)));
+        get("GET /products/{id}", "/api/v1/products/" + random.nextLong(1, maxProductId + 1));
+        get("GET /products/search", "/api/v1/products/search?name="
+                + URLEncoder.encode(SEARCHES[random.nextInt(SEARCHES.length)], StandardCharsets.UTF_8));
+        get("GET /products/price", "/api/v1/products/price?maxPrice=" + (5 + random.nextInt(500)));
+        get("GET /products/in-stock", "/api/v1/products/in-stock");
+        if (round % FULL_SCAN_EVERY == 0) {
+            get("GET /products/export", "/api/v1/products/export");
+        }
+
+        String productId = id(send("POST /products", "POST", "/api/v1/products", product("Scale Test Product")));
+        send("PUT /products/{id}", "PUT", "/api/v1/products/" + productId, product("Scale Test Product v2"));
+        String reservation = id(send("POST /products/{id}/reservations", "POST",
+                "/api/v1/products/" + productId + "/reservations", "{\"quantity\":1}"));
+        send("POST /reservations/{id}/confirm", "POST",
+                "/api/v1/products/reservations/" + reservation + "/confirm", null);
+        reservation = id(send("POST /products/{id}/reservations", "POST",
+                "/api/v1/products/" + productId + "/reservations", "{\"quantity\":1}"));
+        send("DELETE /reservations/{id}", "DELETE", "/api/v1/products/reservations/" + reservation, null);
+        send("DELETE /products/{id}", "DELETE", "/api/v1/products/" + productId, null);
+
+        StringBuilder bulk = new StringBuilder("[");
+        for (int i = 0; i < BULK_SIZE; i++) {
+            bulk.append(i == 0 ? "" : ",").append(product("Scale Bulk Product " + i));
+        }
+        Matcher bulkIds = IDS.matcher(send("POST /products/bulk", "POST", "/api/v1/products/bulk",
+                bulk.append(']').toString()));
+        while (bulkIds.find()) {
+            send("DELETE /products/{id}", "DELETE", "/api/v1/products/" + bulkIds.group(), null);
+        }
+
+        if (round % FULL_SCAN_EVERY == 0) {
+            get("GET /users", "/api/v1/users");
+        }
+        get("GET /users/{id}", "/api/v1/users/" + random.nextLong(1, maxUserId + 1));
+        get("GET /users/username/{username}",
+                "/api/v1/users/username/" + usernames.get(random.nextInt(usernames.size())));
+        String handle = "scale.user." + round;
+        String userId = id(send("POST /users", "POST", "/api/v1/users", "{\"username\":\"" + handle
+                + "\",\"password\":\"secret123\",\"firstName\":\"Scale\",\"lastName\":\"Test\",\"email\":\""
+                + handle + "@example.com\"}"));
+        send("PUT /users/{id}", "PUT", "/api/v1/users/" + userId, "{\"username\":\"" + handle
+                + "\",\"firstName\":\"Scale\",\"lastName\":\"Tested\",\"email\":\"" + handle
+                + "@example.com\",\"active\":true}");
+        send("DELETE /users/{id}", "DELETE", "/api/v1/users/" + userId, null);
+    }
+
+    private void get(String endpoint, String path) throws Exception {
+        send(endpoint, "GET", path, null);
+    }
+
+    private String send(String endpoint, String method, String path, String json) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", authorization);
+        if (json != null) {
+            request.header("Content-Type", "application/json");
+        }
+        request.method(method, json == null
+                ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(json));
+        boolean fullScan = endpoint.equals("GET /products/export") || endpoint.equals("GET /users");
+        long start = System.nanoTime();
+        HttpResponse<String> response = fullScan
+                ? client.send(request.build(), responseInfo -> HttpResponse.BodySubscribers.replacing(""))
+                : client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        latencies.computeIfAbsent(endpoint, key -> new Latencies()).add(System.nanoTime() - start);
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException(endpoint + " returned " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+
+    private static String product(String name) {
+        return "{\"name\":\"" + name + "\",\"description\":\"Created by the scale benchmark\","
+                + "\"price\":19.99,\"quantityInStock\":100}";
+    }
+
+    private static String id(String json) {
+        Matcher matcher = ID.matcher(json);
+        if (!matcher.find()) {
+            throw new IllegalStateException("No id in " + json);
+        }
+        return matcher.group(1);
+    }
+
+    private static String idCursor(long id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(("id:" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long heapUsedAfterGc() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Latency samples of one endpoint.
+     */
+    private static final class Latencies {
+        private long[] nanos = new long[1024];
+        private int count;
+        private long total;
+
+        void add(long sample) {
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, count * 2);
+            }
+            nanos[count++] = sample;
+            total += sample;
+        }
+
+        double percentile(double quantile) {
+            long[] sorted = Arrays.copyOf(nanos, count);
+            Arrays.sort(sorted);
+            return sorted[Math.min(count - 1, (int) (count * quantile))] / 1e6;
+        }
+
+        double requestsPerSecond() {
+            return count * 1e9 / total;
+        }
+    }
+
+    /**
+     * Swaps the BCrypt encoder for one that stores and compares passwords as plain text.
+     */
+    static class PlainTextPasswords implements BeanPostProcessor {
+
+        private static final PasswordEncoder PLAIN_TEXT = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return rawPassword.toString().equals(encodedPassword);
+            }
+        };
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            return bean instanceof PasswordEncoder ? PLAIN_TEXT : bean;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.GeneralWebProject.benchmark;
+
+import com.example.GeneralWebProject.dto.ProductDTO;
+import com.example.GeneralWebProject.dto.UserDTO;
+import com.example.GeneralWebProject.model.Product;
+import com.example.GeneralWebProject.model.User;
+import com.example.GeneralWebProject.service.ProductServiceImpl;
+import com.example.GeneralWebProject.service.UserServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The entity/DTO copies in the services: {@code convertToDTO} and {@code convertToEntity} of
+ * {@link ProductServiceImpl} and {@code convertToDTO} of {@link UserServiceImpl}.
+ * <p>
+ * The converters are private, so they are called through method handles on service instances built without
+ * collaborators; constant handles are inlined by the JIT like a direct call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    private static final MethodHandle PRODUCT_TO_DTO = converter(ProductServiceImpl.class, "convertToDTO",
+            ProductDTO.class, Product.class);
+    private static final MethodHandle PRODUCT_TO_ENTITY = converter(ProductServiceImpl.class, "convertToEntity",
+            Product.class, ProductDTO.class);
+    private static final MethodHandle USER_TO_DTO = converter(UserServiceImpl.class, "convertToDTO",
+            UserDTO.class, User.class);
+
+    private ProductServiceImpl productService;
+    private UserServiceImpl userService;
+    private Product product;
+    private ProductDTO productDTO;
+    private User user;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        productService = new ProductServiceImpl(null, null, null, null, null, null, null, null, null, null, null, null);
+        userService = new UserServiceImpl(null, null, null, null, null);
+        product = new Product(42L, "Wireless Mouse", "Ergonomic wireless mouse with USB receiver",
+                new BigDecimal("24.99"), 150, LocalDateTime.now(), LocalDateTime.now());
+        productDTO = new ProductDTO(null, "Wireless Mouse", "Ergonomic wireless mouse with USB receiver",
+                new BigDecimal("24.99"), 150);
+        user = new User();
+        user.setId(7L);
+        user.setUsername("jdoe");
+        user.setPassword("$2a$10$abcdefghijklmnopqrstuv");
+        user.setFirstName("Jane");
+        user.setLastName("Doe");
+        user.setEmail("jane.doe@example.com");
+        user.setActive(true);
+    }
+
+    @Benchmark
+    public ProductDTO productToDTO() throws Throwable {
+        return (ProductDTO) PRODUCT_TO_DTO.invokeExact(productService, product);
+    }
+
+    @Benchmark
+    public Product productToEntity() throws Throwable {
+        return (Product) PRODUCT_TO_ENTITY.invokeExact(productService, productDTO);
+    }
+
+    @Benchmark
+    public UserDTO userToDTO() throws Throwable {
+        return (UserDTO) USER_TO_DTO.invokeExact(userService, user);
+    }
+
+    private static MethodHandle converter(Class<?> service, String name, Class<?> returnType, Class<?> argument) {
+        try {
+            return MethodHandles.privateLookupIn(service, MethodHandles.lookup())
+                    .findVirtual(service, name, MethodType.methodType(returnType, argument));
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Cannot access " + service.getSimpleName() + "." + name, ex);
+        }
+    }
+}
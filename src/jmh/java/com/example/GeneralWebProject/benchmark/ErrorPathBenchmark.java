@@ -0,0 +1,96 @@
+package com.example.GeneralWebProject.benchmark;
+
+import com.example.GeneralWebProject.dto.ProductDTO;
+import com.example.GeneralWebProject.exception.GlobalExceptionHandler;
+import com.example.GeneralWebProject.exception.ResourceNotFoundException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@link GlobalExceptionHandler} error path: raising the exception, building the error body and writing
+ * it as JSON. Covers a 404 for a missing product and a 400 for a product body that failed validation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErrorPathBenchmark {
+
+    private GlobalExceptionHandler handler;
+    private ObjectWriter writer;
+    private WebRequest request;
+    private MethodParameter productParameter;
+    private ProductDTO invalidProduct;
+    private long missingId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws NoSuchMethodException {
+        handler = new GlobalExceptionHandler();
+        writer = JsonSerializationBenchmark.objectMapper().writer();
+        request = new ServletWebRequest(new MockHttpServletRequest("GET", "/api/v1/products/404"));
+        productParameter = new MethodParameter(
+                ErrorPathBenchmark.class.getDeclaredMethod("createProduct", ProductDTO.class), 0);
+        invalidProduct = new ProductDTO(null, " ", null, new BigDecimal("-1.00"), 0);
+        missingId = 404;
+    }
+
+    @Benchmark
+    public byte[] notFound() throws Exception {
+        ResponseEntity<?> response;
+        try {
+            findProduct(missingId);
+            throw new IllegalStateException("Product should be missing");
+        } catch (ResourceNotFoundException ex) {
+            response = handler.handleResourceNotFoundException(ex, request);
+        }
+        return writer.writeValueAsBytes(response.getBody());
+    }
+
+    @Benchmark
+    public byte[] validationFailed() throws Exception {
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(invalidProduct, "productDTO");
+        bindingResult.addError(new FieldError("productDTO", "name", invalidProduct.getName(), false,
+                null, null, "Product name is required"));
+        bindingResult.addError(new FieldError("productDTO", "price", invalidProduct.getPrice(), false,
+                null, null, "Price must be positive"));
+        bindingResult.addError(new FieldError("productDTO", "quantityInStock", invalidProduct.getQuantityInStock(),
+                false, null, null, "Quantity must be positive"));
+        ResponseEntity<?> response = handler.handleException(
+                new MethodArgumentNotValidException(productParameter, bindingResult), request);
+        return writer.writeValueAsBytes(response.getBody());
+    }
+
+    private static void findProduct(long id) {
+        throw new ResourceNotFoundException("Product not found with id: " + id);
+    }
+
+    /**
+     * Stands in for the controller method whose {@code @Valid} body failed.
+     */
+    @SuppressWarnings("unused")
+    private void createProduct(ProductDTO productDTO) {
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.GeneralWebProject.benchmark;
+
+import com.example.GeneralWebProject.dto.ProductDTO;
+import com.example.GeneralWebProject.dto.UserDTO;
+import com.example.GeneralWebProject.exception.GlobalExceptionHandler.ErrorDetails;
+import com.example.GeneralWebProject.json.ErrorDetailsSerializer;
+import com.example.GeneralWebProject.json.ProductDTOSerializer;
+import com.example.GeneralWebProject.json.UserDTOSerializer;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the response bodies the API writes most: a page of {@link ProductDTO}s, a
+ * {@link UserDTO} and a 404 {@link ErrorDetails}, plus reading a {@link ProductDTO} request body. The mapper is
+ * configured like the application's ({@code spring.jackson.*} in {@code application.properties}).
+ * {@code serializers} selects Jackson's reflective bean serializers or the application's hand-written ones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"bean", "handwritten"})
+    public String serializers;
+
+    private ObjectWriter productListWriter;
+    private ObjectWriter userWriter;
+    private ObjectWriter errorWriter;
+    private ObjectReader productReader;
+    private UserDTO user;
+    private ErrorDetails error;
+    private byte[] productJson;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = objectMapper();
+        if (serializers.equals("handwritten")) {
+            objectMapper.registerModule(new SimpleModule()
+                    .addSerializer(new ProductDTOSerializer())
+                    .addSerializer(new UserDTOSerializer())
+                    .addSerializer(new ErrorDetailsSerializer()));
+        }
+        productListWriter = objectMapper.writerFor(new TypeReference<List<ProductDTO>>() { });
+        userWriter = objectMapper.writerFor(UserDTO.class);
+        errorWriter = objectMapper.writerFor(ErrorDetails.class);
+        productReader = objectMapper.readerFor(ProductDTO.class);
+        user = new UserDTO(7L, "jdoe", "Jane", "Doe", "jane.doe@example.com", true);
+        error = new ErrorDetails(LocalDateTime.of(2024, 5, 1, 10, 30, 15), 404, "Not Found",
+                "Product not found with id: 404", "uri=/api/v1/products/404");
+        productJson = objectMapper.writeValueAsBytes(new ProductDTO(1L, "Wireless Mouse",
+                "Ergonomic wireless mouse with USB receiver", new BigDecimal("24.99"), 150));
+    }
+
+    @Benchmark
+    public byte[] writeProductPage(ProductPage page) throws IOException {
+        return productListWriter.writeValueAsBytes(page.products);
+    }
+
+    @Benchmark
+    public byte[] writeUser() throws IOException {
+        return userWriter.writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public byte[] writeError() throws IOException {
+        return errorWriter.writeValueAsBytes(error);
+    }
+
+    @Benchmark
+    public ProductDTO readProduct() throws IOException {
+        return productReader.readValue(productJson);
+    }
+
+    /**
+     * A page of products as the list endpoints return it.
+     */
+    @State(Scope.Benchmark)
+    public static class ProductPage {
+
+        @Param({"20", "100"})
+        public int pageSize;
+
+        private List<ProductDTO> products;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            SplittableRandom seed = new SplittableRandom(42);
+            products = new ArrayList<>(pageSize);
+            for (int i = 0; i < pageSize; i++) {
+                products.add(new ProductDTO((long) i + 1, ProductNameSearchBenchmark.productName(seed),
+                        "Benchmark product description " + i, BigDecimal.valueOf(100 + seed.nextInt(100_000), 2),
+                        1 + seed.nextInt(500)));
+            }
+        }
+    }
+
+    /**
+     * An object mapper with the application's Jackson settings.
+     */
+    static ObjectMapper objectMapper() {
+        return objectMapper(new JsonFactory());
+    }
+
+    /**
+     * An object mapper with the application's Jackson settings writing another format, such as Smile or CBOR.
+     */
+    static ObjectMapper objectMapper(JsonFactory factory) {
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return Jackson2ObjectMapperBuilder.json()
+                .factory(factory)
+                .dateFormat(dateFormat)
+                .timeZone("UTC")
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+}
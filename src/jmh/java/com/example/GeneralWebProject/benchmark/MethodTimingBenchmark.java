@@ -0,0 +1,79 @@
+package com.example.GeneralWebProject.benchmark;
+
+import com.example.GeneralWebProject.metrics.MethodTimingInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the method timers: a call through a Spring AOP proxy with a pass-through interceptor, as every
+ * {@code @Transactional} bean already pays, versus the same proxy with {@link MethodTimingInterceptor}
+ * recording into a Prometheus registry with percentile histograms.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MethodTimingBenchmark {
+
+    private Lookup untimed;
+    private Lookup timed;
+    private long id;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("registry", new PrometheusMeterRegistry(PrometheusConfig.DEFAULT));
+        untimed = proxy(invocation -> invocation.proceed());
+        timed = proxy(new MethodTimingInterceptor("app.service.calls", List.of(Lookup.class),
+                beanFactory.getBeanProvider(MeterRegistry.class)));
+    }
+
+    @Benchmark
+    public long untimedProxy() {
+        return untimed.find(++id);
+    }
+
+    @Benchmark
+    public long timedProxy() {
+        return timed.find(++id);
+    }
+
+    private static Lookup proxy(MethodInterceptor interceptor) {
+        ProxyFactory proxyFactory = new ProxyFactory(new IdentityLookup());
+        proxyFactory.addInterface(Lookup.class);
+        proxyFactory.addAdvice(interceptor);
+        return (Lookup) proxyFactory.getProxy();
+    }
+
+    public interface Lookup {
+        long find(long id);
+    }
+
+    static class IdentityLookup implements Lookup {
+
+        @Override
+        public long find(long id) {
+            return id;
+        }
+    }
+}
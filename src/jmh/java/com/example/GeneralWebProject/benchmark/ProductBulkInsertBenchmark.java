@@ -0,0 +1,127 @@
+package com.example.GeneralWebProject.benchmark;
+
+import com.example.GeneralWebProject.model.Product;
+import com.example.GeneralWebProject.repository.ProductRepositoryImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Product insert throughput: one transaction and one identity insert per product, as
+ * {@code POST /api/v1/products} does, versus the JDBC-batched bulk path in a single transaction.
+ * Scores are products inserted per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@OperationsPerInvocation(ProductBulkInsertBenchmark.PRODUCTS)
+public class ProductBulkInsertBenchmark {
+
+    static final int PRODUCTS = 1000;
+
+    private static final String INSERT_SQL = "insert into products "
+            + "(name, description, price, quantity_in_stock, created_at, updated_at) values (?, ?, ?, ?, ?, ?)";
+
+    @Param({"50", "500"})
+    public int batchSize;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private ProductRepositoryImpl repository;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:bulk_insert_" + batchSize + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table products (id bigint generated by default as identity primary key, "
+                + "name varchar(100), description varchar(500), price numeric(38, 2), quantity_in_stock integer, "
+                + "created_at timestamp(6), updated_at timestamp(6))");
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        repository = new ProductRepositoryImpl(jdbcTemplate, batchSize);
+        random = new SplittableRandom(42);
+    }
+
+    @Setup(Level.Iteration)
+    public void truncate() {
+        jdbcTemplate.execute("truncate table products restart identity");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        jdbcTemplate.execute("shutdown");
+    }
+
+    @Benchmark
+    public long singleItemTransactions() {
+        long lastId = 0;
+        for (Product product : products()) {
+            lastId = transactionTemplate.execute(status -> {
+                KeyHolder key = new GeneratedKeyHolder();
+                Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                jdbcTemplate.update(connection -> {
+                    PreparedStatement ps = connection.prepareStatement(INSERT_SQL, new String[]{"id"});
+                    ps.setString(1, product.getName());
+                    ps.setString(2, product.getDescription());
+                    ps.setBigDecimal(3, product.getPrice());
+                    ps.setInt(4, product.getQuantityInStock());
+                    ps.setTimestamp(5, now);
+                    ps.setTimestamp(6, now);
+                    return ps;
+                }, key);
+                return key.getKey().longValue();
+            });
+        }
+        return lastId;
+    }
+
+    @Benchmark
+    public long bulkBatchedTransaction() {
+        List<Product> products = products();
+        transactionTemplate.executeWithoutResult(status -> repository.batchInsert(products));
+        return products.get(products.size() - 1).getId();
+    }
+
+    private List<Product> products() {
+        List<Product> products = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product();
+            product.setName(ProductNameSearchBenchmark.productName(random));
+            product.setDescription("Benchmark product");
+            product.setPrice(BigDecimal.valueOf(100 + random.nextInt(100_000), 2));
+            product.setQuantityInStock(1 + random.nextInt(500));
+            products.add(product);
+        }
+        return products;
+    }
+}
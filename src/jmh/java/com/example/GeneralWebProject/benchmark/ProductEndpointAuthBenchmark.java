@@ -0,0 +1,93 @@
+package com.example.GeneralWebProject.benchmark;
+
+import com.example.GeneralWebProject.WebappApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Requests per second on {@code GET /api/v1/products} authenticated with HTTP Basic, which runs BCrypt on every
+ * request, versus a bearer token from {@code POST /api/v1/auth/token}, which is checked with one HMAC.
+ * <p>
+ * Unlike {@link ProductEndpointLoadBenchmark} the real BCrypt encoder is kept, since it is what is being measured.
+ * The client runs in the same process, so on a single core the figures are requests per core with the client's
+ * own cost included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Threads(8)
+@Fork(1)
+public class ProductEndpointAuthBenchmark {
+
+    @Param({"basic", "bearer"})
+    public String scheme;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = new SpringApplicationBuilder(WebappApplication.class)
+                .run("--server.port=0",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN");
+        String baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        client = HttpClient.newHttpClient();
+
+        String authorization = "Basic " + Base64.getEncoder()
+                .encodeToString("john.doe:password".getBytes(StandardCharsets.UTF_8));
+        if (scheme.equals("bearer")) {
+            HttpResponse<String> token = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/auth/token"))
+                    .header("Authorization", authorization)
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            authorization = "Bearer " + new ObjectMapper().readTree(token.body()).get("accessToken").asText();
+        }
+        request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/products"))
+                .header("Authorization", authorization)
+                .build();
+        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status != 200) {
+            throw new IllegalStateException(scheme + " request failed with " + status);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int listProducts() throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
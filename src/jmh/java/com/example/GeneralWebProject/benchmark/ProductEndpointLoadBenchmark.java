@@ -0,0 +1,186 @@
+package com.example.GeneralWebProject.benchmark;
+
+import com.example.GeneralWebProject.WebappApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Side-by-side load on the product endpoints with Tomcat on platform threads versus virtual threads.
+ * <p>
+ * Each invocation sends a burst of requests with {@link #IN_FLIGHT} outstanding at a time. Half of the requests
+ * are cached {@code GET /api/v1/products/{id}} lookups and half are {@code GET /api/v1/products} pages. The
+ * database answers in a simulated {@link #DB_LATENCY_MILLIS} ms, so database requests queue on the ten-connection
+ * pool. Platform mode has 200 Tomcat workers, and requests waiting for a connection also block cached lookups.
+ * Virtual mode parks those requests instead. Per-request latency percentiles of each kind are printed when the
+ * trial ends.
+ * <p>
+ * Basic authentication normally runs BCrypt on every request. It is swapped for a no-op encoder so the
+ * comparison measures threading, not password hashing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@OperationsPerInvocation(ProductEndpointLoadBenchmark.BURST)
+public class ProductEndpointLoadBenchmark {
+
+    static final int BURST = 1000;
+    private static final int IN_FLIGHT = 400;
+    private static final long DB_LATENCY_MILLIS = 100;
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private String authorization;
+    private final ConcurrentLinkedQueue<Long> cachedNanos = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Long> databaseNanos = new ConcurrentLinkedQueue<>();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = new SpringApplicationBuilder(WebappApplication.class)
+                .initializers(applicationContext -> applicationContext.getBeanFactory()
+                        .addBeanPostProcessor(new BenchmarkOverrides()))
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + threads.equals("virtual"),
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN");
+        // data.sql stores a BCrypt hash, which the plain-text encoder cannot match
+        context.getBean(JdbcTemplate.class)
+                .update("update users set password = ? where username = ?", "password", "john.doe");
+        baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        authorization = "Basic " + Base64.getEncoder().encodeToString("john.doe:password".getBytes(StandardCharsets.UTF_8));
+        client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        for (int id = 1; id <= 10; id++) {
+            send("/api/v1/products/" + id);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%n%s threads: cached lookups %s, database pages %s%n",
+                threads, percentiles(cachedNanos), percentiles(databaseNanos));
+        context.close();
+    }
+
+    @Benchmark
+    public int mixedBurst() throws InterruptedException {
+        Semaphore inFlight = new Semaphore(IN_FLIGHT);
+        List<CompletableFuture<?>> responses = new ArrayList<>(BURST);
+        for (int i = 0; i < BURST; i++) {
+            inFlight.acquire();
+            boolean cached = (i & 1) == 0;
+            String path = cached ? "/api/v1/products/" + (1 + i % 10) : "/api/v1/products?limit=20";
+            long start = System.nanoTime();
+            responses.add(client.sendAsync(request(path), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, failure) -> {
+                        (cached ? cachedNanos : databaseNanos).add(System.nanoTime() - start);
+                        inFlight.release();
+                    }));
+        }
+        CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).join();
+        return responses.size();
+    }
+
+    private void send(String path) throws Exception {
+        client.send(request(path), HttpResponse.BodyHandlers.discarding());
+    }
+
+    private HttpRequest request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", authorization)
+                .build();
+    }
+
+    private static String percentiles(ConcurrentLinkedQueue<Long> samples) {
+        long[] sorted = samples.stream().mapToLong(Long::longValue).toArray();
+        if (sorted.length == 0) {
+            return "n/a";
+        }
+        Arrays.sort(sorted);
+        return String.format("p50=%.1f ms p99=%.1f ms (n=%d)",
+                sorted[sorted.length / 2] / 1e6, sorted[(int) (sorted.length * 0.99)] / 1e6, sorted.length);
+    }
+
+    /**
+     * Swaps the BCrypt encoder for one that stores and compares passwords as plain text, and adds simulated
+     * latency to every database round trip.
+     */
+    static class BenchmarkOverrides implements BeanPostProcessor {
+
+        private static final PasswordEncoder PLAIN_TEXT = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return rawPassword.toString().equals(encodedPassword);
+            }
+        };
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof PasswordEncoder) {
+                return PLAIN_TEXT;
+            }
+            if (bean instanceof DataSource dataSource && !(bean instanceof DelegatingDataSource)) {
+                return new DelegatingDataSource(dataSource) {
+                    @Override
+                    public Connection getConnection() throws SQLException {
+                        Connection connection = super.getConnection();
+                        // Held while "waiting for the database", like a slow query would
+                        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(DB_LATENCY_MILLIS));
+                        return connection;
+                    }
+                };
+            }
+            return bean;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.GeneralWebProject.benchmark;
+
+import com.example.GeneralWebProject.index.ProductNameIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Product name search latency against catalog size:
+ * the trigram index versus the {@code lower(name) like %x%} scan the repository issues.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class ProductNameSearchBenchmark {
+
+    private static final String[] BRANDS = {"Acme", "Globex", "Initech", "Umbrella", "Stark", "Wayne", "Hooli", "Vandelay"};
+    private static final String[] ADJECTIVES = {"Wireless", "Portable", "Smart", "Compact", "Pro", "Ultra", "Gaming", "Eco"};
+    private static final String[] NOUNS = {"Laptop", "Headphones", "Smartwatch", "Tablet", "Speaker", "Camera", "Keyboard", "Monitor"};
+    private static final String[] QUERIES = {"wireless", "gaming lap", "x-7", "smartwatch", "hooli cam"};
+
+    @Param({"10000", "100000", "1000000"})
+    public int catalogSize;
+
+    private Connection connection;
+    private PreparedStatement likeQuery;
+    private ProductNameIndex index;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:name_search_" + catalogSize, "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table products (id bigint primary key, name varchar(100))");
+        }
+        index = new ProductNameIndex();
+        SplittableRandom random = new SplittableRandom(42);
+        try (PreparedStatement insert = connection.prepareStatement("insert into products values (?, ?)")) {
+            for (int id = 1; id <= catalogSize; id++) {
+                String name = productName(random);
+                insert.setLong(1, id);
+                insert.setString(2, name);
+                insert.addBatch();
+                if (id % 1000 == 0) {
+                    insert.executeBatch();
+                }
+                index.put(id, name);
+            }
+            insert.executeBatch();
+        }
+        index.markReady();
+        likeQuery = connection.prepareStatement("select id from products where lower(name) like ? order by id");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        likeQuery.close();
+        connection.close();
+    }
+
+    @Benchmark
+    public int likeScan() throws SQLException {
+        likeQuery.setString(1, "%" + nextQuery() + "%");
+        int count = 0;
+        try (ResultSet resultSet = likeQuery.executeQuery()) {
+            while (resultSet.next()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int trigramIndex() {
+        return index.search(nextQuery()).length;
+    }
+
+    private String nextQuery() {
+        next = (next + 1) % QUERIES.length;
+        return QUERIES[next];
+    }
+
+    static String productName(SplittableRandom random) {
+        return BRANDS[random.nextInt(BRANDS.length)] + " "
+                + ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " "
+                + NOUNS[random.nextInt(NOUNS.length)] + " "
+                + (char) ('A' + random.nextInt(26)) + "-" + random.nextInt(1000);
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.GeneralWebProject.benchmark;
+
+import com.example.GeneralWebProject.dto.ProductDTO;
+import com.example.GeneralWebProject.dto.ProductField;
+import com.example.GeneralWebProject.model.Product;
+import com.example.GeneralWebProject.repository.ProductRepositoryImpl;
+import jakarta.persistence.Tuple;
+import org.hibernate.FlushMode;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Page reads through Hibernate: managed entities copied into DTOs, as the read paths did before, versus
+ * constructor-expression projections straight into DTOs and the tuple projection of every field that the
+ * repository now uses for all listings, both in a read-only session with flushing off.
+ * Compare allocation per page with {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class ProductReadProjectionBenchmark {
+
+    private static final int CATALOG_SIZE = 20_000;
+
+    private static final String ENTITY_PAGE = "select p from Product p where p.id > :afterId order by p.id";
+    private static final String PROJECTION_PAGE = "select new com.example.GeneralWebProject.dto.ProductDTO("
+            + "p.id, p.name, p.description, p.price, p.quantityInStock) "
+            + "from Product p where p.id > :afterId order by p.id";
+    private static final ProductField[] FIELDS = ProductField.values();
+    private static final String TUPLE_PAGE = "select p.id, p.name, p.description, p.price, p.quantityInStock "
+            + "from Product p where p.id > :afterId order by p.id";
+
+    @Param({"50", "500"})
+    public int pageSize;
+
+    private SessionFactory sessionFactory;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String url = "jdbc:h2:mem:read_projection_" + pageSize + ";DB_CLOSE_DELAY=-1";
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Product.class)
+                .setProperty(AvailableSettings.JAKARTA_JDBC_URL, url)
+                .setProperty(AvailableSettings.JAKARTA_JDBC_USER, "sa")
+                .setProperty(AvailableSettings.JAKARTA_JDBC_PASSWORD, "")
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create")
+                .setPhysicalNamingStrategy(new CamelCaseToUnderscoresNamingStrategy())
+                .buildSessionFactory();
+
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(url, "sa", "");
+        ProductRepositoryImpl repository = new ProductRepositoryImpl(new JdbcTemplate(dataSource), 1000);
+        SplittableRandom seed = new SplittableRandom(42);
+        List<Product> products = new ArrayList<>(CATALOG_SIZE);
+        for (int i = 0; i < CATALOG_SIZE; i++) {
+            Product product = new Product();
+            product.setName(ProductNameSearchBenchmark.productName(seed));
+            product.setDescription("Benchmark product description " + i);
+            product.setPrice(BigDecimal.valueOf(100 + seed.nextInt(100_000), 2));
+            product.setQuantityInStock(1 + seed.nextInt(500));
+            products.add(product);
+        }
+        new TransactionTemplate(new DataSourceTransactionManager(dataSource))
+                .executeWithoutResult(status -> repository.batchInsert(products));
+        random = new SplittableRandom(7);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public List<ProductDTO> entitiesCopiedToDTOs() {
+        long afterId = nextAfterId();
+        return sessionFactory.fromTransaction(session -> session.createSelectionQuery(ENTITY_PAGE, Product.class)
+                .setParameter("afterId", afterId)
+                .setMaxResults(pageSize)
+                .getResultList()
+                .stream()
+                .map(ProductReadProjectionBenchmark::convertToDTO)
+                .collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public List<ProductDTO> readOnlyProjection() {
+        long afterId = nextAfterId();
+        return sessionFactory.fromTransaction(session -> {
+            session.setDefaultReadOnly(true);
+            session.setHibernateFlushMode(FlushMode.MANUAL);
+            return session.createSelectionQuery(PROJECTION_PAGE, ProductDTO.class)
+                    .setParameter("afterId", afterId)
+                    .setMaxResults(pageSize)
+                    .getResultList();
+        });
+    }
+
+    @Benchmark
+    public List<ProductDTO> readOnlyTupleProjection() {
+        long afterId = nextAfterId();
+        return sessionFactory.fromTransaction(session -> {
+            session.setDefaultReadOnly(true);
+            session.setHibernateFlushMode(FlushMode.MANUAL);
+            return session.createSelectionQuery(TUPLE_PAGE, Tuple.class)
+                    .setParameter("afterId", afterId)
+                    .setMaxResults(pageSize)
+                    .getResultList()
+                    .stream()
+                    .map(ProductReadProjectionBenchmark::toDTO)
+                    .collect(Collectors.toList());
+        });
+    }
+
+    private long nextAfterId() {
+        return random.nextInt(CATALOG_SIZE - pageSize);
+    }
+
+    /**
+     * The copy of a selected row the repository's field projection makes.
+     */
+    private static ProductDTO toDTO(Tuple row) {
+        ProductDTO productDTO = new ProductDTO();
+        for (int i = 0; i < FIELDS.length; i++) {
+            FIELDS[i].set(productDTO, row.get(i));
+        }
+        return productDTO;
+    }
+
+    /**
+     * The field-by-field copy the services used before reads were projected.
+     */
+    private static ProductDTO convertToDTO(Product product) {
+        ProductDTO productDTO = new ProductDTO();
+        productDTO.setId(product.getId());
+        productDTO.setName(product.getName());
+        productDTO.setDescription(product.getDescription());
+        productDTO.setPrice(product.getPrice());
+        productDTO.setQuantityInStock(product.getQuantityInStock());
+        return productDTO;
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.GeneralWebProject.cache;
+
+import com.example.GeneralWebProject.dto.CacheStatsDTO;
+import com.example.GeneralWebProject.dto.ProductDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of product DTOs keyed by product id.
+ * Backed by Caffeine, whose W-TinyLFU policy admits and evicts by access frequency, so a small set of
+ * hot products stays resident while one-off lookups do not flush it.
+ * <p>
+ * Entries are weighed by their approximate heap size and the cache is bounded by total weight.
+ * Cached DTOs are never handed out: callers always receive a copy, so the cached snapshot cannot be
+ * modified. Concurrent misses on the same id wait for a single load.
+ */
+@Component
+public class ProductCache {
+
+    /**
+     * Approximate fixed heap cost of a cached entry: the DTO, its boxed fields and the cache node.
+     */
+    private static final int ENTRY_OVERHEAD = 160;
+
+    private final Cache<Long, Entry> cache;
+
+    @Autowired
+    public ProductCache(@Value("${app.cache.products.max-weight:16777216}") long maxWeight) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((Long id, Entry entry) -> weigh(entry.product))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Get a product, loading and caching it on a miss.
+     * Exceptions thrown by the loader are propagated and nothing is cached.
+     *
+     * @param id the product ID
+     * @param loader loads the product from the database
+     * @return a copy of the cached product
+     */
+    public ProductDTO get(Long id, Function<Long, Entry> loader) {
+        return copy(cache.get(id, loader).product);
+    }
+
+    /**
+     * Get the last modification time of a cached product without loading it or counting a hit.
+     *
+     * @param id the product ID
+     * @return the cached modification time, or null if the product is not cached
+     */
+    public LocalDateTime getLastModifiedIfPresent(Long id) {
+        Entry entry = cache.policy().getIfPresentQuietly(id);
+        return entry == null ? null : entry.lastModified;
+    }
+
+    /**
+     * Drop a product from the cache.
+     *
+     * @param id the product ID
+     */
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+    }
+
+    /**
+     * Get a snapshot of the cache statistics.
+     *
+     * @return hit rate, eviction count, load latency and size
+     */
+    public CacheStatsDTO stats() {
+        // Apply pending maintenance so size and eviction counts are current
+        cache.cleanUp();
+        CacheStats stats = cache.stats();
+        return new CacheStatsDTO(
+                stats.hitRate(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.evictionCount(),
+                stats.loadCount(),
+                stats.averageLoadPenalty() / 1_000_000.0,
+                cache.estimatedSize(),
+                cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L)
+        );
+    }
+
+    private static int weigh(ProductDTO product) {
+        return ENTRY_OVERHEAD + 2 * (length(product.getName()) + length(product.getDescription()));
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    private static ProductDTO copy(ProductDTO product) {
+        return new ProductDTO(product.getId(), product.getName(), product.getDescription(),
+                product.getPrice(), product.getQuantityInStock());
+    }
+
+    /**
+     * A cached product together with the modification time it was loaded at.
+     */
+    public static final class Entry {
+        private final ProductDTO product;
+        private final LocalDateTime lastModified;
+
+        public Entry(ProductDTO product, LocalDateTime lastModified) {
+            this.product = product;
+            this.lastModified = lastModified;
+        }
+
+        public ProductDTO getProduct() {
+            return product;
+        }
+
+        public LocalDateTime getLastModified() {
+            return lastModified;
+        }
+    }
+}
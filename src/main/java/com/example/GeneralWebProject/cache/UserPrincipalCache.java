@@ -0,0 +1,58 @@
+package com.example.GeneralWebProject.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Bounded, expiring read-through cache of authentication principals keyed by username, so repeat logins do not
+ * query the users table.
+ * <p>
+ * Entries expire after a fixed time to live as a backstop; user updates and deletes invalidate them right away.
+ * Unknown usernames are not cached, so a newly created user can log in at once. Cached principals are never handed
+ * out: Spring Security erases the password of the principal it authenticates, so callers always receive a copy.
+ */
+@Component
+public class UserPrincipalCache {
+
+    private final Cache<String, UserDetails> cache;
+
+    @Autowired
+    public UserPrincipalCache(@Value("${app.cache.users.max-size:10000}") long maxSize,
+                              @Value("${app.cache.users.ttl:5m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Get a principal, loading and caching it on a miss.
+     *
+     * @param username the username
+     * @param loader loads the user from the database, returning null if there is none
+     * @return a copy of the cached principal, or null if the user does not exist
+     */
+    public UserDetails get(String username, Function<String, UserDetails> loader) {
+        UserDetails principal = cache.get(username, loader);
+        return principal == null ? null : User.withUserDetails(principal).build();
+    }
+
+    /**
+     * Drop the principal cached for a username.
+     * A load of the same username that is still running completes first and is dropped with it, so a load that
+     * read the row before the change cannot survive the invalidation.
+     *
+     * @param username the username
+     */
+    public void invalidate(String username) {
+        cache.invalidate(username);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.GeneralWebProject.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Binary representations of the product and user APIs, chosen with the Accept header:
+ * {@code application/x-jackson-smile} or {@code application/cbor}. Request bodies may be sent in either format
+ * too. JSON stays the default, including when any media type is accepted, since Spring Boot keeps the JSON
+ * converter ahead of these.
+ * <p>
+ * Both converters are built from Spring Boot's {@link Jackson2ObjectMapperBuilder}, so they share the
+ * {@code spring.jackson.*} settings of the JSON converter; Boot puts them in place of the unconfigured defaults
+ * Spring MVC would otherwise register. Responses of the API carry {@code Vary: Accept} so caches keep one copy
+ * per format; the product ETags differ per format as well.
+ */
+@Configuration(proxyBeanMethods = false)
+public class BinaryContentConfig implements WebMvcConfigurer {
+
+    /**
+     * Reads and writes Smile, Jackson's binary JSON.
+     *
+     * @param builder Boot's configured object mapper builder
+     * @return the converter
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    /**
+     * Reads and writes CBOR (RFC 8949).
+     *
+     * @param builder Boot's configured object mapper builder
+     * @return the converter
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+                return true;
+            }
+        }).addPathPatterns("/api/v1/products/**", "/api/v1/users/**");
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.GeneralWebProject.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * DataSource that lets at most a fixed number of threads hold a connection at once.
+ * <p>
+ * Sized to the connection pool, it queues callers on a fair semaphore before they reach the pool. Virtual threads
+ * waiting for a permit simply park, no matter how many there are, and they get connections in arrival order. Each
+ * permit is returned when its connection is closed.
+ */
+public class ConcurrencyLimitedDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final int limit;
+    private final long timeoutNanos;
+
+    /**
+     * Wrap a data source.
+     *
+     * @param target the pooled data source
+     * @param limit the maximum number of connections handed out at once
+     * @param timeout how long to wait for a permit before failing
+     */
+    public ConcurrencyLimitedDataSource(DataSource target, int limit, Duration timeout) {
+        super(target);
+        this.permits = new Semaphore(limit, true);
+        this.limit = limit;
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return limited(super.getConnection());
+        } catch (SQLException | RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return limited(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    /**
+     * Maximum number of connections handed out at once.
+     *
+     * @return the permit count
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Number of connections currently handed out.
+     *
+     * @return the permits in use
+     */
+    public int getActive() {
+        return limit - permits.availablePermits();
+    }
+
+    /**
+     * Estimated number of threads waiting for a permit.
+     *
+     * @return the queue length
+     */
+    public int getWaiting() {
+        return permits.getQueueLength();
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new SQLTransientConnectionException("JDBC concurrency limit of " + limit
+                        + " reached; no connection available within " + Duration.ofNanos(timeoutNanos));
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a JDBC permit", ex);
+        }
+    }
+
+    /**
+     * Proxy the connection so closing it returns the permit exactly once.
+     */
+    private Connection limited(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close") && method.getParameterCount() == 0) {
+                        try {
+                            connection.close();
+                        } finally {
+                            if (released.compareAndSet(false, true)) {
+                                permits.release();
+                            }
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getCause();
+                    }
+                });
+    }
+}
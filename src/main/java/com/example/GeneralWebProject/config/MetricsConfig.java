@@ -0,0 +1,69 @@
+package com.example.GeneralWebProject.config;
+
+import com.example.GeneralWebProject.metrics.MethodTimingInterceptor;
+import com.example.GeneralWebProject.repository.ProductRepository;
+import com.example.GeneralWebProject.repository.UserRepository;
+import com.example.GeneralWebProject.service.ProductService;
+import com.example.GeneralWebProject.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+
+/**
+ * Latency timers around the services and repositories, published with the rest of the Micrometer metrics
+ * (including Hibernate statistics) at {@code /api/v1/admin/prometheus}.
+ * <p>
+ * The advisors are infrastructure beans, so the auto-proxy creator that already applies {@code @Transactional}
+ * picks them up without AspectJ.
+ */
+@Configuration(proxyBeanMethods = false)
+public class MetricsConfig {
+
+    /**
+     * Times every public method of the product and user services as {@code app.service.calls}.
+     *
+     * @param registry the meter registry
+     * @return the advisor
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor serviceTimingAdvisor(ObjectProvider<MeterRegistry> registry) {
+        return timingAdvisor(new MethodTimingInterceptor("app.service.calls",
+                List.of(ProductService.class, UserService.class), registry));
+    }
+
+    /**
+     * Times every product and user repository method, derived queries and custom operations included,
+     * as {@code app.repository.calls}.
+     *
+     * @param registry the meter registry
+     * @return the advisor
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor repositoryTimingAdvisor(ObjectProvider<MeterRegistry> registry) {
+        return timingAdvisor(new MethodTimingInterceptor("app.repository.calls",
+                List.of(ProductRepository.class, UserRepository.class), registry));
+    }
+
+    private static Advisor timingAdvisor(MethodTimingInterceptor interceptor) {
+        StaticMethodMatcherPointcut pointcut = new StaticMethodMatcherPointcut() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return Modifier.isPublic(method.getModifiers()) && method.getDeclaringClass() != Object.class;
+            }
+        };
+        pointcut.setClassFilter(interceptor::instruments);
+        return new DefaultPointcutAdvisor(pointcut, interceptor);
+    }
+}
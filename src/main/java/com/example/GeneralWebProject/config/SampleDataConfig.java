@@ -0,0 +1,38 @@
+package com.example.GeneralWebProject.config;
+
+import com.example.GeneralWebProject.seed.SampleDataInitializer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.boot.autoconfigure.sql.init.SqlInitializationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Replaces Boot's {@code data.sql} initializer, which backs off when this bean is defined, with one that leaves
+ * a database that already holds data alone.
+ * <p>
+ * With Hibernate creating the schema the initializer is deferred until the entity manager factory is up. Flyway
+ * cannot be combined with that deferral, so when Flyway creates the schema the initializer runs straight after
+ * the migrations instead.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(SqlInitializationProperties.class)
+public class SampleDataConfig {
+
+    /**
+     * @param dataSource the application data source
+     * @param properties the {@code spring.sql.init} properties
+     * @param migrations the Flyway migrations, when enabled
+     * @return the initializer
+     */
+    @Bean
+    public SampleDataInitializer sampleDataInitializer(DataSource dataSource, SqlInitializationProperties properties,
+                                                       ObjectProvider<FlywayMigrationInitializer> migrations) {
+        // Resolving the migration initializer migrates the schema before the scripts look at it
+        migrations.ifAvailable(migration -> { });
+        return new SampleDataInitializer(dataSource, properties);
+    }
+}
@@ -2,6 +2,14 @@ package com.example.GeneralWebProject.config;
 
 
 
+import com.example.GeneralWebProject.cache.UserPrincipalCache;
+import com.example.GeneralWebProject.repository.UserRepository;
+import com.example.GeneralWebProject.security.AccessTokenService;
+import com.example.GeneralWebProject.security.BearerTokenAuthenticationFilter;
+import com.example.GeneralWebProject.security.BoundedPasswordEncoder;
+import com.example.GeneralWebProject.security.DatabaseUserDetailsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -9,12 +17,14 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.core.userdetails.User;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+
+import java.time.Duration;
+import java.util.Set;
 
 /**
  * Security configuration class for the application.
@@ -26,13 +36,16 @@ public class SecurityConfig {
 
     /**
      * Configures the security filter chain.
+     * Requests authenticate either with HTTP Basic or with a bearer token from /api/v1/auth/token,
+     * which is verified without password hashing.
      *
      * @param http the HttpSecurity to configure
+     * @param tokenService the access token verifier
      * @return the configured SecurityFilterChain
      * @throws Exception if an error occurs during configuration
      */
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, AccessTokenService tokenService) throws Exception {
         http
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
@@ -43,7 +56,9 @@ public class SecurityConfig {
                 .sessionManagement(session -> session
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 )
-                .httpBasic(Customizer.withDefaults());
+                .httpBasic(Customizer.withDefaults())
+                .addFilterBefore(new BearerTokenAuthenticationFilter(tokenService,
+                        new AntPathRequestMatcher("/api/v1/auth/**")), BasicAuthenticationFilter.class);
 
         // To allow H2 console to work
         http.headers(headers -> headers.frameOptions(frameOptions -> frameOptions.disable()));
@@ -52,35 +67,36 @@ public class SecurityConfig {
     }
 
     /**
-     * Sets up in-memory user details for testing.
-     * In a production environment, this would be replaced with database-backed authentication.
+     * Loads users from the users table, behind a bounded and expiring principal cache.
      *
+     * @param userRepository the user repository
+     * @param principalCache the principal cache, invalidated when a user is updated or deleted
+     * @param adminUsernames the users that also get the ADMIN role
      * @return the user details service
      */
     @Bean
-    public InMemoryUserDetailsManager userDetailsService() {
-        UserDetails user = User.builder()
-                .username("user")
-                .password(passwordEncoder().encode("password"))
-                .roles("USER")
-                .build();
-
-        UserDetails admin = User.builder()
-                .username("admin")
-                .password(passwordEncoder().encode("admin"))
-                .roles("USER", "ADMIN")
-                .build();
-
-        return new InMemoryUserDetailsManager(user, admin);
+    public UserDetailsService userDetailsService(UserRepository userRepository, UserPrincipalCache principalCache,
+                                                 @Value("${app.security.admin-usernames:admin}") Set<String> adminUsernames) {
+        return new DatabaseUserDetailsService(userRepository, principalCache, adminUsernames);
     }
 
     /**
      * Creates a password encoder for secure password storage.
+     * New hashes are computed on a bounded pool of hashing threads, so signups cannot take over the request threads.
      *
+     * @param registry the meter registry for the hashing metrics
+     * @param threads the number of hashing threads; 0 uses half the available cores, at least one
+     * @param queueCapacity how many hashes may wait before new ones are rejected with 503
+     * @param retryAfter the delay suggested to rejected clients
      * @return the BCrypt password encoder
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry registry,
+                                           @Value("${app.security.hashing.threads:0}") int threads,
+                                           @Value("${app.security.hashing.queue-capacity:32}") int queueCapacity,
+                                           @Value("${app.security.hashing.retry-after:1s}") Duration retryAfter) {
+        int hashingThreads = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), hashingThreads, queueCapacity, retryAfter,
+                registry);
     }
 }
\ No newline at end of file
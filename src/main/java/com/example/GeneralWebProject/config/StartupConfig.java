@@ -0,0 +1,39 @@
+package com.example.GeneralWebProject.config;
+
+import com.example.GeneralWebProject.WebappApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+/**
+ * Keeps the request hot path eager when {@code spring.main.lazy-initialization} is on, as in the
+ * {@code faststart} profile.
+ * <p>
+ * The application's own beans (controllers, services, repositories, indexes and caches), the security filter
+ * chain, the handler mapping and adapter and the Jackson mapper are still created at startup, so the first
+ * request does not pay for them. Everything else, springdoc, the H2 console and most of the Actuator included,
+ * is created on first use.
+ */
+@Configuration(proxyBeanMethods = false)
+public class StartupConfig {
+
+    private static final String APPLICATION_PACKAGE = WebappApplication.class.getPackageName() + ".";
+
+    /**
+     * @return the filter marking hot path beans as eager
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter hotPathExcludeFilter() {
+        LazyInitializationExcludeFilter frameworkBeans = LazyInitializationExcludeFilter.forBeanTypes(
+                SecurityFilterChain.class, FilterChainProxy.class, RequestMappingHandlerMapping.class,
+                RequestMappingHandlerAdapter.class, ObjectMapper.class);
+        return (beanName, beanDefinition, beanType) -> beanType != null
+                && (beanType.getName().startsWith(APPLICATION_PACKAGE)
+                || frameworkBeans.isExcluded(beanName, beanDefinition, beanType));
+    }
+}
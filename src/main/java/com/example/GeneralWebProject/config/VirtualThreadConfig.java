@@ -0,0 +1,72 @@
+package com.example.GeneralWebProject.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Configuration for the virtual-thread execution mode ({@code spring.threads.virtual.enabled=true}).
+ * <p>
+ * In this mode, Spring Boot runs Tomcat requests and async request processing on virtual threads. Request concurrency
+ * is then no longer capped by the worker pool. JDBC stays blocking and bounded by the connection pool, so the
+ * pooled DataSource is wrapped in a {@link ConcurrencyLimitedDataSource} sized to the pool.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    /**
+     * Wraps the Hikari pool, or a DataSource that wraps it, in a semaphore with one permit per pooled connection.
+     *
+     * @return the bean post processor
+     */
+    @Bean
+    public static BeanPostProcessor jdbcConcurrencyLimiter() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConcurrencyLimitedDataSource) {
+                    return bean;
+                }
+                try {
+                    if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+                        return bean;
+                    }
+                    HikariDataSource pool = dataSource.unwrap(HikariDataSource.class);
+                    int limit = poolSize(pool);
+                    log.info("Limiting concurrent JDBC use to {} connections of pool {}", limit, pool.getPoolName());
+                    return new ConcurrencyLimitedDataSource(dataSource, limit,
+                            Duration.ofMillis(pool.getConnectionTimeout()));
+                } catch (SQLException ex) {
+                    throw new BeanCreationException(beanName, "Cannot inspect data source", ex);
+                }
+            }
+        };
+    }
+
+    /**
+     * The pool size Hikari will use. The pool starts lazily and only then replaces an unset maximum,
+     * so resolve it the same way here.
+     */
+    static int poolSize(HikariDataSource pool) {
+        if (pool.getMaximumPoolSize() > 0) {
+            return pool.getMaximumPoolSize();
+        }
+        return pool.getMinimumIdle() > 0 ? pool.getMinimumIdle() : DEFAULT_POOL_SIZE;
+    }
+}
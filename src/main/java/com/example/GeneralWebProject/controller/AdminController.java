@@ -0,0 +1,109 @@
+package com.example.GeneralWebProject.controller;
+
+import com.example.GeneralWebProject.cache.ProductCache;
+import com.example.GeneralWebProject.dto.CacheStatsDTO;
+import com.example.GeneralWebProject.dto.HotStockStatsDTO;
+import com.example.GeneralWebProject.stock.HotStockManager;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST controller for operational endpoints.
+ * Everything under /api/v1/admin requires the ADMIN role.
+ */
+@RestController
+@RequestMapping("/api/v1/admin")
+@Tag(name = "Admin", description = "Operational APIs")
+public class AdminController {
+
+    private final ProductCache productCache;
+    private final HotStockManager hotStock;
+
+    @Autowired
+    public AdminController(ProductCache productCache, HotStockManager hotStock) {
+        this.productCache = productCache;
+        this.hotStock = hotStock;
+    }
+
+    /**
+     * Get product cache statistics.
+     *
+     * @return the cache statistics
+     */
+    @GetMapping("/cache/products")
+    @Operation(summary = "Get product cache statistics",
+            description = "Returns hit rate, eviction count, average load latency and size of the product cache")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved cache statistics")
+    })
+    public ResponseEntity<CacheStatsDTO> getProductCacheStats() {
+        return ResponseEntity.ok(productCache.stats());
+    }
+
+    /**
+     * Get the stock counters of all hot products.
+     *
+     * @return the counter statistics
+     */
+    @GetMapping("/hot-products")
+    @Operation(summary = "Get hot product stock counters",
+            description = "Returns budget, pending quantity, contention and flush lag for every hot product")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved hot product counters")
+    })
+    public ResponseEntity<List<HotStockStatsDTO>> getHotProducts() {
+        return ResponseEntity.ok(hotStock.stats());
+    }
+
+    /**
+     * Flag a product as hot.
+     *
+     * @param id the product ID
+     * @return the counter statistics of the product
+     */
+    @PutMapping("/hot-products/{id}")
+    @Operation(summary = "Flag a product as hot",
+            description = "Routes reservations for the product through striped in-memory counters with batched flushes")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Product flagged as hot"),
+            @ApiResponse(responseCode = "400", description = "Hot stock mode is disabled"),
+            @ApiResponse(responseCode = "404", description = "Product not found")
+    })
+    public ResponseEntity<HotStockStatsDTO> flagHotProduct(
+            @Parameter(description = "Product ID", required = true)
+            @PathVariable Long id) {
+        return ResponseEntity.ok(hotStock.flag(id));
+    }
+
+    /**
+     * Stop treating a product as hot.
+     *
+     * @param id the product ID
+     * @return no content
+     */
+    @DeleteMapping("/hot-products/{id}")
+    @Operation(summary = "Unflag a hot product",
+            description = "Flushes queued reservations and returns the product to row-level stock updates")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Product unflagged")
+    })
+    public ResponseEntity<Void> unflagHotProduct(
+            @Parameter(description = "Product ID", required = true)
+            @PathVariable Long id) {
+        hotStock.unflag(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.GeneralWebProject.controller;
+
+import com.example.GeneralWebProject.dto.AccessTokenDTO;
+import com.example.GeneralWebProject.security.AccessTokenService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for access tokens.
+ * Clients authenticate once with HTTP Basic and use the returned bearer token for later requests.
+ */
+@RestController
+@RequestMapping("/api/v1/auth")
+@Tag(name = "Authentication", description = "Access token APIs")
+public class AuthController {
+
+    private final AccessTokenService tokenService;
+
+    @Autowired
+    public AuthController(AccessTokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+    /**
+     * Issue an access token for the caller.
+     *
+     * @param authentication the caller, authenticated with HTTP Basic
+     * @return the access token
+     */
+    @PostMapping("/token")
+    @Operation(summary = "Issue an access token",
+            description = "Checks HTTP Basic credentials once and returns a short-lived signed bearer token")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Token issued"),
+            @ApiResponse(responseCode = "401", description = "Missing or invalid credentials")
+    })
+    public ResponseEntity<AccessTokenDTO> issueToken(Authentication authentication) {
+        return ResponseEntity.ok(tokenService.issue(authentication));
+    }
+}
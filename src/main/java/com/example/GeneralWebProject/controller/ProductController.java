@@ -3,8 +3,21 @@ package com.example.GeneralWebProject.controller;
 // File: src/main/java/com/example/webapp/controller/ProductController.java
 
 
+import com.example.GeneralWebProject.dto.CatalogVersionDTO;
+import com.example.GeneralWebProject.dto.CursorPageDTO;
 import com.example.GeneralWebProject.dto.ProductDTO;
+import com.example.GeneralWebProject.dto.ProductField;
+import com.example.GeneralWebProject.dto.ProductQuery;
+import com.example.GeneralWebProject.dto.ProductQueryResultDTO;
+import com.example.GeneralWebProject.dto.ProductSort;
+import com.example.GeneralWebProject.dto.ReservationDTO;
+import com.example.GeneralWebProject.dto.ReservationRequestDTO;
+import com.example.GeneralWebProject.json.FieldSelection;
 import com.example.GeneralWebProject.service.ProductService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,13 +26,28 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * REST controller for product-related operations.
@@ -29,42 +57,119 @@ import java.util.List;
 @Tag(name = "Product", description = "Product management APIs")
 public class ProductController {
 
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
     private final ProductService productService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ObjectMapper objectMapper) {
         this.productService = productService;
+        this.objectMapper = objectMapper;
     }
 
     /**
-     * Get all products.
+     * Get a page of all products.
      *
-     * @return list of all products
+     * @param after the cursor of the previous page
+     * @param limit the page size
+     * @param fields the fields to return, or null for all
+     * @param request the web request, used to answer conditional requests
+     * @return page of products, or 304 if the catalog has not changed
      */
     @GetMapping
-    @Operation(summary = "Get all products", description = "Returns a list of all products")
+    @Operation(summary = "Get all products", description = "Returns a page of products ordered by id")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved products"),
+            @ApiResponse(responseCode = "304", description = "Catalog not modified", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or limit", content = @Content)
+    })
+    public ResponseEntity<CursorPageDTO<ProductDTO>> getAllProducts(
+            @Parameter(description = "Cursor returned as 'next' by the previous page")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "Maximum number of products to return (1-500)")
+            @RequestParam(defaultValue = "50") int limit,
+            @Parameter(description = "Comma-separated fields to return, e.g. name,price; the id is always returned")
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        Set<ProductField> selected = select(fields, request);
+        return conditionalPage(request, () -> productService.getAllProducts(after, limit, selected));
+    }
+
+    /**
+     * Export the full product catalog as newline-delimited JSON.
+     * Rows are written to the response as they are read, so the first line goes out immediately.
+     *
+     * @param fields the fields to return, or null for all
+     * @return the streaming NDJSON body
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export all products",
+            description = "Streams every product ordered by id as newline-delimited JSON")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Successfully retrieved products")
+            @ApiResponse(responseCode = "200", description = "Successfully streamed products")
     })
-    public ResponseEntity<List<ProductDTO>> getAllProducts() {
-        return ResponseEntity.ok(productService.getAllProducts());
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @Parameter(description = "Comma-separated fields to return, e.g. name,price; the id is always returned")
+            @RequestParam(required = false) String fields) {
+        Set<ProductField> selected = ProductField.parse(fields);
+        ObjectWriter writer = objectMapper.writerFor(ProductDTO.class)
+                .with(FieldSelection.filters(selected))
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                boolean[] first = {true};
+                productService.exportProducts(selected, product -> {
+                    try {
+                        writer.writeValue(generator, product);
+                        generator.writeRaw('\n');
+                        if (first[0]) {
+                            generator.flush();
+                            first[0] = false;
+                        }
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     /**
      * Get a product by ID.
      *
+     * Answers If-None-Match and If-Modified-Since from the product's modification time alone,
+     * so a 304 is sent without loading or serializing the product.
+     *
      * @param id the product ID
-     * @return the product with the given ID
+     * @param fields the fields to return, or null for all
+     * @param request the web request, used to answer conditional requests
+     * @return the product with the given ID, or 304 if it has not changed
      */
     @GetMapping("/{id}")
     @Operation(summary = "Get a product by ID", description = "Returns a single product by ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved product"),
+            @ApiResponse(responseCode = "304", description = "Product not modified", content = @Content),
             @ApiResponse(responseCode = "404", description = "Product not found", content = @Content)
     })
     public ResponseEntity<ProductDTO> getProductById(
             @Parameter(description = "Product ID", required = true)
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            @Parameter(description = "Comma-separated fields to return, e.g. name,price; the id is always returned")
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        select(fields, request);
+        LocalDateTime lastModified = productService.getProductLastModified(id);
+        if (lastModified != null && request.checkNotModified(
+                "p" + id + "-" + Long.toString(epochMicros(lastModified), 36) + representation(request),
+                epochMillis(lastModified))) {
+            return null;
+        }
         return ResponseEntity.ok(productService.getProductById(id));
     }
 
@@ -72,50 +177,141 @@ public class ProductController {
      * Search products by name.
      *
      * @param name the name to search for
-     * @return list of products matching the name
+     * @param after the cursor of the previous page
+     * @param limit the page size
+     * @param fields the fields to return, or null for all
+     * @param request the web request, used to answer conditional requests
+     * @return page of products matching the name, or 304 if the catalog has not changed
      */
     @GetMapping("/search")
-    @Operation(summary = "Search products by name", description = "Returns a list of products matching the search criteria")
+    @Operation(summary = "Search products by name", description = "Returns a page of products matching the search criteria")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Successfully retrieved products")
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved products"),
+            @ApiResponse(responseCode = "304", description = "Catalog not modified", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or limit", content = @Content)
     })
-    public ResponseEntity<List<ProductDTO>> searchProductsByName(
+    public ResponseEntity<CursorPageDTO<ProductDTO>> searchProductsByName(
             @Parameter(description = "Name to search for", required = true)
-            @RequestParam String name) {
-        return ResponseEntity.ok(productService.findProductsByName(name));
+            @RequestParam String name,
+            @Parameter(description = "Cursor returned as 'next' by the previous page")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "Maximum number of products to return (1-500)")
+            @RequestParam(defaultValue = "50") int limit,
+            @Parameter(description = "Comma-separated fields to return, e.g. name,price; the id is always returned")
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        Set<ProductField> selected = select(fields, request);
+        return conditionalPage(request, () -> productService.findProductsByName(name, after, limit, selected));
     }
 
     /**
      * Get products with price less than or equal to the provided amount.
      *
      * @param maxPrice the maximum price
-     * @return list of products with price less than or equal to maxPrice
+     * @param after the cursor of the previous page
+     * @param limit the page size
+     * @param fields the fields to return, or null for all
+     * @param request the web request, used to answer conditional requests
+     * @return page of products with price less than or equal to maxPrice, or 304 if the catalog has not changed
      */
     @GetMapping("/price")
     @Operation(summary = "Get products by maximum price",
-            description = "Returns a list of products with price less than or equal to the provided amount")
+            description = "Returns a page of products with price less than or equal to the provided amount, ordered by price")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Successfully retrieved products")
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved products"),
+            @ApiResponse(responseCode = "304", description = "Catalog not modified", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or limit", content = @Content)
     })
-    public ResponseEntity<List<ProductDTO>> getProductsByMaxPrice(
+    public ResponseEntity<CursorPageDTO<ProductDTO>> getProductsByMaxPrice(
             @Parameter(description = "Maximum price", required = true)
-            @RequestParam BigDecimal maxPrice) {
-        return ResponseEntity.ok(productService.findProductsByMaxPrice(maxPrice));
+            @RequestParam BigDecimal maxPrice,
+            @Parameter(description = "Cursor returned as 'next' by the previous page")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "Maximum number of products to return (1-500)")
+            @RequestParam(defaultValue = "50") int limit,
+            @Parameter(description = "Comma-separated fields to return, e.g. name,price; the id is always returned")
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        Set<ProductField> selected = select(fields, request);
+        return conditionalPage(request,
+                () -> productService.findProductsByMaxPrice(maxPrice, after, limit, selected));
     }
 
     /**
      * Get products that are in stock.
      *
-     * @return list of products with quantity in stock greater than zero
+     * @param after the cursor of the previous page
+     * @param limit the page size
+     * @param fields the fields to return, or null for all
+     * @param request the web request, used to answer conditional requests
+     * @return page of products with quantity in stock greater than zero, or 304 if the catalog has not changed
      */
     @GetMapping("/in-stock")
     @Operation(summary = "Get products in stock",
-            description = "Returns a list of products with quantity in stock greater than zero")
+            description = "Returns a page of products with quantity in stock greater than zero")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Successfully retrieved products")
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved products"),
+            @ApiResponse(responseCode = "304", description = "Catalog not modified", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or limit", content = @Content)
     })
-    public ResponseEntity<List<ProductDTO>> getProductsInStock() {
-        return ResponseEntity.ok(productService.findProductsInStock());
+    public ResponseEntity<CursorPageDTO<ProductDTO>> getProductsInStock(
+            @Parameter(description = "Cursor returned as 'next' by the previous page")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "Maximum number of products to return (1-500)")
+            @RequestParam(defaultValue = "50") int limit,
+            @Parameter(description = "Comma-separated fields to return, e.g. name,price; the id is always returned")
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        Set<ProductField> selected = select(fields, request);
+        return conditionalPage(request, () -> productService.findProductsInStock(after, limit, selected));
+    }
+
+    /**
+     * Query products by any combination of name, price range and minimum stock.
+     *
+     * @param name the fragment the name must contain
+     * @param minPrice the inclusive lower price bound
+     * @param maxPrice the inclusive upper price bound
+     * @param minStock the minimum quantity in stock
+     * @param sort the order of the results
+     * @param limit the maximum number of products
+     * @param explain whether to return the query plan
+     * @param fields the fields to return, or null for all
+     * @param request the web request, used to answer conditional requests
+     * @return the matching products, or 304 if the catalog has not changed
+     */
+    @GetMapping("/query")
+    @Operation(summary = "Query products",
+            description = "Returns the products matching every given predicate. The query starts from the most "
+                    + "selective in-memory index; explain=true returns the plan it chose")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved products"),
+            @ApiResponse(responseCode = "304", description = "Catalog not modified", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Invalid predicate, sort, limit or fields",
+                    content = @Content)
+    })
+    public ResponseEntity<ProductQueryResultDTO> queryProducts(
+            @Parameter(description = "Fragment the name must contain, ignoring case")
+            @RequestParam(required = false) String name,
+            @Parameter(description = "Minimum price, inclusive")
+            @RequestParam(required = false) BigDecimal minPrice,
+            @Parameter(description = "Maximum price, inclusive")
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @Parameter(description = "Minimum quantity in stock")
+            @RequestParam(required = false) Integer minStock,
+            @Parameter(description = "Order of the results: id, name, price or -price")
+            @RequestParam(defaultValue = "id") String sort,
+            @Parameter(description = "Maximum number of products to return (1-500)")
+            @RequestParam(defaultValue = "50") int limit,
+            @Parameter(description = "Return the query plan with the products")
+            @RequestParam(defaultValue = "false") boolean explain,
+            @Parameter(description = "Comma-separated fields to return, e.g. name,price; the id is always returned")
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        ProductQuery query = new ProductQuery(StringUtils.hasText(name) ? name : null, minPrice, maxPrice, minStock,
+                ProductSort.parse(sort), limit);
+        Set<ProductField> selected = select(fields, request);
+        return conditionalPage(request, () -> productService.queryProducts(query, explain, selected));
     }
 
     /**
@@ -137,6 +333,28 @@ public class ProductController {
         return new ResponseEntity<>(productService.createProduct(productDTO), HttpStatus.CREATED);
     }
 
+    /**
+     * Create many products at once.
+     * Every item is validated before anything is written; the products are then inserted in one transaction.
+     *
+     * @param productDTOs the products to create
+     * @return the ids of the created products, in request order
+     */
+    @PostMapping("/bulk")
+    @Operation(summary = "Create products in bulk",
+            description = "Validates all products, inserts them with batched statements in one transaction "
+                    + "and returns the created ids in request order")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Products created successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid input",
+                    content = @Content(schema = @Schema(implementation = Object.class)))
+    })
+    public ResponseEntity<List<Long>> createProducts(
+            @Parameter(description = "Products to create", required = true)
+            @RequestBody @Size(min = 1, max = ProductService.MAX_BULK_SIZE) List<@Valid ProductDTO> productDTOs) {
+        return new ResponseEntity<>(productService.createProducts(productDTOs), HttpStatus.CREATED);
+    }
+
     /**
      * Update a product.
      *
@@ -160,6 +378,70 @@ public class ProductController {
         return ResponseEntity.ok(productService.updateProduct(id, productDTO));
     }
 
+    /**
+     * Reserve stock of a product.
+     * The stock is taken in a single conditional update and held until the reservation is confirmed,
+     * released or expires.
+     *
+     * @param id the product ID
+     * @param request the quantity to reserve
+     * @return the reservation
+     */
+    @PostMapping("/{id}/reservations")
+    @Operation(summary = "Reserve product stock",
+            description = "Atomically takes stock off a product and holds it until confirmed, released or expired")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Stock reserved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid input", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Product not found", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Insufficient stock", content = @Content)
+    })
+    public ResponseEntity<ReservationDTO> reserveStock(
+            @Parameter(description = "Product ID", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "Reservation request", required = true)
+            @Valid @RequestBody ReservationRequestDTO request) {
+        return new ResponseEntity<>(productService.reserveStock(id, request.getQuantity()), HttpStatus.CREATED);
+    }
+
+    /**
+     * Confirm a reservation, keeping its stock taken.
+     *
+     * @param reservationId the reservation ID
+     * @return no content
+     */
+    @PostMapping("/reservations/{reservationId}/confirm")
+    @Operation(summary = "Confirm a reservation", description = "Confirms a reservation so its stock is not returned")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Reservation confirmed successfully"),
+            @ApiResponse(responseCode = "404", description = "Reservation not found or expired", content = @Content)
+    })
+    public ResponseEntity<Void> confirmReservation(
+            @Parameter(description = "Reservation ID", required = true)
+            @PathVariable String reservationId) {
+        productService.confirmReservation(reservationId);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Release a reservation, returning its stock.
+     *
+     * @param reservationId the reservation ID
+     * @return no content
+     */
+    @DeleteMapping("/reservations/{reservationId}")
+    @Operation(summary = "Release a reservation", description = "Releases a reservation and returns its stock")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Reservation released successfully"),
+            @ApiResponse(responseCode = "404", description = "Reservation not found or expired", content = @Content)
+    })
+    public ResponseEntity<Void> releaseReservation(
+            @Parameter(description = "Reservation ID", required = true)
+            @PathVariable String reservationId) {
+        productService.releaseReservation(reservationId);
+        return ResponseEntity.noContent().build();
+    }
+
     /**
      * Delete a product.
      *
@@ -178,4 +460,82 @@ public class ProductController {
         productService.deleteProduct(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Answer a conditional list request from the catalog version, computing the page only when it is needed.
+     * The validators cover the whole catalog, so any product change invalidates every cached page.
+     *
+     * @param request the web request
+     * @param page computes the page
+     * @return the page, or null once a 304 has been sent
+     */
+    private <T> ResponseEntity<T> conditionalPage(WebRequest request, Supplier<T> page) {
+        CatalogVersionDTO version = productService.getCatalogVersion();
+        if (version != null && request.checkNotModified(
+                "c" + version.getProductCount() + "-" + Long.toString(epochMicros(version.getLastModified()), 36)
+                        + representation(request),
+                epochMillis(version.getLastModified()))) {
+            return null;
+        }
+        return ResponseEntity.ok(page.get());
+    }
+
+    /**
+     * Parse the {@code fields} parameter and record the selection for the response.
+     * Single products come from the product cache whole, so for them only the response is narrowed.
+     *
+     * @param fields the fields parameter, or null
+     * @param request the web request
+     * @return the selected fields, or null for all
+     */
+    private static Set<ProductField> select(String fields, WebRequest request) {
+        Set<ProductField> selected = ProductField.parse(fields);
+        FieldSelection.select(request, selected);
+        return selected;
+    }
+
+    /**
+     * The ETag suffix of the representation the Accept header selects, so JSON, Smile and CBOR responses never
+     * share a validator: empty for JSON, the default, or {@code -smile} or {@code -cbor}. Follows the order in
+     * which the message converters are tried.
+     */
+    private static String representation(WebRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return "";
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException ex) {
+            return "";
+        }
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType type : accepted) {
+            if (type.getQualityValue() == 0) {
+                continue;
+            }
+            if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return "";
+            }
+            if (type.isCompatibleWith(SMILE)) {
+                return "-smile";
+            }
+            if (type.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+                return "-cbor";
+            }
+        }
+        return "";
+    }
+
+    private static long epochMicros(LocalDateTime time) {
+        if (time == null) {
+            return 0L;
+        }
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    private static long epochMillis(LocalDateTime time) {
+        return time == null ? -1L : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
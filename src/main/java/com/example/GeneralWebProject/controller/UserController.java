@@ -3,8 +3,11 @@ package com.example.GeneralWebProject.controller;
 // File: src/main/java/com/example/webapp/controller/UserController.java
 
 
+import com.example.GeneralWebProject.dto.UserAvailabilityDTO;
 import com.example.GeneralWebProject.dto.UserCreateDTO;
 import com.example.GeneralWebProject.dto.UserDTO;
+import com.example.GeneralWebProject.dto.UserField;
+import com.example.GeneralWebProject.json.FieldSelection;
 import com.example.GeneralWebProject.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -18,8 +21,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Set;
 
 /**
  * REST controller for user-related operations.
@@ -39,6 +44,8 @@ public class UserController {
     /**
      * Get all users.
      *
+     * @param fields the fields to return, or null for all
+     * @param request the web request
      * @return list of all users
      */
     @GetMapping
@@ -47,14 +54,19 @@ public class UserController {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved users"),
             @ApiResponse(responseCode = "403", description = "Access denied", content = @Content)
     })
-    public ResponseEntity<List<UserDTO>> getAllUsers() {
-        return ResponseEntity.ok(userService.getAllUsers());
+    public ResponseEntity<List<UserDTO>> getAllUsers(
+            @Parameter(description = "Comma-separated fields to return, e.g. username,email; the id is always returned")
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        return ResponseEntity.ok(userService.getAllUsers(select(fields, request)));
     }
 
     /**
      * Get a user by ID.
      *
      * @param id the user ID
+     * @param fields the fields to return, or null for all
+     * @param request the web request
      * @return the user with the given ID
      */
     @GetMapping("/{id}")
@@ -66,14 +78,19 @@ public class UserController {
     })
     public ResponseEntity<UserDTO> getUserById(
             @Parameter(description = "User ID", required = true)
-            @PathVariable Long id) {
-        return ResponseEntity.ok(userService.getUserById(id));
+            @PathVariable Long id,
+            @Parameter(description = "Comma-separated fields to return, e.g. username,email; the id is always returned")
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        return ResponseEntity.ok(userService.getUserById(id, select(fields, request)));
     }
 
     /**
      * Get a user by username.
      *
      * @param username the username
+     * @param fields the fields to return, or null for all
+     * @param request the web request
      * @return the user with the given username
      */
     @GetMapping("/username/{username}")
@@ -85,8 +102,35 @@ public class UserController {
     })
     public ResponseEntity<UserDTO> getUserByUsername(
             @Parameter(description = "Username", required = true)
-            @PathVariable String username) {
-        return ResponseEntity.ok(userService.getUserByUsername(username));
+            @PathVariable String username,
+            @Parameter(description = "Comma-separated fields to return, e.g. username,email; the id is always returned")
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        return ResponseEntity.ok(userService.getUserByUsername(username, select(fields, request)));
+    }
+
+    /**
+     * Check whether a username and an email are free.
+     *
+     * @param username the username to check
+     * @param email the email to check
+     * @return the availability of each value given
+     */
+    @GetMapping("/availability")
+    @Operation(summary = "Check username and email availability",
+            description = "Returns whether a username and/or email are free; free values are usually answered "
+                    + "without a database query")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully checked availability"),
+            @ApiResponse(responseCode = "400", description = "Neither username nor email given", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Access denied", content = @Content)
+    })
+    public ResponseEntity<UserAvailabilityDTO> checkAvailability(
+            @Parameter(description = "Username to check")
+            @RequestParam(required = false) String username,
+            @Parameter(description = "Email to check")
+            @RequestParam(required = false) String email) {
+        return ResponseEntity.ok(userService.checkAvailability(username, email));
     }
 
     /**
@@ -152,4 +196,17 @@ public class UserController {
         userService.deleteUser(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Parse the {@code fields} parameter and record the selection for the response.
+     *
+     * @param fields the fields parameter, or null
+     * @param request the web request
+     * @return the selected fields, or null for all
+     */
+    private static Set<UserField> select(String fields, WebRequest request) {
+        Set<UserField> selected = UserField.parse(fields);
+        FieldSelection.select(request, selected);
+        return selected;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.GeneralWebProject.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object for an issued access token.
+ * The token is sent back as {@code Authorization: Bearer <accessToken>} until it expires.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccessTokenDTO {
+
+    private String accessToken;
+
+    private String tokenType;
+
+    private long expiresIn;
+}
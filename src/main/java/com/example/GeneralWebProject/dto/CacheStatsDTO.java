@@ -0,0 +1,31 @@
+package com.example.GeneralWebProject.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object for cache statistics.
+ * Counters are cumulative since application start.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsDTO {
+
+    private double hitRate;
+
+    private long hitCount;
+
+    private long missCount;
+
+    private long evictionCount;
+
+    private long loadCount;
+
+    private double averageLoadMillis;
+
+    private long estimatedSize;
+
+    private long weightedSize;
+}
@@ -0,0 +1,22 @@
+package com.example.GeneralWebProject.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Data Transfer Object summarizing the state of the product catalog.
+ * Any insert, update or delete changes the count or the latest modification time,
+ * so the pair serves as a cheap validator for product listings.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogVersionDTO {
+
+    private long productCount;
+
+    private LocalDateTime lastModified;
+}
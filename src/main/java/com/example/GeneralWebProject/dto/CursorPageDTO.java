@@ -0,0 +1,23 @@
+package com.example.GeneralWebProject.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A single page of a keyset-paginated listing.
+ * The {@code next} cursor is opaque to clients and is null on the last page.
+ *
+ * @param <T> the type of the page items
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+
+    private List<T> items;
+
+    private String next;
+}
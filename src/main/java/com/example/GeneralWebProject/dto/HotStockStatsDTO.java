@@ -0,0 +1,33 @@
+package com.example.GeneralWebProject.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object for the in-memory stock counter of a hot product.
+ * Counters are cumulative since the product was flagged.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotStockStatsDTO {
+
+    private Long productId;
+
+    private long availableQuantity;
+
+    private long pendingQuantity;
+
+    private long acquiredCount;
+
+    private long rejectedCount;
+
+    private long contendedCount;
+
+    private long flushCount;
+
+    private double averageFlushLagMillis;
+
+    private double maxFlushLagMillis;
+}
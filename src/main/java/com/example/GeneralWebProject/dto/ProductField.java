@@ -0,0 +1,51 @@
+package com.example.GeneralWebProject.dto;
+
+import java.math.BigDecimal;
+import java.util.EnumSet;
+import java.util.function.BiConsumer;
+
+/**
+ * The fields of a {@link ProductDTO} that can be selected with {@code ?fields=}.
+ */
+public enum ProductField implements SelectableField<ProductDTO> {
+
+    ID("id", (product, value) -> product.setId((Long) value)),
+    NAME("name", (product, value) -> product.setName((String) value)),
+    DESCRIPTION("description", (product, value) -> product.setDescription((String) value)),
+    PRICE("price", (product, value) -> product.setPrice((BigDecimal) value)),
+    QUANTITY_IN_STOCK("quantityInStock", (product, value) -> product.setQuantityInStock((Integer) value));
+
+    private final String name;
+    private final BiConsumer<ProductDTO, Object> setter;
+
+    ProductField(String name, BiConsumer<ProductDTO, Object> setter) {
+        this.name = name;
+        this.setter = setter;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void set(ProductDTO product, Object value) {
+        setter.accept(product, value);
+    }
+
+    /**
+     * Parse the {@code fields} query parameter. The id is always included, since pages and clients key on it.
+     *
+     * @param fields comma-separated field names, or null for every field
+     * @return the selected fields, or null for every field
+     * @throws IllegalArgumentException if a name is not a product field
+     */
+    public static EnumSet<ProductField> parse(String fields) {
+        if (fields == null) {
+            return null;
+        }
+        EnumSet<ProductField> selected = SelectableField.parse(ProductField.class, fields);
+        selected.add(ID);
+        return selected;
+    }
+}
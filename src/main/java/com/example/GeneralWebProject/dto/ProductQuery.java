@@ -0,0 +1,41 @@
+package com.example.GeneralWebProject.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * A product query combining optional predicates, all of which a product must satisfy.
+ * A null predicate does not filter.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductQuery {
+
+    /**
+     * Fragment the name must contain, ignoring case.
+     */
+    private String name;
+
+    /**
+     * Inclusive lower price bound.
+     */
+    private BigDecimal minPrice;
+
+    /**
+     * Inclusive upper price bound.
+     */
+    private BigDecimal maxPrice;
+
+    /**
+     * Minimum quantity in stock.
+     */
+    private Integer minStock;
+
+    private ProductSort sort = ProductSort.ID;
+
+    private int limit;
+}
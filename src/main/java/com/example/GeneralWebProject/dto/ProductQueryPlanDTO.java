@@ -0,0 +1,45 @@
+package com.example.GeneralWebProject.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data Transfer Object describing how a product query was executed, returned with {@code explain=true}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductQueryPlanDTO {
+
+    /**
+     * The access path the query started from: {@code name-index}, {@code price-index}, {@code stock-index}
+     * or {@code table-scan}.
+     */
+    private String access;
+
+    /**
+     * Estimated rows for every access path considered, most selective first; -1 where unknown.
+     */
+    private Map<String, Long> estimates;
+
+    /**
+     * Product ids handed to the database after the index filters, or null for a table scan.
+     */
+    private Integer candidates;
+
+    /**
+     * Predicates answered in memory by the indexes.
+     */
+    private List<String> indexFilters;
+
+    /**
+     * Predicates left to the database.
+     */
+    private List<String> databaseFilters;
+
+    private String sort;
+}
@@ -0,0 +1,22 @@
+package com.example.GeneralWebProject.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * The products matching a product query, with the query plan when it was asked for.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductQueryResultDTO {
+
+    private List<ProductDTO> items;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private ProductQueryPlanDTO plan;
+}
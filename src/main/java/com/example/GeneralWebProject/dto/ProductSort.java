@@ -0,0 +1,48 @@
+package com.example.GeneralWebProject.dto;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Orders a product query can return its results in. Ties are always broken by id.
+ */
+public enum ProductSort {
+
+    ID("id"),
+    NAME("name"),
+    PRICE("price"),
+    PRICE_DESC("-price");
+
+    private final String name;
+
+    ProductSort(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return the name used in the {@code sort} query parameter
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Parse the {@code sort} query parameter.
+     *
+     * @param sort the sort name, or null for {@link #ID}
+     * @return the sort
+     * @throws IllegalArgumentException if the name is not a known sort
+     */
+    public static ProductSort parse(String sort) {
+        if (sort == null) {
+            return ID;
+        }
+        for (ProductSort candidate : values()) {
+            if (candidate.name.equals(sort)) {
+                return candidate;
+            }
+        }
+        throw new IllegalArgumentException("Unknown sort '" + sort + "', expected "
+                + Arrays.stream(values()).map(ProductSort::getName).collect(Collectors.joining(", ")));
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.GeneralWebProject.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Data Transfer Object for a stock reservation.
+ * The reserved quantity is returned to stock at {@code expiresAt} unless the reservation is confirmed first.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationDTO {
+
+    private String id;
+
+    private Long productId;
+
+    private Integer quantity;
+
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,57 @@
+package com.example.GeneralWebProject.dto;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.stream.Collectors;
+
+/**
+ * A DTO field that clients can select with the {@code fields} query parameter. Its name is both the JSON property
+ * and the entity attribute it is read from, so a query can select exactly the fields asked for.
+ *
+ * @param <T> the DTO type
+ */
+public interface SelectableField<T> {
+
+    /**
+     * @return the JSON property and entity attribute name
+     */
+    String getName();
+
+    /**
+     * Copy a selected column value into a DTO.
+     *
+     * @param dto the DTO
+     * @param value the column value
+     */
+    void set(T dto, Object value);
+
+    /**
+     * Parse a comma-separated list of field names. Blank entries are ignored.
+     *
+     * @param type the field enum
+     * @param fields the field names
+     * @param <F> the field type
+     * @return the named fields
+     * @throws IllegalArgumentException if a name is not a field of the type, or no field is named
+     */
+    static <F extends Enum<F> & SelectableField<?>> EnumSet<F> parse(Class<F> type, String fields) {
+        EnumSet<F> selected = EnumSet.noneOf(type);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            selected.add(Arrays.stream(type.getEnumConstants())
+                    .filter(field -> field.getName().equals(trimmed))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown field '" + trimmed + "', expected "
+                            + Arrays.stream(type.getEnumConstants())
+                                    .map(SelectableField::getName)
+                                    .collect(Collectors.joining(", ")))));
+        }
+        if (selected.isEmpty()) {
+            throw new IllegalArgumentException("At least one field is required");
+        }
+        return selected;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.GeneralWebProject.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object answering whether a username and an email are free for a new user.
+ * The availability of a value that was not asked about is null.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserAvailabilityDTO {
+
+    private String username;
+
+    private Boolean usernameAvailable;
+
+    private String email;
+
+    private Boolean emailAvailable;
+}
@@ -0,0 +1,51 @@
+package com.example.GeneralWebProject.dto;
+
+import java.util.EnumSet;
+import java.util.function.BiConsumer;
+
+/**
+ * The fields of a {@link UserDTO} that can be selected with {@code ?fields=}.
+ */
+public enum UserField implements SelectableField<UserDTO> {
+
+    ID("id", (user, value) -> user.setId((Long) value)),
+    USERNAME("username", (user, value) -> user.setUsername((String) value)),
+    FIRST_NAME("firstName", (user, value) -> user.setFirstName((String) value)),
+    LAST_NAME("lastName", (user, value) -> user.setLastName((String) value)),
+    EMAIL("email", (user, value) -> user.setEmail((String) value)),
+    ACTIVE("active", (user, value) -> user.setActive((Boolean) value));
+
+    private final String name;
+    private final BiConsumer<UserDTO, Object> setter;
+
+    UserField(String name, BiConsumer<UserDTO, Object> setter) {
+        this.name = name;
+        this.setter = setter;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void set(UserDTO user, Object value) {
+        setter.accept(user, value);
+    }
+
+    /**
+     * Parse the {@code fields} query parameter. The id is always included.
+     *
+     * @param fields comma-separated field names, or null for every field
+     * @return the selected fields, or null for every field
+     * @throws IllegalArgumentException if a name is not a user field
+     */
+    public static EnumSet<UserField> parse(String fields) {
+        if (fields == null) {
+            return null;
+        }
+        EnumSet<UserField> selected = SelectableField.parse(UserField.class, fields);
+        selected.add(ID);
+        return selected;
+    }
+}
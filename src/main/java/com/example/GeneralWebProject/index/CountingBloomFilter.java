@@ -0,0 +1,144 @@
+package com.example.GeneralWebProject.index;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counting Bloom filter over strings with 4-bit counters, sixteen to a word.
+ * <p>
+ * A negative answer from {@link #mightContain(String)} is definite; a positive one is wrong with roughly the
+ * configured probability while the filter holds no more than its expected number of keys. Counters are updated
+ * with compare-and-set, so writers never lock. A counter that reaches 15 saturates and is never decremented
+ * again, which can only leave a false positive behind, never a false negative.
+ * <p>
+ * Removing a key that was never added corrupts the counts, so callers only remove keys they added.
+ */
+final class CountingBloomFilter {
+
+    private static final int COUNTER_BITS = 4;
+    private static final int COUNTERS_PER_WORD = Long.SIZE / COUNTER_BITS;
+    private static final long MAX_COUNT = (1L << COUNTER_BITS) - 1;
+
+    private final AtomicLongArray words;
+    private final int counters;
+    private final int hashes;
+
+    /**
+     * @param expectedInsertions the number of keys the filter is sized for
+     * @param falsePositiveRate the false positive rate at that size
+     */
+    CountingBloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Expected insertions must be positive and the false positive rate "
+                    + "between 0 and 1");
+        }
+        long optimal = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = Math.toIntExact(Math.max(1, (optimal + COUNTERS_PER_WORD - 1) / COUNTERS_PER_WORD));
+        this.words = new AtomicLongArray(words);
+        this.counters = words * COUNTERS_PER_WORD;
+        this.hashes = Math.max(1, (int) Math.round((double) counters / expectedInsertions * Math.log(2)));
+    }
+
+    /**
+     * Add a key.
+     *
+     * @param key the key
+     */
+    void add(String key) {
+        long hash = hash(key);
+        for (int i = 0; i < hashes; i++) {
+            increment(index(hash, i));
+        }
+    }
+
+    /**
+     * Remove a key that was added earlier.
+     *
+     * @param key the key
+     */
+    void remove(String key) {
+        long hash = hash(key);
+        for (int i = 0; i < hashes; i++) {
+            decrement(index(hash, i));
+        }
+    }
+
+    /**
+     * Check whether a key may have been added.
+     *
+     * @param key the key
+     * @return false if the key was definitely not added, true if it probably was
+     */
+    boolean mightContain(String key) {
+        long hash = hash(key);
+        for (int i = 0; i < hashes; i++) {
+            int index = index(hash, i);
+            if (count(words.get(index / COUNTERS_PER_WORD), index) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the heap size of the counters in bytes
+     */
+    long sizeInBytes() {
+        return (long) words.length() * Long.BYTES;
+    }
+
+    private void increment(int index) {
+        int word = index / COUNTERS_PER_WORD;
+        long delta = 1L << shift(index);
+        while (true) {
+            long current = words.get(word);
+            if (count(current, index) == MAX_COUNT || words.compareAndSet(word, current, current + delta)) {
+                return;
+            }
+        }
+    }
+
+    private void decrement(int index) {
+        int word = index / COUNTERS_PER_WORD;
+        long delta = 1L << shift(index);
+        while (true) {
+            long current = words.get(word);
+            long count = count(current, index);
+            if (count == 0 || count == MAX_COUNT || words.compareAndSet(word, current, current - delta)) {
+                return;
+            }
+        }
+    }
+
+    private static long count(long word, int index) {
+        return (word >>> shift(index)) & MAX_COUNT;
+    }
+
+    private static int shift(int index) {
+        return (index % COUNTERS_PER_WORD) * COUNTER_BITS;
+    }
+
+    /**
+     * The i-th counter of a key, derived from two halves of one 64-bit hash (Kirsch-Mitzenmacher).
+     */
+    private int index(long hash, int i) {
+        long combined = (int) hash + (long) i * (int) (hash >>> 32);
+        return (int) Math.floorMod(combined, (long) counters);
+    }
+
+    /**
+     * FNV-1a over the characters, finished with the MurmurHash3 64-bit mix so both halves are well spread.
+     */
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.GeneralWebProject.index;
+
+import com.example.GeneralWebProject.repository.ProductIndexView;
+import com.example.GeneralWebProject.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Builds the in-memory product indexes from the database once the application is ready, and refreshes
+ * them from the committed rows after each write.
+ * Until an index is marked ready the service layer answers from the database instead.
+ * <p>
+ * The load streams the table while writes go on. A row streamed before a concurrent write committed could
+ * overwrite the refresh that write triggered, so the ids refreshed during the load are read again once the
+ * stream is done, before the indexes are marked ready.
+ * <p>
+ * Refreshes of the same product are serialized by striped locks, each reading the row only once it holds the
+ * lock. Whichever refresh runs last therefore reads a row at least as new as every write that committed before
+ * it, so two writes whose after-commit callbacks run out of order cannot leave the older row in the indexes.
+ */
+@Component
+public class ProductIndexLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductIndexLoader.class);
+
+    private static final int REFRESH_CHUNK_SIZE = 1_000;
+    private static final int LOCK_STRIPES = 64;
+
+    private final ProductRepository productRepository;
+    private final ProductNameIndex nameIndex;
+    private final ProductPriceIndex priceIndex;
+    private final ProductStockIndex stockIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+    private final Set<Long> refreshedDuringLoad = ConcurrentHashMap.newKeySet();
+    private volatile boolean loading;
+
+    @Autowired
+    public ProductIndexLoader(ProductRepository productRepository,
+                              ProductNameIndex nameIndex,
+                              ProductPriceIndex priceIndex,
+                              ProductStockIndex stockIndex,
+                              PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.nameIndex = nameIndex;
+        this.priceIndex = priceIndex;
+        this.stockIndex = stockIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Load every product into the indexes and mark them ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.nanoTime();
+        loading = true;
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<ProductIndexView> rows = productRepository.streamIndexViewsByOrderByIdAsc()) {
+                rows.forEach(this::put);
+            }
+        });
+        loading = false;
+        // A refresh that starts from here on runs after the stream and cannot be overwritten by it
+        List<Long> refreshed = new ArrayList<>(refreshedDuringLoad);
+        refreshedDuringLoad.clear();
+        refresh(refreshed);
+        nameIndex.markReady();
+        priceIndex.markReady();
+        stockIndex.markReady();
+        log.info("Loaded {} products into the name, price and stock indexes in {} ms ({} re-read after "
+                + "concurrent writes)", nameIndex.size(), (System.nanoTime() - start) / 1_000_000, refreshed.size());
+    }
+
+    /**
+     * Re-read the given products and apply their committed rows to the indexes, removing the ones that no
+     * longer exist. Call after the write that changed them has committed.
+     *
+     * @param ids the product IDs
+     */
+    public void refresh(Collection<Long> ids) {
+        if (loading) {
+            refreshedDuringLoad.addAll(ids);
+        }
+        List<Long> pending = List.copyOf(ids);
+        for (int from = 0; from < pending.size(); from += REFRESH_CHUNK_SIZE) {
+            refreshChunk(pending.subList(from, Math.min(pending.size(), from + REFRESH_CHUNK_SIZE)));
+        }
+    }
+
+    private void refreshChunk(List<Long> ids) {
+        // Stripes are always taken in ascending order, so concurrent chunks cannot deadlock
+        int[] stripes = ids.stream().mapToInt(id -> (int) Math.floorMod(id, (long) LOCK_STRIPES))
+                .distinct().sorted().toArray();
+        for (int stripe : stripes) {
+            locks[stripe].lock();
+        }
+        try {
+            Map<Long, ProductIndexView> rows = productRepository.findIndexViewsByIdIn(ids).stream()
+                    .collect(Collectors.toMap(ProductIndexView::getId, Function.identity()));
+            // The price index publishes a copy of its arrays per write, so the chunk goes to it as one batch
+            Map<Long, BigDecimal> prices = new HashMap<>();
+            List<Long> removed = new ArrayList<>();
+            for (Long id : ids) {
+                ProductIndexView row = rows.get(id);
+                if (row != null) {
+                    nameIndex.put(id, row.getName());
+                    stockIndex.put(id, row.getQuantityInStock());
+                    prices.put(id, row.getPrice());
+                } else {
+                    nameIndex.remove(id);
+                    stockIndex.clear(id);
+                    removed.add(id);
+                }
+            }
+            priceIndex.apply(prices, removed);
+        } finally {
+            for (int i = stripes.length - 1; i >= 0; i--) {
+                locks[stripes[i]].unlock();
+            }
+        }
+    }
+
+    private void put(ProductIndexView row) {
+        nameIndex.put(row.getId(), row.getName());
+        priceIndex.put(row.getId(), row.getPrice());
+        stockIndex.put(row.getId(), row.getQuantityInStock());
+    }
+}
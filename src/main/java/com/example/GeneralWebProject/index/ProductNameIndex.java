@@ -0,0 +1,310 @@
+package com.example.GeneralWebProject.index;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process trigram inverted index over product names.
+ * Each lower-cased trigram maps to a sorted posting list of product ids held in a primitive int array.
+ * A substring query intersects the posting lists of its trigrams and then verifies each candidate
+ * against the indexed name, so results match {@code lower(name) like %fragment%} exactly.
+ */
+@Component
+public class ProductNameIndex {
+
+    /**
+     * Shortest fragment the index can answer; shorter fragments have no trigram to look up.
+     */
+    public static final int GRAM = 3;
+
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    private final Map<Integer, String> names = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    /**
+     * Whether the initial build has completed and the index can answer queries.
+     *
+     * @return true once the index is fully loaded
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Mark the initial build as complete.
+     */
+    public void markReady() {
+        ready = true;
+    }
+
+    /**
+     * Add or replace the name indexed for a product.
+     *
+     * @param id the product ID
+     * @param name the product name
+     */
+    public void put(long id, String name) {
+        int key = Math.toIntExact(id);
+        String normalized = normalize(name);
+        lock.writeLock().lock();
+        try {
+            String previous = names.put(key, normalized);
+            if (previous != null) {
+                if (previous.equals(normalized)) {
+                    return;
+                }
+                for (long gram : grams(previous)) {
+                    PostingList list = postings.get(gram);
+                    if (list != null && list.remove(key) && list.size == 0) {
+                        postings.remove(gram);
+                    }
+                }
+            }
+            for (long gram : grams(normalized)) {
+                postings.computeIfAbsent(gram, g -> new PostingList()).add(key);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a product from the index.
+     *
+     * @param id the product ID
+     */
+    public void remove(long id) {
+        int key = Math.toIntExact(id);
+        lock.writeLock().lock();
+        try {
+            String previous = names.remove(key);
+            if (previous == null) {
+                return;
+            }
+            for (long gram : grams(previous)) {
+                PostingList list = postings.get(gram);
+                if (list != null && list.remove(key) && list.size == 0) {
+                    postings.remove(gram);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find the ids of products whose name contains the fragment, ignoring case.
+     *
+     * @param fragment the name fragment to search for
+     * @return matching product ids in ascending order, or null if the fragment is shorter than {@link #GRAM}
+     */
+    public int[] search(String fragment) {
+        return search(fragment, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Find the ids of the first products whose name contains the fragment, ignoring case.
+     *
+     * @param fragment the name fragment to search for
+     * @param limit the maximum number of ids to return
+     * @return up to limit matching product ids in ascending order, or null if the fragment is shorter than
+     *         {@link #GRAM}
+     */
+    public int[] search(String fragment, int limit) {
+        return search(fragment, 0L, limit);
+    }
+
+    /**
+     * Find the ids of the first products after a cursor whose name contains the fragment, ignoring case.
+     * Only the part of the shortest posting list past the cursor is walked, and the walk stops at the limit.
+     *
+     * @param fragment the name fragment to search for
+     * @param afterId only ids greater than this are returned
+     * @param limit the maximum number of ids to return
+     * @return up to limit matching product ids greater than afterId in ascending order, or null if the fragment
+     *         is shorter than {@link #GRAM}
+     */
+    public int[] search(String fragment, long afterId, int limit) {
+        String normalized = normalize(fragment);
+        long[] grams = grams(normalized);
+        if (grams.length == 0) {
+            return null;
+        }
+        if (afterId >= Integer.MAX_VALUE) {
+            return new int[0];
+        }
+        lock.readLock().lock();
+        try {
+            List<PostingList> lists = new ArrayList<>(grams.length);
+            for (long gram : grams) {
+                PostingList list = postings.get(gram);
+                if (list == null) {
+                    return new int[0];
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(list -> list.size));
+
+            // Drive the intersection from the shortest list, starting past the cursor, and probe the longer ones
+            PostingList shortest = lists.get(0);
+            int from = shortest.firstAfter(afterId);
+            int[] result = new int[Math.min(shortest.size - from, limit)];
+            int count = 0;
+            for (int i = from; i < shortest.size && count < limit; i++) {
+                int id = shortest.ids[i];
+                if (containsInAll(lists, id) && names.get(id).contains(normalized)) {
+                    result[count++] = id;
+                }
+            }
+            return Arrays.copyOf(result, count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Estimate how many products contain the fragment without intersecting posting lists.
+     *
+     * @param fragment the name fragment
+     * @return the length of the shortest posting list of its trigrams, an upper bound on the matches,
+     *         or -1 if the fragment is shorter than {@link #GRAM}
+     */
+    public int estimate(String fragment) {
+        long[] grams = grams(normalize(fragment));
+        if (grams.length == 0) {
+            return -1;
+        }
+        lock.readLock().lock();
+        try {
+            int estimate = Integer.MAX_VALUE;
+            for (long gram : grams) {
+                PostingList list = postings.get(gram);
+                estimate = Math.min(estimate, list == null ? 0 : list.size);
+            }
+            return estimate;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Keep only the candidates whose indexed name contains the fragment, ignoring case, preserving their order.
+     *
+     * @param ids the candidate product ids
+     * @param fragment the name fragment
+     * @return the matching candidates
+     */
+    public int[] retainMatching(int[] ids, String fragment) {
+        String normalized = normalize(fragment);
+        int[] result = new int[ids.length];
+        int count = 0;
+        lock.readLock().lock();
+        try {
+            for (int id : ids) {
+                String name = names.get(id);
+                if (name != null && name.contains(normalized)) {
+                    result[count++] = id;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Number of products currently indexed.
+     *
+     * @return the indexed product count
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return names.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static boolean containsInAll(List<PostingList> lists, int id) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Distinct trigrams of a normalized string, each packed into a long as three 16-bit chars.
+     */
+    private static long[] grams(String value) {
+        if (value.length() < GRAM) {
+            return new long[0];
+        }
+        long[] grams = new long[value.length() - GRAM + 1];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = ((long) value.charAt(i) << 32) | ((long) value.charAt(i + 1) << 16) | value.charAt(i + 2);
+        }
+        return Arrays.stream(grams).distinct().toArray();
+    }
+
+    /**
+     * Sorted, growable list of product ids.
+     * Ids are assigned in ascending order, so adds are almost always appends.
+     */
+    private static final class PostingList {
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            int insertAt = -position - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        boolean remove(int id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            return true;
+        }
+
+        boolean contains(int id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        int firstAfter(long id) {
+            if (id < Integer.MIN_VALUE) {
+                return 0;
+            }
+            int position = Arrays.binarySearch(ids, 0, size, (int) id);
+            return position >= 0 ? position + 1 : -position - 1;
+        }
+    }
+}
@@ -0,0 +1,447 @@
+package com.example.GeneralWebProject.index;
+
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * In-memory price index over products.
+ * Product ids are kept sorted by (price, id) in parallel primitive arrays with prices stored as long cents,
+ * so a price range is a binary search followed by a contiguous copy.
+ * <p>
+ * Readers work on an immutable snapshot and never block. Writers are serialized and publish a new
+ * snapshot (copy-on-write); while the index is being built, writes are staged and sorted once in
+ * {@link #markReady()}. A batch of changes applied through {@link #apply(Map, Collection)} is merged into
+ * a single new snapshot.
+ * <p>
+ * Ids are assumed to be dense, as produced by an identity column, and are tracked in an array indexed by id.
+ */
+@Component
+public class ProductPriceIndex {
+
+    private static final long ABSENT = Long.MIN_VALUE;
+
+    private volatile Snapshot snapshot = new Snapshot(new long[0], new int[0]);
+    private volatile boolean ready;
+
+    /**
+     * Current price of each indexed product in cents, indexed by id; guarded by {@code this}.
+     */
+    private long[] centsById = new long[0];
+    private int count;
+
+    /**
+     * Convert a price to whole cents.
+     *
+     * @param price the price
+     * @param rounding how to round amounts with more than two decimals
+     * @return the price in cents
+     */
+    public static long toCents(BigDecimal price, RoundingMode rounding) {
+        return price.setScale(2, rounding).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Convert whole cents back to a price with two decimals.
+     *
+     * @param cents the price in cents
+     * @return the price
+     */
+    public static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    /**
+     * Whether the initial build has completed and the index can answer queries.
+     *
+     * @return true once the index is fully loaded
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Sort everything staged during the initial build and start answering queries.
+     */
+    public synchronized void markReady() {
+        int[] ids = new int[count];
+        long[] cents = new long[count];
+        int n = 0;
+        for (int id = 0; id < centsById.length; id++) {
+            if (centsById[id] != ABSENT) {
+                ids[n] = id;
+                cents[n] = centsById[id];
+                n++;
+            }
+        }
+        snapshot = sorted(cents, ids);
+        ready = true;
+    }
+
+    /**
+     * Add or reprice a product.
+     *
+     * @param id the product ID
+     * @param price the product price
+     */
+    public synchronized void put(long id, BigDecimal price) {
+        int key = Math.toIntExact(id);
+        long cents = toCents(price, RoundingMode.HALF_UP);
+        ensureCapacity(key);
+        long previous = centsById[key];
+        if (previous == cents) {
+            return;
+        }
+        centsById[key] = cents;
+        if (previous == ABSENT) {
+            count++;
+        }
+        if (ready) {
+            snapshot = previous == ABSENT ? snapshot.with(cents, key) : snapshot.moved(previous, cents, key);
+        }
+    }
+
+    /**
+     * Add, reprice and remove a batch of products, publishing one snapshot for the whole batch.
+     *
+     * @param prices the current price of each product to add or reprice, by product ID
+     * @param removed the IDs of the products to remove
+     */
+    public synchronized void apply(Map<Long, BigDecimal> prices, Collection<Long> removed) {
+        // Changes in id order, so the entries they add or drop come out ready for the stable sort
+        Map<Integer, Long> changes = new TreeMap<>();
+        for (Long id : removed) {
+            changes.put(Math.toIntExact(id), ABSENT);
+        }
+        prices.forEach((id, price) -> changes.put(Math.toIntExact(id), toCents(price, RoundingMode.HALF_UP)));
+
+        long[] droppedCents = new long[changes.size()];
+        int[] droppedIds = new int[changes.size()];
+        long[] addedCents = new long[changes.size()];
+        int[] addedIds = new int[changes.size()];
+        int dropped = 0;
+        int added = 0;
+        for (Map.Entry<Integer, Long> change : changes.entrySet()) {
+            int key = change.getKey();
+            long cents = change.getValue();
+            long previous = key < centsById.length ? centsById[key] : ABSENT;
+            if (previous == cents) {
+                continue;
+            }
+            ensureCapacity(key);
+            centsById[key] = cents;
+            if (previous != ABSENT) {
+                droppedCents[dropped] = previous;
+                droppedIds[dropped++] = key;
+                count--;
+            }
+            if (cents != ABSENT) {
+                addedCents[added] = cents;
+                addedIds[added++] = key;
+                count++;
+            }
+        }
+        if (ready && dropped + added > 0) {
+            snapshot = snapshot.merged(
+                    sorted(Arrays.copyOf(droppedCents, dropped), Arrays.copyOf(droppedIds, dropped)),
+                    sorted(Arrays.copyOf(addedCents, added), Arrays.copyOf(addedIds, added)));
+        }
+    }
+
+    /**
+     * Remove a product from the index.
+     *
+     * @param id the product ID
+     */
+    public synchronized void remove(long id) {
+        int key = Math.toIntExact(id);
+        if (key >= centsById.length || centsById[key] == ABSENT) {
+            return;
+        }
+        long previous = centsById[key];
+        centsById[key] = ABSENT;
+        count--;
+        if (ready) {
+            snapshot = snapshot.without(previous, key);
+        }
+    }
+
+    /**
+     * Count products priced within [minCents, maxCents].
+     *
+     * @param minCents the inclusive lower bound in cents
+     * @param maxCents the inclusive upper bound in cents
+     * @return the number of products in range
+     */
+    public int count(long minCents, long maxCents) {
+        Snapshot current = snapshot;
+        return Math.max(0, current.upperBound(maxCents, Integer.MAX_VALUE) - current.lowerBound(minCents, 0));
+    }
+
+    /**
+     * Return the next slice of products priced within [minCents, maxCents], ordered by (price, id).
+     *
+     * @param minCents the inclusive lower bound in cents
+     * @param maxCents the inclusive upper bound in cents
+     * @param afterCents the price of the last product on the previous page, or {@link Long#MIN_VALUE}
+     * @param afterId the id of the last product on the previous page
+     * @param limit the maximum number of products to return
+     * @return the slice, with {@code hasMore} set when further products are in range
+     */
+    public Slice range(long minCents, long maxCents, long afterCents, long afterId, int limit) {
+        Snapshot current = snapshot;
+        int from = current.lowerBound(minCents, 0);
+        if (afterCents != Long.MIN_VALUE) {
+            from = Math.max(from, current.upperBound(afterCents, (int) Math.min(afterId, Integer.MAX_VALUE)));
+        }
+        int end = current.upperBound(maxCents, Integer.MAX_VALUE);
+        int to = Math.min(end, from + limit);
+        if (to <= from) {
+            return new Slice(new int[0], new long[0], false);
+        }
+        return new Slice(Arrays.copyOfRange(current.ids, from, to),
+                Arrays.copyOfRange(current.cents, from, to), to < end);
+    }
+
+    /**
+     * Keep only the candidates priced within [minCents, maxCents], preserving their order.
+     * Looks prices up by id, so it briefly holds the writer lock.
+     *
+     * @param ids the candidate product ids
+     * @param minCents the inclusive lower bound in cents
+     * @param maxCents the inclusive upper bound in cents
+     * @return the candidates in range
+     */
+    public synchronized int[] retainInRange(int[] ids, long minCents, long maxCents) {
+        int[] result = new int[ids.length];
+        int count = 0;
+        for (int id : ids) {
+            long cents = id >= 0 && id < centsById.length ? centsById[id] : ABSENT;
+            if (cents != ABSENT && cents >= minCents && cents <= maxCents) {
+                result[count++] = id;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private void ensureCapacity(int key) {
+        if (key < centsById.length) {
+            return;
+        }
+        int oldLength = centsById.length;
+        centsById = Arrays.copyOf(centsById, Math.max(key + 1, oldLength + (oldLength >> 1) + 16));
+        Arrays.fill(centsById, oldLength, centsById.length, ABSENT);
+    }
+
+    /**
+     * Sort parallel arrays given in id order by (cents, id).
+     */
+    private static Snapshot sorted(long[] cents, int[] ids) {
+        long maxCents = 0;
+        for (long value : cents) {
+            if (value < 0) {
+                maxCents = Long.MAX_VALUE;
+                break;
+            }
+            maxCents = Math.max(maxCents, value);
+        }
+        if (maxCents < (1L << 32)) {
+            // Pack (cents, id) into one long so a primitive sort orders by price then id
+            long[] packed = new long[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                packed[i] = (cents[i] << 31) | ids[i];
+            }
+            Arrays.sort(packed);
+            for (int i = 0; i < packed.length; i++) {
+                cents[i] = packed[i] >>> 31;
+                ids[i] = (int) (packed[i] & Integer.MAX_VALUE);
+            }
+            return new Snapshot(cents, ids);
+        }
+        Integer[] order = new Integer[ids.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        // Stable sort by price; ids are already ascending within equal prices
+        Arrays.sort(order, (a, b) -> Long.compare(cents[a], cents[b]));
+        long[] sortedCents = new long[ids.length];
+        int[] sortedIds = new int[ids.length];
+        for (int i = 0; i < order.length; i++) {
+            sortedCents[i] = cents[order[i]];
+            sortedIds[i] = ids[order[i]];
+        }
+        return new Snapshot(sortedCents, sortedIds);
+    }
+
+    /**
+     * A slice of the index in (price, id) order.
+     */
+    public static final class Slice {
+        private final int[] ids;
+        private final long[] cents;
+        private final boolean hasMore;
+
+        public Slice(int[] ids, long[] cents, boolean hasMore) {
+            this.ids = ids;
+            this.cents = cents;
+            this.hasMore = hasMore;
+        }
+
+        public int[] getIds() {
+            return ids;
+        }
+
+        public long[] getCents() {
+            return cents;
+        }
+
+        public boolean hasMore() {
+            return hasMore;
+        }
+    }
+
+    /**
+     * Immutable arrays sorted by (cents, id).
+     */
+    private static final class Snapshot {
+        private final long[] cents;
+        private final int[] ids;
+
+        Snapshot(long[] cents, int[] ids) {
+            this.cents = cents;
+            this.ids = ids;
+        }
+
+        /**
+         * First position whose (cents, id) is not less than the given key.
+         */
+        int lowerBound(long keyCents, int keyId) {
+            int low = 0;
+            int high = ids.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (compare(mid, keyCents, keyId) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * First position whose (cents, id) is greater than the given key.
+         */
+        int upperBound(long keyCents, int keyId) {
+            int low = 0;
+            int high = ids.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (compare(mid, keyCents, keyId) <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        Snapshot with(long keyCents, int keyId) {
+            int position = lowerBound(keyCents, keyId);
+            long[] newCents = new long[cents.length + 1];
+            int[] newIds = new int[ids.length + 1];
+            System.arraycopy(cents, 0, newCents, 0, position);
+            System.arraycopy(ids, 0, newIds, 0, position);
+            newCents[position] = keyCents;
+            newIds[position] = keyId;
+            System.arraycopy(cents, position, newCents, position + 1, cents.length - position);
+            System.arraycopy(ids, position, newIds, position + 1, ids.length - position);
+            return new Snapshot(newCents, newIds);
+        }
+
+        Snapshot without(long keyCents, int keyId) {
+            int position = lowerBound(keyCents, keyId);
+            if (position == ids.length || ids[position] != keyId || cents[position] != keyCents) {
+                return this;
+            }
+            long[] newCents = new long[cents.length - 1];
+            int[] newIds = new int[ids.length - 1];
+            System.arraycopy(cents, 0, newCents, 0, position);
+            System.arraycopy(ids, 0, newIds, 0, position);
+            System.arraycopy(cents, position + 1, newCents, position, cents.length - position - 1);
+            System.arraycopy(ids, position + 1, newIds, position, ids.length - position - 1);
+            return new Snapshot(newCents, newIds);
+        }
+
+        /**
+         * Move an entry to a new price with one copy, shifting only the entries between its old and new
+         * positions.
+         */
+        Snapshot moved(long fromCents, long toCents, int keyId) {
+            int from = lowerBound(fromCents, keyId);
+            if (from == ids.length || compare(from, fromCents, keyId) != 0) {
+                return with(toCents, keyId);
+            }
+            int to = lowerBound(toCents, keyId);
+            long[] newCents = cents.clone();
+            int[] newIds = ids.clone();
+            if (to > from) {
+                // The entry itself sits before its new position, which moves back by one once it is taken out
+                to--;
+                System.arraycopy(cents, from + 1, newCents, from, to - from);
+                System.arraycopy(ids, from + 1, newIds, from, to - from);
+            } else {
+                System.arraycopy(cents, to, newCents, to + 1, from - to);
+                System.arraycopy(ids, to, newIds, to + 1, from - to);
+            }
+            newCents[to] = toCents;
+            newIds[to] = keyId;
+            return new Snapshot(newCents, newIds);
+        }
+
+        /**
+         * Drop and add sorted entries in one pass, copying the unchanged runs between them in bulk.
+         * Every dropped entry must be present, which holds as centsById mirrors the snapshot once ready.
+         */
+        Snapshot merged(Snapshot dropped, Snapshot added) {
+            long[] newCents = new long[cents.length - dropped.ids.length + added.ids.length];
+            int[] newIds = new int[newCents.length];
+            int source = 0;
+            int target = 0;
+            int d = 0;
+            int a = 0;
+            while (d < dropped.ids.length || a < added.ids.length) {
+                boolean drop = a == added.ids.length
+                        || (d < dropped.ids.length && dropped.compare(d, added.cents[a], added.ids[a]) < 0);
+                long keyCents = drop ? dropped.cents[d] : added.cents[a];
+                int keyId = drop ? dropped.ids[d] : added.ids[a];
+                int position = lowerBound(keyCents, keyId);
+                System.arraycopy(cents, source, newCents, target, position - source);
+                System.arraycopy(ids, source, newIds, target, position - source);
+                target += position - source;
+                source = position;
+                if (drop) {
+                    source++;
+                    d++;
+                } else {
+                    newCents[target] = keyCents;
+                    newIds[target++] = keyId;
+                    a++;
+                }
+            }
+            System.arraycopy(cents, source, newCents, target, cents.length - source);
+            System.arraycopy(ids, source, newIds, target, ids.length - source);
+            return new Snapshot(newCents, newIds);
+        }
+
+        private int compare(int position, long keyCents, int keyId) {
+            int byCents = Long.compare(cents[position], keyCents);
+            return byCents != 0 ? byCents : Integer.compare(ids[position], keyId);
+        }
+    }
+}
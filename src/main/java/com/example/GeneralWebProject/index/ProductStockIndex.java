@@ -0,0 +1,188 @@
+package com.example.GeneralWebProject.index;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Concurrent bitset of in-stock products, one bit per product id.
+ * A set bit means the product has a quantity in stock greater than zero.
+ * <p>
+ * Bits are flipped with atomic word updates so concurrent writers never block each other; only growing
+ * the bitset takes an exclusive lock. Readers never lock and scan words directly.
+ */
+@Component
+public class ProductStockIndex {
+
+    private volatile AtomicLongArray words = new AtomicLongArray(0);
+    private final ReadWriteLock resizeLock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    /**
+     * Whether the initial build has completed and the index can answer queries.
+     *
+     * @return true once the index is fully loaded
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Mark the initial build as complete.
+     */
+    public void markReady() {
+        ready = true;
+    }
+
+    /**
+     * Record the stock level of a product.
+     *
+     * @param id the product ID
+     * @param quantityInStock the current quantity in stock
+     */
+    public void put(long id, int quantityInStock) {
+        if (quantityInStock > 0) {
+            set(Math.toIntExact(id));
+        } else {
+            clear(id);
+        }
+    }
+
+    /**
+     * Remove a product from the index.
+     *
+     * @param id the product ID
+     */
+    public void clear(long id) {
+        int bit = Math.toIntExact(id);
+        resizeLock.readLock().lock();
+        try {
+            AtomicLongArray current = words;
+            int word = bit >>> 6;
+            if (word < current.length()) {
+                long mask = 1L << bit;
+                current.getAndUpdate(word, value -> value & ~mask);
+            }
+        } finally {
+            resizeLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Whether a product is in stock.
+     *
+     * @param id the product ID
+     * @return true if the product's bit is set
+     */
+    public boolean contains(long id) {
+        if (id < 0 || id > Integer.MAX_VALUE) {
+            return false;
+        }
+        int bit = (int) id;
+        AtomicLongArray current = words;
+        int word = bit >>> 6;
+        return word < current.length() && (current.get(word) & (1L << bit)) != 0;
+    }
+
+    /**
+     * Number of products in stock.
+     *
+     * @return the number of set bits
+     */
+    public int cardinality() {
+        AtomicLongArray current = words;
+        int count = 0;
+        for (int i = 0; i < current.length(); i++) {
+            count += Long.bitCount(current.get(i));
+        }
+        return count;
+    }
+
+    /**
+     * Ids of in-stock products after the given id, in ascending order.
+     *
+     * @param afterId the exclusive lower bound
+     * @param limit the maximum number of ids to return
+     * @return up to limit ids
+     */
+    public int[] idsAfter(long afterId, int limit) {
+        AtomicLongArray current = words;
+        int[] ids = new int[Math.min(limit, 1024)];
+        int count = 0;
+        long start = afterId + 1;
+        if (start > (long) current.length() << 6) {
+            return new int[0];
+        }
+        int wordIndex = (int) (start >>> 6);
+        long word = wordIndex < current.length() ? current.get(wordIndex) & (-1L << start) : 0L;
+        while (count < limit) {
+            if (word != 0) {
+                if (count == ids.length) {
+                    ids = Arrays.copyOf(ids, Math.min(limit, ids.length * 2));
+                }
+                ids[count++] = (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            } else if (++wordIndex < current.length()) {
+                word = current.get(wordIndex);
+            } else {
+                break;
+            }
+        }
+        return Arrays.copyOf(ids, count);
+    }
+
+    /**
+     * Keep only the in-stock ids of a candidate list, preserving its order.
+     *
+     * @param ids the candidate product ids
+     * @return the candidates that are in stock
+     */
+    public int[] retainInStock(int[] ids) {
+        int[] result = new int[ids.length];
+        int count = 0;
+        for (int id : ids) {
+            if (contains(id)) {
+                result[count++] = id;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private void set(int bit) {
+        int word = bit >>> 6;
+        long mask = 1L << bit;
+        while (true) {
+            resizeLock.readLock().lock();
+            try {
+                AtomicLongArray current = words;
+                if (word < current.length()) {
+                    current.getAndUpdate(word, value -> value | mask);
+                    return;
+                }
+            } finally {
+                resizeLock.readLock().unlock();
+            }
+            grow(word + 1);
+        }
+    }
+
+    private void grow(int minWords) {
+        resizeLock.writeLock().lock();
+        try {
+            AtomicLongArray current = words;
+            if (current.length() >= minWords) {
+                return;
+            }
+            AtomicLongArray grown = new AtomicLongArray(Math.max(minWords, current.length() + (current.length() >> 1) + 16));
+            for (int i = 0; i < current.length(); i++) {
+                grown.set(i, current.get(i));
+            }
+            words = grown;
+        } finally {
+            resizeLock.writeLock().unlock();
+        }
+    }
+}
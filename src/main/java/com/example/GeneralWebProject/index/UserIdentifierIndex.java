@@ -0,0 +1,113 @@
+package com.example.GeneralWebProject.index;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counting Bloom filters over the usernames and emails of all users, so that a free username or email can be
+ * confirmed without a database query. A "taken" answer may be a false positive and is confirmed against the
+ * database by the caller.
+ * <p>
+ * The filters are sized when the index is loaded, for twice the users present then or the configured expected
+ * count, whichever is larger. The false positive rate rises if the table grows well past that until the next
+ * restart; answers stay correct, more of them just fall back to the database.
+ */
+@Component
+public class UserIdentifierIndex {
+
+    private final long expectedUsers;
+    private final double falsePositiveRate;
+    private volatile CountingBloomFilter usernames;
+    private volatile CountingBloomFilter emails;
+    private volatile boolean ready;
+
+    @Autowired
+    public UserIdentifierIndex(@Value("${app.users.availability.expected-users:100000}") long expectedUsers,
+                               @Value("${app.users.availability.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.expectedUsers = expectedUsers;
+        this.falsePositiveRate = falsePositiveRate;
+        resize(0);
+    }
+
+    /**
+     * Whether the initial build has completed and the index can answer queries.
+     *
+     * @return true once the index is fully loaded
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Mark the initial build as complete.
+     */
+    public void markReady() {
+        ready = true;
+    }
+
+    /**
+     * Replace the filters with empty ones sized for a number of users. Only called before the initial build.
+     *
+     * @param userCount the number of users about to be added
+     */
+    public void resize(long userCount) {
+        long capacity = Math.max(expectedUsers, 2 * userCount);
+        usernames = new CountingBloomFilter(capacity, falsePositiveRate);
+        emails = new CountingBloomFilter(capacity, falsePositiveRate);
+    }
+
+    /**
+     * Record the username and email of a user.
+     *
+     * @param username the username
+     * @param email the email
+     */
+    public void add(String username, String email) {
+        usernames.add(username);
+        emails.add(email);
+    }
+
+    /**
+     * Forget the username and email of a user.
+     * Ignored until the index is ready, since the user may not have been added yet; that leaves at worst a
+     * false positive.
+     *
+     * @param username the username
+     * @param email the email
+     */
+    public void remove(String username, String email) {
+        if (!ready) {
+            return;
+        }
+        usernames.remove(username);
+        emails.remove(email);
+    }
+
+    /**
+     * Check whether a username may be taken.
+     *
+     * @param username the username
+     * @return false if no user has the username, true if one probably has
+     */
+    public boolean mightContainUsername(String username) {
+        return usernames.mightContain(username);
+    }
+
+    /**
+     * Check whether an email may be taken.
+     *
+     * @param email the email
+     * @return false if no user has the email, true if one probably has
+     */
+    public boolean mightContainEmail(String email) {
+        return emails.mightContain(email);
+    }
+
+    /**
+     * @return the heap size of both filters in bytes
+     */
+    public long sizeInBytes() {
+        return usernames.sizeInBytes() + emails.sizeInBytes();
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.GeneralWebProject.index;
+
+import com.example.GeneralWebProject.repository.UserIdentifierView;
+import com.example.GeneralWebProject.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.stream.Stream;
+
+/**
+ * Builds the username and email filters from the database once the application is ready.
+ * Until the index is marked ready the service layer answers availability checks from the database.
+ */
+@Component
+public class UserIdentifierIndexLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(UserIdentifierIndexLoader.class);
+
+    private final UserRepository userRepository;
+    private final UserIdentifierIndex identifierIndex;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public UserIdentifierIndexLoader(UserRepository userRepository,
+                                     UserIdentifierIndex identifierIndex,
+                                     PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.identifierIndex = identifierIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Load every username and email into the index and mark it ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.nanoTime();
+        long[] users = new long[1];
+        transactionTemplate.executeWithoutResult(status -> {
+            // Sized before streaming, so users created meanwhile are added to the filters being filled
+            identifierIndex.resize(userRepository.count());
+            try (Stream<UserIdentifierView> rows = userRepository.streamIdentifiers()) {
+                rows.forEach(row -> {
+                    identifierIndex.add(row.getUsername(), row.getEmail());
+                    users[0]++;
+                });
+            }
+        });
+        identifierIndex.markReady();
+        log.info("Loaded {} users into the username and email filters ({} KB) in {} ms",
+                users[0], identifierIndex.sizeInBytes() / 1024, (System.nanoTime() - start) / 1_000_000);
+    }
+}
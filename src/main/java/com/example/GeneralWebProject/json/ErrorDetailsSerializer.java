@@ -0,0 +1,51 @@
+package com.example.GeneralWebProject.json;
+
+import com.example.GeneralWebProject.exception.GlobalExceptionHandler.ErrorDetails;
+import com.example.GeneralWebProject.exception.GlobalExceptionHandler.ValidationErrorDetails;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+
+/**
+ * Writes {@link ErrorDetails} and {@link ValidationErrorDetails} field by field, with pre-encoded field names, in
+ * place of Jackson's reflective bean serializer. The timestamp and the validation error map are still written by
+ * the configured serializers for their types, so {@code spring.jackson.*} date settings apply.
+ */
+@JsonComponent
+public class ErrorDetailsSerializer extends StdSerializer<ErrorDetails> {
+
+    private static final SerializedString TIMESTAMP = new SerializedString("timestamp");
+    private static final SerializedString STATUS = new SerializedString("status");
+    private static final SerializedString ERROR = new SerializedString("error");
+    private static final SerializedString MESSAGE = new SerializedString("message");
+    private static final SerializedString PATH = new SerializedString("path");
+    private static final SerializedString VALIDATION_ERRORS = new SerializedString("validationErrors");
+
+    public ErrorDetailsSerializer() {
+        super(ErrorDetails.class);
+    }
+
+    @Override
+    public void serialize(ErrorDetails details, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(details);
+        gen.writeFieldName(TIMESTAMP);
+        provider.defaultSerializeValue(details.getTimestamp(), gen);
+        gen.writeFieldName(STATUS);
+        gen.writeNumber(details.getStatus());
+        gen.writeFieldName(ERROR);
+        gen.writeString(details.getError());
+        gen.writeFieldName(MESSAGE);
+        gen.writeString(details.getMessage());
+        gen.writeFieldName(PATH);
+        gen.writeString(details.getPath());
+        if (details instanceof ValidationErrorDetails validation) {
+            gen.writeFieldName(VALIDATION_ERRORS);
+            provider.defaultSerializeValue(validation.getValidationErrors(), gen);
+        }
+        gen.writeEndObject();
+    }
+}
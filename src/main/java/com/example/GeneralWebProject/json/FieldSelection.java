@@ -0,0 +1,96 @@
+package com.example.GeneralWebProject.json;
+
+import com.example.GeneralWebProject.dto.SelectableField;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The fields a client selected with {@code ?fields=}, registered as the {@value #FILTER_ID} property filter of the
+ * writer so the DTO serializers leave the other fields out.
+ * <p>
+ * A controller records the selection on the request with {@link #select(WebRequest, Set)};
+ * {@link FieldSelectionResponseAdvice} then hands its {@link #filters(Set) filters} to the Jackson converter that
+ * writes the response. Serializers read it back with {@link #of(SerializerProvider)}. Beans annotated with
+ * {@code @JsonFilter("fieldSelection")} are filtered by property name the same way.
+ */
+public final class FieldSelection extends SimpleBeanPropertyFilter {
+
+    public static final String FILTER_ID = "fieldSelection";
+
+    private static final String ATTRIBUTE = FieldSelection.class.getName();
+
+    private final Set<? extends SelectableField<?>> fields;
+    private final Set<String> names;
+
+    private FieldSelection(Set<? extends SelectableField<?>> fields) {
+        this.fields = fields;
+        this.names = fields.stream().map(SelectableField::getName).collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * @param fields the selected fields, or null for all
+     * @return filters holding the selection, or null for all fields
+     */
+    public static FilterProvider filters(Set<? extends SelectableField<?>> fields) {
+        return fields == null ? null : new SimpleFilterProvider().addFilter(FILTER_ID, new FieldSelection(fields));
+    }
+
+    /**
+     * Select the fields to write in the response to a request.
+     *
+     * @param request the request
+     * @param fields the selected fields, or null for all
+     */
+    public static void select(WebRequest request, Set<? extends SelectableField<?>> fields) {
+        if (fields != null) {
+            request.setAttribute(ATTRIBUTE, filters(fields), RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    /**
+     * @param request the request
+     * @return the filters holding the selection made for the request, or null if it writes all fields
+     */
+    static FilterProvider of(HttpServletRequest request) {
+        return (FilterProvider) request.getAttribute(ATTRIBUTE);
+    }
+
+    /**
+     * @param provider the serializer provider
+     * @return the selection the value is being written with, or null if it writes all fields
+     */
+    static FieldSelection of(SerializerProvider provider) {
+        FilterProvider filters = provider.getConfig().getFilterProvider();
+        return filters != null && filters.findPropertyFilter(FILTER_ID, null) instanceof FieldSelection selection
+                ? selection : null;
+    }
+
+    /**
+     * @param selection a selection, or null for all fields
+     * @param field a field
+     * @return whether the field is to be written
+     */
+    static boolean includes(FieldSelection selection, SelectableField<?> field) {
+        return selection == null || selection.fields.contains(field);
+    }
+
+    @Override
+    protected boolean include(BeanPropertyWriter writer) {
+        return names.contains(writer.getName());
+    }
+
+    @Override
+    protected boolean include(PropertyWriter writer) {
+        return names.contains(writer.getName());
+    }
+}
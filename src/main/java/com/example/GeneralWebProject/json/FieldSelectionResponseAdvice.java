@@ -0,0 +1,43 @@
+package com.example.GeneralWebProject.json;
+
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Writes a response body with the {@link FieldSelection} its controller recorded on the request, in JSON and in
+ * the binary formats alike. Bodies of requests without a selection are passed through untouched.
+ */
+@ControllerAdvice
+public class FieldSelectionResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return AbstractJackson2HttpMessageConverter.class.isAssignableFrom(converterType);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (body == null || !(request instanceof ServletServerHttpRequest servletRequest)) {
+            return body;
+        }
+        FilterProvider filters = FieldSelection.of(servletRequest.getServletRequest());
+        if (filters == null) {
+            return body;
+        }
+        MappingJacksonValue container = body instanceof MappingJacksonValue value
+                ? value : new MappingJacksonValue(body);
+        container.setFilters(filters);
+        return container;
+    }
+}
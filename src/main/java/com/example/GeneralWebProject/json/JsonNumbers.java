@@ -0,0 +1,64 @@
+package com.example.GeneralWebProject.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.json.JsonWriteFeature;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * Number writing shared by the DTO serializers.
+ */
+final class JsonNumbers {
+
+    private static final int MAX_FAST_SCALE = 18;
+    private static final long[] POWERS_OF_TEN = new long[MAX_FAST_SCALE + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private JsonNumbers() {
+    }
+
+    /**
+     * Write a decimal exactly as {@link JsonGenerator#writeNumber(BigDecimal)} would.
+     * <p>
+     * Non-negative values with at most 18 digits and a scale of 0 to 18, such as prices, are written straight into the
+     * generator's buffer: the integer part as a long, then the fraction digit by digit, without building the
+     * string {@link BigDecimal#toString()} would. Everything else, binary formats and numbers written as strings go
+     * through the generator.
+     *
+     * @param gen the generator
+     * @param value the value, may be null
+     * @throws IOException if writing fails
+     */
+    static void writeDecimal(JsonGenerator gen, BigDecimal value) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+            return;
+        }
+        int scale = value.scale();
+        if (!gen.canWriteFormattedNumbers() || gen.isEnabled(JsonWriteFeature.WRITE_NUMBERS_AS_STRINGS.mappedFeature())
+                || value.signum() < 0 || scale < 0 || scale > MAX_FAST_SCALE
+                || value.precision() > MAX_FAST_SCALE || value.precision() - 1 - scale < -6) {
+            // toString() switches to exponent notation below 1E-6, so leave those to the generator too
+            gen.writeNumber(value);
+            return;
+        }
+        long unscaled = value.scaleByPowerOfTen(scale).longValueExact();
+        long divisor = POWERS_OF_TEN[scale];
+        gen.writeNumber(unscaled / divisor);
+        if (scale == 0) {
+            return;
+        }
+        gen.writeRaw('.');
+        long fraction = unscaled % divisor;
+        for (int i = scale - 1; i >= 0; i--) {
+            gen.writeRaw((char) ('0' + fraction / POWERS_OF_TEN[i] % 10));
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.GeneralWebProject.json;
+
+import com.example.GeneralWebProject.dto.ProductDTO;
+import com.example.GeneralWebProject.dto.ProductField;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+
+/**
+ * Writes {@link ProductDTO} field by field, with pre-encoded field names, in place of Jackson's reflective bean
+ * serializer. The output is the same as the bean serializer's; {@code DtoSerializersTest} keeps it that way.
+ * Fields left out of the request's {@link FieldSelection} are not written; the id always is.
+ */
+@JsonComponent
+public class ProductDTOSerializer extends StdSerializer<ProductDTO> {
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString NAME = new SerializedString("name");
+    private static final SerializedString DESCRIPTION = new SerializedString("description");
+    private static final SerializedString PRICE = new SerializedString("price");
+    private static final SerializedString QUANTITY_IN_STOCK = new SerializedString("quantityInStock");
+
+    public ProductDTOSerializer() {
+        super(ProductDTO.class);
+    }
+
+    @Override
+    public void serialize(ProductDTO product, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        FieldSelection selection = FieldSelection.of(provider);
+        gen.writeStartObject(product);
+        gen.writeFieldName(ID);
+        if (product.getId() == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(product.getId());
+        }
+        if (FieldSelection.includes(selection, ProductField.NAME)) {
+            gen.writeFieldName(NAME);
+            gen.writeString(product.getName());
+        }
+        if (FieldSelection.includes(selection, ProductField.DESCRIPTION)) {
+            gen.writeFieldName(DESCRIPTION);
+            gen.writeString(product.getDescription());
+        }
+        if (FieldSelection.includes(selection, ProductField.PRICE)) {
+            gen.writeFieldName(PRICE);
+            JsonNumbers.writeDecimal(gen, product.getPrice());
+        }
+        if (FieldSelection.includes(selection, ProductField.QUANTITY_IN_STOCK)) {
+            gen.writeFieldName(QUANTITY_IN_STOCK);
+            if (product.getQuantityInStock() == null) {
+                gen.writeNull();
+            } else {
+                gen.writeNumber(product.getQuantityInStock());
+            }
+        }
+        gen.writeEndObject();
+    }
+}
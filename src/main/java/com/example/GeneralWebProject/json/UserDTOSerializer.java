@@ -0,0 +1,64 @@
+package com.example.GeneralWebProject.json;
+
+import com.example.GeneralWebProject.dto.UserDTO;
+import com.example.GeneralWebProject.dto.UserField;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+
+/**
+ * Writes {@link UserDTO} field by field, with pre-encoded field names, in place of Jackson's reflective bean
+ * serializer. The output is the same as the bean serializer's; {@code DtoSerializersTest} keeps it that way.
+ * Fields left out of the request's {@link FieldSelection} are not written; the id always is.
+ */
+@JsonComponent
+public class UserDTOSerializer extends StdSerializer<UserDTO> {
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString USERNAME = new SerializedString("username");
+    private static final SerializedString FIRST_NAME = new SerializedString("firstName");
+    private static final SerializedString LAST_NAME = new SerializedString("lastName");
+    private static final SerializedString EMAIL = new SerializedString("email");
+    private static final SerializedString ACTIVE = new SerializedString("active");
+
+    public UserDTOSerializer() {
+        super(UserDTO.class);
+    }
+
+    @Override
+    public void serialize(UserDTO user, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        FieldSelection selection = FieldSelection.of(provider);
+        gen.writeStartObject(user);
+        gen.writeFieldName(ID);
+        if (user.getId() == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(user.getId());
+        }
+        if (FieldSelection.includes(selection, UserField.USERNAME)) {
+            gen.writeFieldName(USERNAME);
+            gen.writeString(user.getUsername());
+        }
+        if (FieldSelection.includes(selection, UserField.FIRST_NAME)) {
+            gen.writeFieldName(FIRST_NAME);
+            gen.writeString(user.getFirstName());
+        }
+        if (FieldSelection.includes(selection, UserField.LAST_NAME)) {
+            gen.writeFieldName(LAST_NAME);
+            gen.writeString(user.getLastName());
+        }
+        if (FieldSelection.includes(selection, UserField.EMAIL)) {
+            gen.writeFieldName(EMAIL);
+            gen.writeString(user.getEmail());
+        }
+        if (FieldSelection.includes(selection, UserField.ACTIVE)) {
+            gen.writeFieldName(ACTIVE);
+            gen.writeBoolean(user.isActive());
+        }
+        gen.writeEndObject();
+    }
+}
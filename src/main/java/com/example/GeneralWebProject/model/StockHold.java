@@ -0,0 +1,38 @@
+package com.example.GeneralWebProject.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity class representing stock held for a pending checkout.
+ * The held quantity has already been taken off the product; it is returned if the hold is released or expires.
+ */
+@Entity
+@Table(name = "stock_holds")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockHold {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @NotNull
+    @Column(name = "product_id")
+    private Long productId;
+
+    @NotNull
+    @Positive
+    private Integer quantity;
+
+    @NotNull
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+}
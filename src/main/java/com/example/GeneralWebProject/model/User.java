@@ -15,19 +15,27 @@ import java.time.LocalDateTime;
  * Entity class representing a user in the application.
  */
 @Entity
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = {
+        @UniqueConstraint(name = User.USERNAME_CONSTRAINT, columnNames = "username"),
+        @UniqueConstraint(name = User.EMAIL_CONSTRAINT, columnNames = "email")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class User {
 
+    /**
+     * Unique constraint names, used to tell which value a failed insert duplicated.
+     */
+    public static final String USERNAME_CONSTRAINT = "uk_users_username";
+    public static final String EMAIL_CONSTRAINT = "uk_users_email";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     @NotBlank
     @Size(min = 3, max = 50)
-    @Column(unique = true)
     private String username;
 
     @NotBlank
@@ -45,7 +53,6 @@ public class User {
     @Email
     @NotBlank
     @Size(max = 100)
-    @Column(unique = true)
     private String email;
 
     private boolean active = true;
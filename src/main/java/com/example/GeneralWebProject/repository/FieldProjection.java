@@ -0,0 +1,75 @@
+package com.example.GeneralWebProject.repository;
+
+import com.example.GeneralWebProject.dto.SelectableField;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Select clause for some fields of an entity, and the copy of each resulting row into a new DTO.
+ * Fields that are not selected are left unset on the DTO.
+ *
+ * @param <T> the DTO type
+ * @param <F> the field type
+ */
+final class FieldProjection<T, F extends Enum<F> & SelectableField<T>> {
+
+    private final List<F> fields;
+    private final Supplier<T> factory;
+    private final String select;
+
+    /**
+     * @param fields the fields to select
+     * @param alias the entity alias used in the query
+     * @param factory creates an empty DTO
+     */
+    FieldProjection(Set<F> fields, String alias, Supplier<T> factory) {
+        this.fields = List.copyOf(fields);
+        this.factory = factory;
+        this.select = this.fields.stream()
+                .map(field -> alias + "." + field.getName())
+                .collect(Collectors.joining(", ", "select ", " "));
+    }
+
+    /**
+     * @return the select clause, followed by a space
+     */
+    String select() {
+        return select;
+    }
+
+    /**
+     * Run a query built on {@link #select()} and copy its rows into DTOs.
+     *
+     * @param query the query
+     * @return the DTOs
+     */
+    List<T> list(TypedQuery<Tuple> query) {
+        return query.getResultList().stream()
+                .map(this::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Stream a query built on {@link #select()} as DTOs. Closing the stream closes the result.
+     *
+     * @param query the query
+     * @return the DTOs
+     */
+    Stream<T> stream(TypedQuery<Tuple> query) {
+        return query.getResultStream().map(this::toDTO);
+    }
+
+    private T toDTO(Tuple row) {
+        T dto = factory.get();
+        for (int i = 0; i < fields.size(); i++) {
+            fields.get(i).set(dto, row.get(i));
+        }
+        return dto;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.GeneralWebProject.repository;
+
+import com.example.GeneralWebProject.dto.ProductDTO;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Immutable projection of a product row together with its modification time,
+ * read by constructor expression instead of loading the entity.
+ */
+public record ProductDetailView(Long id, String name, String description, BigDecimal price,
+                                Integer quantityInStock, LocalDateTime updatedAt) {
+
+    /**
+     * Copy the API fields into a new DTO.
+     *
+     * @return the product DTO
+     */
+    public ProductDTO toDTO() {
+        return new ProductDTO(id, name, description, price, quantityInStock);
+    }
+}
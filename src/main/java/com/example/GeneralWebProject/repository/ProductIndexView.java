@@ -0,0 +1,17 @@
+package com.example.GeneralWebProject.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Narrow projection of a product row used to build the in-memory product indexes.
+ */
+public interface ProductIndexView {
+
+    Long getId();
+
+    String getName();
+
+    BigDecimal getPrice();
+
+    Integer getQuantityInStock();
+}
@@ -2,40 +2,115 @@
 // File: src/main/java/com/example/webapp/repository/ProductRepository.java
 package com.example.GeneralWebProject.repository;
 
+import com.example.GeneralWebProject.dto.CatalogVersionDTO;
 import com.example.GeneralWebProject.model.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Product entity.
  * Provides database operations for the Product entity.
  */
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
 
     /**
-     * Find products by name containing the given string (case insensitive).
+     * Find a product and its modification time without loading the entity.
      *
-     * @param name the name substring to search for
-     * @return list of products matching the name criteria
+     * @param id the product ID
+     * @return the product if it exists
      */
-    List<Product> findByNameContainingIgnoreCase(String name);
+    @Transactional(readOnly = true)
+    @Query("select new com.example.GeneralWebProject.repository.ProductDetailView(" +
+            "p.id, p.name, p.description, p.price, p.quantityInStock, p.updatedAt) from Product p where p.id = :id")
+    Optional<ProductDetailView> findDetailById(@Param("id") Long id);
 
     /**
-     * Find products with a price less than or equal to the given amount.
+     * Stream the columns needed by the in-memory product indexes, ordered by id.
+     * Must be consumed inside a transaction and closed by the caller.
      *
-     * @param price the maximum price
-     * @return list of products with price less than or equal to the given amount
+     * @return stream of index rows for all products
      */
-    List<Product> findByPriceLessThanEqual(BigDecimal price);
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p.id as id, p.name as name, p.price as price, p.quantityInStock as quantityInStock " +
+            "from Product p order by p.id")
+    Stream<ProductIndexView> streamIndexViewsByOrderByIdAsc();
 
     /**
-     * Find products with quantity in stock greater than zero.
+     * Find the columns needed by the in-memory product indexes for the given products.
      *
-     * @return list of products that are in stock
+     * @param ids the product IDs
+     * @return index rows for the products that exist
      */
-    List<Product> findByQuantityInStockGreaterThan(Integer quantity);
-}
\ No newline at end of file
+    @Query("select p.id as id, p.name as name, p.price as price, p.quantityInStock as quantityInStock " +
+            "from Product p where p.id in :ids")
+    List<ProductIndexView> findIndexViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Find the last modification time of a product without loading the entity.
+     *
+     * @param id the product ID
+     * @return the modification time if the product exists
+     */
+    @Query("select p.updatedAt from Product p where p.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+
+    /**
+     * Count products and find the latest modification time in a single aggregate.
+     * The row count is kept by the table and the maximum is read from the end of {@code idx_products_updated_at},
+     * so neither scans the table.
+     *
+     * @return the catalog version
+     */
+    @Query("select new com.example.GeneralWebProject.dto.CatalogVersionDTO(count(p), max(p.updatedAt)) from Product p")
+    CatalogVersionDTO findCatalogVersion();
+
+    /**
+     * Take stock off a product if enough is available, in a single conditional update.
+     *
+     * @param id the product ID
+     * @param quantity the quantity to take
+     * @return 1 if the stock was taken, 0 if the product does not exist or has too little stock
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Product p set p.quantityInStock = p.quantityInStock - :quantity, p.updatedAt = local datetime " +
+            "where p.id = :id and p.quantityInStock >= :quantity")
+    int reserveStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    /**
+     * Return stock to a product in a single update.
+     *
+     * @param id the product ID
+     * @param quantity the quantity to return
+     * @return 1 if the stock was returned, 0 if the product no longer exists
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Product p set p.quantityInStock = p.quantityInStock + :quantity, p.updatedAt = local datetime " +
+            "where p.id = :id")
+    int releaseStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    /**
+     * Find the current stock of a product without loading the entity.
+     *
+     * @param id the product ID
+     * @return the quantity in stock if the product exists
+     */
+    @Query("select p.quantityInStock from Product p where p.id = :id")
+    Optional<Integer> findQuantityInStockById(@Param("id") Long id);
+}
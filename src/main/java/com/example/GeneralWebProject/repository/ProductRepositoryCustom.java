@@ -0,0 +1,102 @@
+package com.example.GeneralWebProject.repository;
+
+import com.example.GeneralWebProject.dto.ProductDTO;
+import com.example.GeneralWebProject.dto.ProductField;
+import com.example.GeneralWebProject.dto.ProductQuery;
+import com.example.GeneralWebProject.model.Product;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Custom repository operations for Product entity that bypass the persistence context.
+ */
+public interface ProductRepositoryCustom {
+
+    /**
+     * Insert products with JDBC batch statements and assign their generated ids.
+     * Hibernate cannot batch inserts for identity ids, so the rows are written with plain JDBC.
+     * Products are not attached to the persistence context.
+     *
+     * @param products the products to insert; their ids are set in place
+     */
+    void batchInsert(List<Product> products);
+
+    /**
+     * Seek the next page of products ordered by id, selecting only the given fields.
+     *
+     * @param fields the fields to select
+     * @param afterId the id of the last product on the previous page, 0 for the first page
+     * @param limit the maximum number of products to return
+     * @return the next page of products
+     */
+    List<ProductDTO> findPageAfterId(Set<ProductField> fields, long afterId, int limit);
+
+    /**
+     * Seek the next page of products whose name contains the given string (case insensitive), ordered by id,
+     * selecting only the given fields.
+     *
+     * @param fields the fields to select
+     * @param name the name substring to search for; LIKE wildcards in it match literally
+     * @param afterId the id of the last product on the previous page, 0 for the first page
+     * @param limit the maximum number of products to return
+     * @return the next page of matching products
+     */
+    List<ProductDTO> findPageByNameAfterId(Set<ProductField> fields, String name, long afterId, int limit);
+
+    /**
+     * Seek the next page of products with a price less than or equal to the given amount, ordered by (price, id),
+     * selecting only the given fields.
+     *
+     * @param fields the fields to select
+     * @param maxPrice the maximum price
+     * @param afterPrice the price of the last product on the previous page, null for the first page
+     * @param afterId the id of the last product on the previous page
+     * @param limit the maximum number of products to return
+     * @return the next page of matching products
+     */
+    List<ProductDTO> findPageByMaxPrice(Set<ProductField> fields, BigDecimal maxPrice, BigDecimal afterPrice,
+                                        long afterId, int limit);
+
+    /**
+     * Seek the next page of products in stock, ordered by id, selecting only the given fields.
+     *
+     * @param fields the fields to select
+     * @param afterId the id of the last product on the previous page, 0 for the first page
+     * @param limit the maximum number of products to return
+     * @return the next page of matching products
+     */
+    List<ProductDTO> findPageInStockAfterId(Set<ProductField> fields, long afterId, int limit);
+
+    /**
+     * Find the products with the given ids, ordered by id, selecting only the given fields.
+     *
+     * @param fields the fields to select
+     * @param ids the product IDs
+     * @return the matching products
+     */
+    List<ProductDTO> findAllDTOsByIdIn(Set<ProductField> fields, Collection<Long> ids);
+
+    /**
+     * Find the products matching every predicate of a query, in the query's order and up to its limit,
+     * selecting only the given fields.
+     *
+     * @param fields the fields to select
+     * @param query the predicates, sort and limit
+     * @param ids the only product IDs to consider, or null for all
+     * @return the matching products
+     */
+    List<ProductDTO> findByQuery(Set<ProductField> fields, ProductQuery query, Collection<Long> ids);
+
+    /**
+     * Stream all products ordered by id, selecting only the given fields.
+     * Must be consumed inside a transaction and closed by the caller.
+     *
+     * @param fields the fields to select
+     * @return stream of all products
+     */
+    Stream<ProductDTO> streamAllDTOsByOrderByIdAsc(Set<ProductField> fields);
+}
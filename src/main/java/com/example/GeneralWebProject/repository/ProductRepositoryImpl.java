@@ -0,0 +1,213 @@
+package com.example.GeneralWebProject.repository;
+
+import com.example.GeneralWebProject.dto.ProductDTO;
+import com.example.GeneralWebProject.dto.ProductField;
+import com.example.GeneralWebProject.dto.ProductQuery;
+import com.example.GeneralWebProject.dto.ProductSort;
+import com.example.GeneralWebProject.model.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.data.jpa.repository.query.EscapeCharacter;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.stream.Stream;
+
+/**
+ * Implementation of the custom Product repository operations: JDBC batch inserts, and the read queries that
+ * select only the fields a client asked for. Listings that return every field pass the full field set.
+ */
+public class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    private static final String INSERT_SQL = "insert into products "
+            + "(name, description, price, quantity_in_stock, created_at, updated_at) values (?, ?, ?, ?, ?, ?)";
+
+    /**
+     * Escapes LIKE wildcards in name fragments with a backslash, the escape character the name queries declare.
+     */
+    private static final EscapeCharacter LIKE_ESCAPE = EscapeCharacter.DEFAULT;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public ProductRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                 @Value("${app.products.bulk.batch-size:500}") int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void batchInsert(List<Product> products) {
+        LocalDateTime now = LocalDateTime.now();
+        for (int from = 0; from < products.size(); from += batchSize) {
+            List<Product> batch = products.subList(from, Math.min(products.size(), from + batchSize));
+            KeyHolder keys = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(
+                    connection -> connection.prepareStatement(INSERT_SQL, new String[]{"id"}),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            Product product = batch.get(i);
+                            product.setCreatedAt(now);
+                            product.setUpdatedAt(now);
+                            ps.setString(1, product.getName());
+                            ps.setString(2, product.getDescription());
+                            ps.setBigDecimal(3, product.getPrice());
+                            ps.setInt(4, product.getQuantityInStock());
+                            ps.setTimestamp(5, Timestamp.valueOf(now));
+                            ps.setTimestamp(6, Timestamp.valueOf(now));
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return batch.size();
+                        }
+                    },
+                    keys);
+            List<Map<String, Object>> generated = keys.getKeyList();
+            if (generated.size() != batch.size()) {
+                throw new DataRetrievalFailureException("Expected " + batch.size()
+                        + " generated ids but got " + generated.size());
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).setId(((Number) generated.get(i).values().iterator().next()).longValue());
+            }
+        }
+    }
+
+    @Override
+    public List<ProductDTO> findPageAfterId(Set<ProductField> fields, long afterId, int limit) {
+        FieldProjection<ProductDTO, ProductField> projection = projection(fields);
+        return projection.list(entityManager.createQuery(projection.select()
+                        + "from Product p where p.id > :afterId order by p.id", Tuple.class)
+                .setParameter("afterId", afterId)
+                .setMaxResults(limit));
+    }
+
+    @Override
+    public List<ProductDTO> findPageByNameAfterId(Set<ProductField> fields, String name, long afterId, int limit) {
+        FieldProjection<ProductDTO, ProductField> projection = projection(fields);
+        return projection.list(entityManager.createQuery(projection.select()
+                        + "from Product p where upper(p.name) like upper(:pattern) escape '\\' "
+                        + "and p.id > :afterId order by p.id", Tuple.class)
+                .setParameter("pattern", "%" + LIKE_ESCAPE.escape(name) + "%")
+                .setParameter("afterId", afterId)
+                .setMaxResults(limit));
+    }
+
+    @Override
+    public List<ProductDTO> findPageByMaxPrice(Set<ProductField> fields, BigDecimal maxPrice, BigDecimal afterPrice,
+                                               long afterId, int limit) {
+        FieldProjection<ProductDTO, ProductField> projection = projection(fields);
+        if (afterPrice == null) {
+            return projection.list(entityManager.createQuery(projection.select()
+                            + "from Product p where p.price <= :maxPrice order by p.price asc, p.id asc", Tuple.class)
+                    .setParameter("maxPrice", maxPrice)
+                    .setMaxResults(limit));
+        }
+        return projection.list(entityManager.createQuery(projection.select()
+                        + "from Product p where p.price <= :maxPrice "
+                        + "and (p.price > :afterPrice or (p.price = :afterPrice and p.id > :afterId)) "
+                        + "order by p.price asc, p.id asc", Tuple.class)
+                .setParameter("maxPrice", maxPrice)
+                .setParameter("afterPrice", afterPrice)
+                .setParameter("afterId", afterId)
+                .setMaxResults(limit));
+    }
+
+    @Override
+    public List<ProductDTO> findPageInStockAfterId(Set<ProductField> fields, long afterId, int limit) {
+        FieldProjection<ProductDTO, ProductField> projection = projection(fields);
+        return projection.list(entityManager.createQuery(projection.select()
+                        + "from Product p where p.quantityInStock > 0 and p.id > :afterId order by p.id", Tuple.class)
+                .setParameter("afterId", afterId)
+                .setMaxResults(limit));
+    }
+
+    @Override
+    public List<ProductDTO> findAllDTOsByIdIn(Set<ProductField> fields, Collection<Long> ids) {
+        FieldProjection<ProductDTO, ProductField> projection = projection(fields);
+        return projection.list(entityManager.createQuery(projection.select()
+                        + "from Product p where p.id in :ids order by p.id", Tuple.class)
+                .setParameter("ids", ids));
+    }
+
+    @Override
+    public List<ProductDTO> findByQuery(Set<ProductField> fields, ProductQuery query, Collection<Long> ids) {
+        FieldProjection<ProductDTO, ProductField> projection = projection(fields);
+        StringJoiner where = new StringJoiner(" and ", "where ", " ").setEmptyValue("");
+        Map<String, Object> parameters = new HashMap<>();
+        if (ids != null) {
+            where.add("p.id in :ids");
+            parameters.put("ids", ids);
+        }
+        if (query.getName() != null) {
+            where.add("upper(p.name) like upper(:pattern) escape '\\'");
+            parameters.put("pattern", "%" + LIKE_ESCAPE.escape(query.getName()) + "%");
+        }
+        if (query.getMinPrice() != null) {
+            where.add("p.price >= :minPrice");
+            parameters.put("minPrice", query.getMinPrice());
+        }
+        if (query.getMaxPrice() != null) {
+            where.add("p.price <= :maxPrice");
+            parameters.put("maxPrice", query.getMaxPrice());
+        }
+        if (query.getMinStock() != null) {
+            where.add("p.quantityInStock >= :minStock");
+            parameters.put("minStock", query.getMinStock());
+        }
+        TypedQuery<Tuple> typed = entityManager.createQuery(projection.select()
+                        + "from Product p " + where + "order by " + orderBy(query.getSort()), Tuple.class)
+                .setMaxResults(query.getLimit());
+        parameters.forEach(typed::setParameter);
+        return projection.list(typed);
+    }
+
+    @Override
+    public Stream<ProductDTO> streamAllDTOsByOrderByIdAsc(Set<ProductField> fields) {
+        FieldProjection<ProductDTO, ProductField> projection = projection(fields);
+        return projection.stream(entityManager.createQuery(projection.select()
+                        + "from Product p order by p.id", Tuple.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, 500));
+    }
+
+    private static FieldProjection<ProductDTO, ProductField> projection(Set<ProductField> fields) {
+        return new FieldProjection<>(fields, "p", ProductDTO::new);
+    }
+
+    private static String orderBy(ProductSort sort) {
+        return switch (sort) {
+            case ID -> "p.id";
+            case NAME -> "p.name asc, p.id asc";
+            case PRICE -> "p.price asc, p.id asc";
+            case PRICE_DESC -> "p.price desc, p.id asc";
+        };
+    }
+}
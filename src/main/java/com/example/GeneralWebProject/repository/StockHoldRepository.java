@@ -0,0 +1,58 @@
+package com.example.GeneralWebProject.repository;
+
+import com.example.GeneralWebProject.model.StockHold;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Repository interface for StockHold entity.
+ * Provides database operations for stock holds.
+ */
+@Repository
+public interface StockHoldRepository extends JpaRepository<StockHold, String> {
+
+    /**
+     * Find holds by id and lock them, so a hold is released or expired at most once.
+     *
+     * @param ids the hold IDs
+     * @return the holds that still exist
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select h from StockHold h where h.id in :ids")
+    List<StockHold> findAllForUpdate(@Param("ids") Collection<String> ids);
+
+    /**
+     * Delete a hold without loading it.
+     *
+     * @param id the hold ID
+     * @return the number of deleted holds, 0 if it was already closed
+     */
+    @Modifying
+    @Query("delete from StockHold h where h.id = :id")
+    int deleteHoldById(@Param("id") String id);
+
+    /**
+     * Stream all open holds.
+     * Must be consumed inside a transaction and closed by the caller.
+     *
+     * @return stream of all holds
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select h from StockHold h")
+    Stream<StockHold> streamAll();
+}
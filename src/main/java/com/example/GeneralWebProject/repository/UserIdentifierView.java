@@ -0,0 +1,11 @@
+package com.example.GeneralWebProject.repository;
+
+/**
+ * Narrow projection of a user row used to build the in-memory username and email filters.
+ */
+public interface UserIdentifierView {
+
+    String getUsername();
+
+    String getEmail();
+}
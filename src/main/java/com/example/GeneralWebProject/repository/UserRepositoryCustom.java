@@ -0,0 +1,40 @@
+package com.example.GeneralWebProject.repository;
+
+import com.example.GeneralWebProject.dto.UserDTO;
+import com.example.GeneralWebProject.dto.UserField;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Custom repository operations for User entity that select only the fields a client asked for.
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * Find all users, ordered by id, selecting only the given fields.
+     *
+     * @param fields the fields to select
+     * @return all users
+     */
+    List<UserDTO> findAllDTOs(Set<UserField> fields);
+
+    /**
+     * Find a user by id, selecting only the given fields.
+     *
+     * @param fields the fields to select
+     * @param id the user ID
+     * @return the user, if found
+     */
+    Optional<UserDTO> findDTOById(Set<UserField> fields, Long id);
+
+    /**
+     * Find a user by username, selecting only the given fields.
+     *
+     * @param fields the fields to select
+     * @param username the username to search for
+     * @return the user, if found
+     */
+    Optional<UserDTO> findDTOByUsername(Set<UserField> fields, String username);
+}
@@ -0,0 +1,49 @@
+package com.example.GeneralWebProject.repository;
+
+import com.example.GeneralWebProject.dto.UserDTO;
+import com.example.GeneralWebProject.dto.UserField;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * JPA implementation of the custom User repository operations.
+ */
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<UserDTO> findAllDTOs(Set<UserField> fields) {
+        FieldProjection<UserDTO, UserField> projection = projection(fields);
+        return projection.list(entityManager.createQuery(projection.select()
+                + "from User u order by u.id", Tuple.class));
+    }
+
+    @Override
+    public Optional<UserDTO> findDTOById(Set<UserField> fields, Long id) {
+        FieldProjection<UserDTO, UserField> projection = projection(fields);
+        return projection.list(entityManager.createQuery(projection.select()
+                        + "from User u where u.id = :id", Tuple.class)
+                .setParameter("id", id))
+                .stream().findFirst();
+    }
+
+    @Override
+    public Optional<UserDTO> findDTOByUsername(Set<UserField> fields, String username) {
+        FieldProjection<UserDTO, UserField> projection = projection(fields);
+        return projection.list(entityManager.createQuery(projection.select()
+                        + "from User u where u.username = :username", Tuple.class)
+                .setParameter("username", username))
+                .stream().findFirst();
+    }
+
+    private static FieldProjection<UserDTO, UserField> projection(Set<UserField> fields) {
+        return new FieldProjection<>(fields, "u", UserDTO::new);
+    }
+}
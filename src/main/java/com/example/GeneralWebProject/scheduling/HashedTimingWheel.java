@@ -0,0 +1,201 @@
+package com.example.GeneralWebProject.scheduling;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel for large numbers of coarse-grained deadlines.
+ * <p>
+ * Time is divided into ticks and deadlines are hashed into a fixed ring of buckets by tick. A single worker
+ * thread advances one bucket per tick and hands every item whose deadline has passed to the expiry handler
+ * as one batch. Scheduling is an enqueue on a lock-free queue, and a pending item costs one small node, so
+ * millions of deadlines need neither a thread nor a heap operation each.
+ * <p>
+ * Deadlines fire no earlier than requested and up to one tick late. There is no cancellation; the handler is
+ * expected to ignore items that no longer matter. The handler runs on the worker thread, so a slow handler
+ * delays later ticks; missed ticks are caught up immediately afterwards.
+ *
+ * @param <T> the type of the scheduled items
+ */
+public class HashedTimingWheel<T> implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(HashedTimingWheel.class);
+
+    private final long tickNanos;
+    private final int mask;
+    private final Node<T>[] buckets;
+    private final Queue<Node<T>> incoming = new ConcurrentLinkedQueue<>();
+    private final Consumer<List<T>> onExpired;
+    private final AtomicLong pending = new AtomicLong();
+    private final long startNanos;
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    /**
+     * Create and start a timing wheel.
+     *
+     * @param name the worker thread name
+     * @param tickDuration the length of one tick
+     * @param unit the unit of tickDuration
+     * @param wheelSize the number of buckets, rounded up to a power of two
+     * @param onExpired receives each batch of expired items on the worker thread
+     */
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(String name, long tickDuration, TimeUnit unit, int wheelSize,
+                             Consumer<List<T>> onExpired) {
+        if (tickDuration <= 0 || wheelSize <= 0 || wheelSize > (1 << 30)) {
+            throw new IllegalArgumentException("Tick duration and wheel size must be positive");
+        }
+        this.tickNanos = unit.toNanos(tickDuration);
+        int size = 1;
+        while (size < wheelSize) {
+            size <<= 1;
+        }
+        this.mask = size - 1;
+        this.buckets = (Node<T>[]) new Node[size];
+        this.onExpired = onExpired;
+        this.startNanos = System.nanoTime();
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Schedule an item to expire after a delay.
+     *
+     * @param item the item handed to the expiry handler
+     * @param delay the delay; zero or negative expires on the next tick
+     * @param unit the unit of delay
+     */
+    public void schedule(T item, long delay, TimeUnit unit) {
+        if (!running) {
+            throw new IllegalStateException("Timing wheel is stopped");
+        }
+        long deadline = System.nanoTime() - startNanos + Math.max(0L, unit.toNanos(delay));
+        incoming.add(new Node<>(item, deadline));
+        pending.incrementAndGet();
+    }
+
+    /**
+     * Number of items scheduled but not yet expired.
+     *
+     * @return the pending item count
+     */
+    public long pending() {
+        return pending.get();
+    }
+
+    /**
+     * Stop the worker thread. Pending items are dropped.
+     */
+    @Override
+    public void close() {
+        running = false;
+        worker.interrupt();
+    }
+
+    private void run() {
+        long tick = 0;
+        while (running) {
+            if (!awaitTick(tick)) {
+                return;
+            }
+            transferIncoming(tick);
+            List<T> expired = expire(tick);
+            if (!expired.isEmpty()) {
+                pending.addAndGet(-expired.size());
+                try {
+                    onExpired.accept(expired);
+                } catch (RuntimeException ex) {
+                    log.error("Expiry handler failed for {} items", expired.size(), ex);
+                }
+            }
+            tick++;
+        }
+    }
+
+    /**
+     * Sleep until the end of the given tick.
+     *
+     * @return false if the wheel was stopped while waiting
+     */
+    private boolean awaitTick(long tick) {
+        long deadline = (tick + 1) * tickNanos;
+        while (running) {
+            long sleepNanos = deadline - (System.nanoTime() - startNanos);
+            if (sleepNanos <= 0) {
+                return true;
+            }
+            try {
+                TimeUnit.NANOSECONDS.sleep(sleepNanos);
+            } catch (InterruptedException ex) {
+                if (!running) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void transferIncoming(long tick) {
+        // Bound the work per tick so a flood of new items cannot starve expiry
+        for (int i = 0; i < 100_000; i++) {
+            Node<T> node = incoming.poll();
+            if (node == null) {
+                return;
+            }
+            long expiryTick = Math.max(tick, (node.deadline + tickNanos - 1) / tickNanos - 1);
+            node.rounds = (expiryTick - tick) / buckets.length;
+            int index = (int) (expiryTick & mask);
+            node.next = buckets[index];
+            buckets[index] = node;
+        }
+    }
+
+    private List<T> expire(long tick) {
+        int index = (int) (tick & mask);
+        List<T> expired = new ArrayList<>();
+        Node<T> previous = null;
+        Node<T> node = buckets[index];
+        while (node != null) {
+            Node<T> next = node.next;
+            if (node.rounds <= 0) {
+                expired.add(node.item);
+                if (previous == null) {
+                    buckets[index] = next;
+                } else {
+                    previous.next = next;
+                }
+            } else {
+                node.rounds--;
+                previous = node;
+            }
+            node = next;
+        }
+        return expired;
+    }
+
+    /**
+     * A scheduled item in a bucket's singly linked list; only touched by the worker once transferred.
+     */
+    private static final class Node<T> {
+        private final T item;
+        private final long deadline;
+        private long rounds;
+        private Node<T> next;
+
+        Node(T item, long deadline) {
+            this.item = item;
+            this.deadline = deadline;
+        }
+    }
+}
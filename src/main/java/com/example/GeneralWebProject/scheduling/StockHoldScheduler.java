@@ -0,0 +1,124 @@
+package com.example.GeneralWebProject.scheduling;
+
+import com.example.GeneralWebProject.model.StockHold;
+import com.example.GeneralWebProject.repository.StockHoldRepository;
+import com.example.GeneralWebProject.service.ProductService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Expires stock holds that are not confirmed or released within their time to live.
+ * Hold ids are kept on a {@link HashedTimingWheel}; expired ids are released in batches through
+ * {@link ProductService#expireReservations(List)}, which ignores holds that were already closed.
+ * <p>
+ * Holds are stored in the database, so on startup every open hold is put back on the wheel and
+ * holds that expired while the application was down are released on the first tick.
+ */
+@Component
+public class StockHoldScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(StockHoldScheduler.class);
+
+    private static final int EXPIRY_BATCH_SIZE = 500;
+    private static final Duration RETRY_DELAY = Duration.ofMinutes(1);
+
+    private final ProductService productService;
+    private final StockHoldRepository stockHoldRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Duration ttl;
+    private final HashedTimingWheel<String> wheel;
+
+    @Autowired
+    public StockHoldScheduler(@Lazy ProductService productService,
+                              StockHoldRepository stockHoldRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.products.reservation.ttl:15m}") Duration ttl,
+                              @Value("${app.products.reservation.tick:1s}") Duration tick) {
+        this.productService = productService;
+        this.stockHoldRepository = stockHoldRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.ttl = ttl;
+        this.wheel = new HashedTimingWheel<>("stock-hold-expiry", tick.toNanos(), TimeUnit.NANOSECONDS, 512,
+                this::expire);
+    }
+
+    /**
+     * Expiry time for a hold created now.
+     *
+     * @return the current time plus the hold time to live
+     */
+    public LocalDateTime nextExpiry() {
+        return LocalDateTime.now().plus(ttl);
+    }
+
+    /**
+     * Schedule a hold to expire.
+     *
+     * @param holdId the hold ID
+     * @param expiresAt when the hold expires
+     */
+    public void schedule(String holdId, LocalDateTime expiresAt) {
+        wheel.schedule(holdId, Duration.between(LocalDateTime.now(), expiresAt).toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Number of holds waiting to expire, including holds already confirmed or released.
+     *
+     * @return the pending hold count
+     */
+    public long pending() {
+        return wheel.pending();
+    }
+
+    /**
+     * Put every open hold back on the wheel after a restart.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        long[] count = {0};
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<StockHold> holds = stockHoldRepository.streamAll()) {
+                holds.forEach(hold -> {
+                    schedule(hold.getId(), hold.getExpiresAt());
+                    count[0]++;
+                });
+            }
+        });
+        if (count[0] > 0) {
+            log.info("Rescheduled {} open stock holds", count[0]);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        wheel.close();
+    }
+
+    private void expire(List<String> holdIds) {
+        for (int from = 0; from < holdIds.size(); from += EXPIRY_BATCH_SIZE) {
+            List<String> batch = holdIds.subList(from, Math.min(holdIds.size(), from + EXPIRY_BATCH_SIZE));
+            try {
+                productService.expireReservations(batch);
+            } catch (RuntimeException ex) {
+                log.error("Failed to expire {} stock holds, retrying in {}", batch.size(), RETRY_DELAY, ex);
+                batch.forEach(holdId -> wheel.schedule(holdId, RETRY_DELAY.toNanos(), TimeUnit.NANOSECONDS));
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.GeneralWebProject.security;
+
+import com.example.GeneralWebProject.dto.AccessTokenDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Issues and verifies short-lived access tokens signed with HMAC-SHA256.
+ * <p>
+ * Credentials are checked with BCrypt once, when the token is issued; after that a request is authenticated by
+ * recomputing one HMAC over the token, with no password hashing and no user lookup. A token is
+ * {@code base64url(payload) + "." + base64url(signature)}, where the payload holds the expiry, the authorities and
+ * the username, in that order so that the username, which is the only client-chosen part, is read last.
+ * <p>
+ * Tokens are revoked per username: {@link #revoke} records a not-before time, and tokens of that user issued at or
+ * before it are rejected until they expire. Revocations are kept in memory, so they only apply on this instance;
+ * the time to live is kept short for the other instances and for restarts.
+ */
+@Component
+public class AccessTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(AccessTokenService.class);
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String TOKEN_TYPE = "Bearer";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final Mac prototype;
+    private final Duration ttl;
+    private final Clock clock;
+    private final Map<String, Long> notBefore = new ConcurrentHashMap<>();
+
+    @Autowired
+    public AccessTokenService(@Value("${app.security.token.secret:}") String secret,
+                              @Value("${app.security.token.ttl:15m}") Duration ttl) {
+        this(secret, ttl, Clock.systemUTC());
+    }
+
+    AccessTokenService(String secret, Duration ttl, Clock clock) {
+        this.key = new SecretKeySpec(secretBytes(secret), ALGORITHM);
+        this.prototype = newMac(key);
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    /**
+     * Issue a token for an authenticated user.
+     *
+     * @param authentication the authentication established from the user's credentials
+     * @return the token and its lifetime in seconds
+     */
+    public AccessTokenDTO issue(Authentication authentication) {
+        long expiresAt = clock.instant().plus(ttl).getEpochSecond();
+        String authorities = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.joining(","));
+        String payload = ENCODER.encodeToString(
+                (expiresAt + "\n" + authorities + "\n" + authentication.getName()).getBytes(StandardCharsets.UTF_8));
+        String token = payload + "." + ENCODER.encodeToString(sign(payload));
+        return new AccessTokenDTO(token, TOKEN_TYPE, ttl.toSeconds());
+    }
+
+    /**
+     * Verify a token and rebuild the authentication it was issued for.
+     *
+     * @param token the token
+     * @return the authenticated user with the authorities held when the token was issued
+     * @throws BadCredentialsException if the token is malformed, its signature does not match, it has expired or
+     * it was revoked
+     */
+    public Authentication authenticate(String token) {
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot != token.lastIndexOf('.')) {
+            throw new BadCredentialsException("Malformed access token");
+        }
+        String payload = token.substring(0, dot);
+        byte[] signature;
+        byte[] claims;
+        try {
+            signature = DECODER.decode(token.substring(dot + 1));
+            claims = DECODER.decode(payload);
+        } catch (IllegalArgumentException ex) {
+            throw new BadCredentialsException("Malformed access token");
+        }
+        if (!MessageDigest.isEqual(sign(payload), signature)) {
+            throw new BadCredentialsException("Invalid access token signature");
+        }
+
+        String[] fields = new String(claims, StandardCharsets.UTF_8).split("\n", 3);
+        if (fields.length != 3) {
+            throw new BadCredentialsException("Malformed access token");
+        }
+        long expiresAt;
+        try {
+            expiresAt = Long.parseLong(fields[0]);
+        } catch (NumberFormatException ex) {
+            throw new BadCredentialsException("Malformed access token");
+        }
+        if (clock.instant().getEpochSecond() >= expiresAt) {
+            throw new BadCredentialsException("Access token expired");
+        }
+        Long revokedAt = notBefore.get(fields[2]);
+        // Issue times are whole seconds, so a token issued in the second of the revocation is revoked with it
+        if (revokedAt != null && expiresAt - ttl.toSeconds() <= revokedAt) {
+            throw new BadCredentialsException("Access token revoked");
+        }
+        return UsernamePasswordAuthenticationToken.authenticated(fields[2], null,
+                AuthorityUtils.commaSeparatedStringToAuthorityList(fields[1]));
+    }
+
+    /**
+     * Revoke the tokens issued to a user so far, e.g. because the user was deactivated, renamed or deleted.
+     *
+     * @param username the username the tokens were issued to
+     */
+    public void revoke(String username) {
+        long now = clock.instant().getEpochSecond();
+        notBefore.put(username, now);
+        // Tokens issued before a revocation older than the time to live have all expired
+        notBefore.values().removeIf(revokedAt -> revokedAt + ttl.toSeconds() < now);
+    }
+
+    private byte[] sign(String payload) {
+        // A Mac is not thread-safe; cloning the initialized prototype skips the provider lookup and key setup
+        Mac mac;
+        try {
+            mac = (Mac) prototype.clone();
+        } catch (CloneNotSupportedException ex) {
+            mac = newMac(key);
+        }
+        return mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static Mac newMac(SecretKeySpec key) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", ex);
+        }
+    }
+
+    private static byte[] secretBytes(String secret) {
+        if (secret == null || secret.isBlank()) {
+            log.warn("app.security.token.secret is not set; using a random key, so access tokens are only valid "
+                    + "on this instance until it restarts");
+            byte[] random = new byte[32];
+            new SecureRandom().nextBytes(random);
+            return random;
+        }
+        byte[] bytes = Base64.getDecoder().decode(secret);
+        if (bytes.length < 32) {
+            throw new IllegalArgumentException("app.security.token.secret must be at least 256 bits");
+        }
+        return bytes;
+    }
+}
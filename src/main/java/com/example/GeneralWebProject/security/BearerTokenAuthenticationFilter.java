@@ -0,0 +1,74 @@
+package com.example.GeneralWebProject.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Authenticates requests carrying {@code Authorization: Bearer <token>} with an {@link AccessTokenService} token.
+ * Requests without a bearer token pass through to HTTP Basic; a bearer token that fails verification is rejected
+ * with 401 rather than falling back to anonymous access.
+ * <p>
+ * Not a bean on purpose: it is added to the security filter chain only, not to the servlet container.
+ */
+public class BearerTokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String PREFIX = "Bearer ";
+
+    private final AccessTokenService tokenService;
+    private final RequestMatcher ignored;
+    private final SecurityContextHolderStrategy contextHolder = SecurityContextHolder.getContextHolderStrategy();
+    // Sessions are stateless; this only carries the context into error dispatches, as HTTP Basic does
+    private final SecurityContextRepository contextRepository = new RequestAttributeSecurityContextRepository();
+
+    /**
+     * @param tokenService the token verifier
+     * @param ignored requests that must present credentials, such as the token endpoint itself, so a token
+     *                cannot be traded for a fresh one indefinitely
+     */
+    public BearerTokenAuthenticationFilter(AccessTokenService tokenService, RequestMatcher ignored) {
+        this.tokenService = tokenService;
+        this.ignored = ignored;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return ignored.matches(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.regionMatches(true, 0, PREFIX, 0, PREFIX.length())) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        try {
+            SecurityContext context = contextHolder.createEmptyContext();
+            context.setAuthentication(tokenService.authenticate(header.substring(PREFIX.length()).trim()));
+            contextHolder.setContext(context);
+            contextRepository.saveContext(context, request, response);
+        } catch (AuthenticationException ex) {
+            contextHolder.clearContext();
+            // Status only: an error dispatch would run the chain again and answer with the Basic challenge
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.GeneralWebProject.security;
+
+import com.example.GeneralWebProject.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Password encoder that runs {@link #encode(CharSequence)} on a fixed pool of hashing threads with a bounded
+ * queue, so a burst of signups can occupy at most that many cores and never every request thread.
+ * <p>
+ * When the queue is full, encoding fails at once with {@link ServiceOverloadedException}, answered with 503 and
+ * Retry-After. The caller waits for its own hash, so at most threads plus queue capacity requests are held up.
+ * {@link #matches(CharSequence, String)} still runs on the calling thread and is not bounded.
+ * <p>
+ * Publishes {@code app.password.hashing} (hash time), {@code app.password.hashing.wait} (time queued),
+ * {@code app.password.hashing.queue} (queue depth), {@code app.password.hashing.active} and
+ * {@code app.password.hashing.rejected}.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Duration retryAfter;
+    private final Timer hashTimer;
+    private final Timer waitTimer;
+    private final Counter rejected;
+
+    /**
+     * @param delegate the encoder doing the hashing
+     * @param threads the number of hashing threads
+     * @param queueCapacity how many hashes may wait for a thread before new ones are rejected
+     * @param retryAfter the delay suggested to rejected clients
+     * @param registry the meter registry
+     */
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, Duration retryAfter,
+                                  MeterRegistry registry) {
+        this.delegate = delegate;
+        this.retryAfter = retryAfter;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("password-hashing-", 1).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.hashTimer = Timer.builder("app.password.hashing")
+                .description("Time spent hashing a password")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.waitTimer = Timer.builder("app.password.hashing.wait")
+                .description("Time a password hash waited for a hashing thread")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.rejected = Counter.builder("app.password.hashing.rejected")
+                .description("Password hashes rejected because the queue was full")
+                .register(registry);
+        Gauge.builder("app.password.hashing.queue", executor, pool -> pool.getQueue().size())
+                .description("Password hashes waiting for a hashing thread")
+                .register(registry);
+        Gauge.builder("app.password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashes in progress")
+                .register(registry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        long submitted = System.nanoTime();
+        Future<String> hash;
+        try {
+            hash = executor.submit(() -> {
+                waitTimer.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+                return hashTimer.recordCallable(() -> delegate.encode(rawPassword));
+            });
+        } catch (RejectedExecutionException ex) {
+            rejected.increment();
+            throw new ServiceOverloadedException("Too many password hashing requests, retry later", retryAfter);
+        }
+
+        try {
+            return hash.get();
+        } catch (InterruptedException ex) {
+            hash.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Password hashing failed", ex.getCause());
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return delegate.matches(rawPassword, encodedPassword);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Stop the hashing threads once queued hashes finish.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
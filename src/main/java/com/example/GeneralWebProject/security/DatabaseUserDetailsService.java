@@ -0,0 +1,58 @@
+package com.example.GeneralWebProject.security;
+
+import com.example.GeneralWebProject.cache.UserPrincipalCache;
+import com.example.GeneralWebProject.model.User;
+import com.example.GeneralWebProject.repository.UserRepository;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.Set;
+
+/**
+ * Loads login principals from the users table through {@link UserPrincipalCache}.
+ * Every user has the USER role, and the configured admin usernames also have ADMIN. Inactive users are loaded
+ * as disabled, so their logins are rejected.
+ */
+public class DatabaseUserDetailsService implements UserDetailsService {
+
+    private final UserRepository userRepository;
+    private final UserPrincipalCache principalCache;
+    private final Set<String> adminUsernames;
+
+    /**
+     * @param userRepository the user repository
+     * @param principalCache the principal cache
+     * @param adminUsernames the users that also get the ADMIN role
+     */
+    public DatabaseUserDetailsService(UserRepository userRepository, UserPrincipalCache principalCache,
+                                      Set<String> adminUsernames) {
+        this.userRepository = userRepository;
+        this.principalCache = principalCache;
+        this.adminUsernames = adminUsernames;
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String username) {
+        UserDetails principal = principalCache.get(username, this::load);
+        if (principal == null) {
+            throw new UsernameNotFoundException("User not found with username: " + username);
+        }
+        return principal;
+    }
+
+    private UserDetails load(String username) {
+        return userRepository.findByUsername(username)
+                .map(this::toPrincipal)
+                .orElse(null);
+    }
+
+    private UserDetails toPrincipal(User user) {
+        return org.springframework.security.core.userdetails.User.withUsername(user.getUsername())
+                .password(user.getPassword())
+                .disabled(!user.isActive())
+                .roles(adminUsernames.contains(user.getUsername())
+                        ? new String[]{"USER", "ADMIN"} : new String[]{"USER"})
+                .build();
+    }
+}
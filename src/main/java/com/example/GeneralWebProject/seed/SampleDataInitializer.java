@@ -0,0 +1,54 @@
+package com.example.GeneralWebProject.seed;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.sql.init.SqlDataSourceScriptDatabaseInitializer;
+import org.springframework.boot.autoconfigure.sql.init.SqlInitializationProperties;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * Runs the {@code spring.sql.init} scripts ({@code data.sql}) only against an empty database.
+ * <p>
+ * The in-memory database is empty on every start, so nothing changes there. A file-backed database keeps its
+ * rows across restarts, and re-running the sample inserts would fail on the unique usernames and emails or
+ * duplicate the sample products, so the scripts are skipped as soon as users or products already hold a row.
+ */
+public class SampleDataInitializer extends SqlDataSourceScriptDatabaseInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(SampleDataInitializer.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SampleDataInitializer(DataSource dataSource, SqlInitializationProperties properties) {
+        super(dataSource, properties);
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    protected void runScripts(Scripts scripts) {
+        if (hasData()) {
+            log.info("Skipping SQL initialization scripts, the database already holds data");
+            return;
+        }
+        super.runScripts(scripts);
+    }
+
+    /**
+     * @return whether the users or products table holds at least one row
+     */
+    boolean hasData() {
+        return hasRows("users") || hasRows("products");
+    }
+
+    private boolean hasRows(String table) {
+        try {
+            return !jdbcTemplate.queryForList("select 1 from " + table + " fetch first 1 rows only").isEmpty();
+        } catch (DataAccessException e) {
+            // The table does not exist yet, so a schema script still has to create it
+            return false;
+        }
+    }
+}
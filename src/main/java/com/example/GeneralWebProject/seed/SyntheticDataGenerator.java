@@ -0,0 +1,200 @@
+package com.example.GeneralWebProject.seed;
+
+import com.example.GeneralWebProject.model.Product;
+import com.example.GeneralWebProject.model.User;
+import com.example.GeneralWebProject.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Bulk-loads a synthetic catalog of products and users so the endpoints can be exercised at realistic sizes.
+ * <p>
+ * Generation is deterministic: the same seed and counts always produce the same rows. Product names combine
+ * brand, line and item vocabularies with a model number, brands follow a skewed popularity curve, prices are
+ * log-normal around a per-item base price, and stock is mostly small with a long tail and some products sold out.
+ * Rows are written with JDBC batches in chunks, one transaction per chunk, so millions of rows never sit in memory.
+ * <p>
+ * Runs on startup when {@code app.seed.synthetic.products} or {@code app.seed.synthetic.users} is positive,
+ * before the in-memory indexes are built. Synthetic users all share the password {@code password}.
+ */
+@Component
+public class SyntheticDataGenerator implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    private static final int CHUNK_SIZE = 10_000;
+
+    private static final String INSERT_USER_SQL = "insert into users "
+            + "(username, password, first_name, last_name, email, active, created_at, updated_at) "
+            + "values (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String[] BRANDS = {"Acme", "Globex", "Initech", "Umbrella", "Stark", "Wayne", "Hooli",
+            "Vandelay", "Soylent", "Tyrell", "Cyberdyne", "Wonka", "Aperture", "Gringotts", "Oscorp", "Duff"};
+    private static final String[] LINES = {"Wireless", "Portable", "Smart", "Compact", "Pro", "Ultra", "Gaming",
+            "Eco", "Mini", "Max", "Studio", "Classic", "Rugged", "Slim", "Turbo", "Essential"};
+    private static final String[] ITEMS = {"Laptop", "Headphones", "Smartwatch", "Tablet", "Speaker", "Camera",
+            "Keyboard", "Monitor", "Mouse", "Router", "Charger", "Earbuds", "Drone", "Projector", "Microphone",
+            "Printer", "Smartphone", "E-Reader", "Webcam", "Docking Station"};
+    private static final int[] ITEM_BASE_CENTS = {99_900, 14_900, 24_900, 39_900, 7_900, 59_900,
+            6_900, 27_900, 2_900, 12_900, 2_400, 9_900, 74_900, 49_900, 8_900,
+            19_900, 79_900, 13_900, 5_900, 17_900};
+    private static final String[] FEATURES = {"a long-lasting battery", "USB-C charging", "Bluetooth 5.3",
+            "a two-year warranty", "an aluminium body", "noise cancellation", "fast charging", "a backlit display",
+            "water resistance", "voice control", "a carrying case", "multi-device pairing"};
+    private static final String[] FIRST_NAMES = {"James", "Mary", "Robert", "Patricia", "John", "Jennifer",
+            "Michael", "Linda", "David", "Elizabeth", "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica",
+            "Thomas", "Sarah", "Carlos", "Maria", "Wei", "Aisha", "Hiroshi", "Priya", "Olga", "Kwame"};
+    private static final String[] LAST_NAMES = {"Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia",
+            "Miller", "Davis", "Rodriguez", "Martinez", "Hernandez", "Lopez", "Wilson", "Anderson", "Taylor",
+            "Thomas", "Moore", "Jackson", "Martin", "Lee", "Chen", "Okafor", "Tanaka", "Patel", "Ivanova", "Mensah"};
+
+    private final ProductRepository productRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final TransactionTemplate transactionTemplate;
+    private final long seed;
+    private final int productCount;
+    private final int userCount;
+
+    @Autowired
+    public SyntheticDataGenerator(ProductRepository productRepository, JdbcTemplate jdbcTemplate,
+                                  PasswordEncoder passwordEncoder, PlatformTransactionManager transactionManager,
+                                  @Value("${app.seed.synthetic.seed:42}") long seed,
+                                  @Value("${app.seed.synthetic.products:0}") int productCount,
+                                  @Value("${app.seed.synthetic.users:0}") int userCount) {
+        if (productCount < 0 || userCount < 0) {
+            throw new IllegalArgumentException("Synthetic row counts cannot be negative");
+        }
+        this.productRepository = productRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.seed = seed;
+        this.productCount = productCount;
+        this.userCount = userCount;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (productCount > 0 || userCount > 0) {
+            generate(productCount, userCount);
+        }
+    }
+
+    /**
+     * Insert synthetic products and users generated from the configured seed.
+     * Usernames and emails are numbered from 1, so a second run with users conflicts with the first.
+     *
+     * @param products the number of products to insert
+     * @param users the number of users to insert
+     */
+    public void generate(int products, int users) {
+        long start = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int from = 0; from < products; from += CHUNK_SIZE) {
+            List<Product> chunk = new ArrayList<>(Math.min(CHUNK_SIZE, products - from));
+            for (int i = from; i < from + CHUNK_SIZE && i < products; i++) {
+                chunk.add(newProduct(random));
+            }
+            transactionTemplate.executeWithoutResult(status -> productRepository.batchInsert(chunk));
+        }
+        String password = passwordEncoder.encode("password");
+        for (int from = 0; from < users; from += CHUNK_SIZE) {
+            List<User> chunk = new ArrayList<>(Math.min(CHUNK_SIZE, users - from));
+            for (int i = from; i < from + CHUNK_SIZE && i < users; i++) {
+                chunk.add(newUser(random, i + 1, password));
+            }
+            transactionTemplate.executeWithoutResult(status -> insertUsers(chunk));
+        }
+        log.info("Generated {} products and {} users from seed {} in {} ms",
+                products, users, seed, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Generate the next synthetic product.
+     *
+     * @param random the generator state
+     * @return a product without an id
+     */
+    static Product newProduct(SplittableRandom random) {
+        // Squaring a uniform value skews towards the first brands, so a few brands dominate the catalog
+        String brand = BRANDS[(int) (BRANDS.length * Math.pow(random.nextDouble(), 2))];
+        String line = LINES[random.nextInt(LINES.length)];
+        int item = random.nextInt(ITEMS.length);
+        Product product = new Product();
+        product.setName(brand + " " + line + " " + ITEMS[item] + " " + (char) ('A' + random.nextInt(26))
+                + "-" + (100 + random.nextInt(900)));
+        product.setDescription(line + " " + ITEMS[item].toLowerCase() + " with "
+                + FEATURES[random.nextInt(FEATURES.length)] + " and " + FEATURES[random.nextInt(FEATURES.length)]);
+        long cents = Math.round(ITEM_BASE_CENTS[item] * Math.exp(0.4 * random.nextGaussian()));
+        // Round to a .99 price point
+        product.setPrice(BigDecimal.valueOf(Math.max(99, cents / 100 * 100 - 1), 2));
+        product.setQuantityInStock(random.nextInt(20) == 0 ? 0
+                : 1 + (int) Math.min(9_999, -Math.log(1 - random.nextDouble()) * 60));
+        return product;
+    }
+
+    /**
+     * Generate the next synthetic user.
+     *
+     * @param random the generator state
+     * @param number the sequence number that keeps username and email unique
+     * @param password the encoded password
+     * @return a user without an id
+     */
+    static User newUser(SplittableRandom random, int number, String password) {
+        String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        String handle = firstName.toLowerCase() + "." + lastName.toLowerCase() + "." + number;
+        User user = new User();
+        user.setUsername(handle);
+        user.setPassword(password);
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        user.setEmail(handle + "@example.com");
+        user.setActive(random.nextInt(50) != 0);
+        return user;
+    }
+
+    private void insertUsers(List<User> users) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_USER_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                User user = users.get(i);
+                ps.setString(1, user.getUsername());
+                ps.setString(2, user.getPassword());
+                ps.setString(3, user.getFirstName());
+                ps.setString(4, user.getLastName());
+                ps.setString(5, user.getEmail());
+                ps.setBoolean(6, user.isActive());
+                ps.setTimestamp(7, now);
+                ps.setTimestamp(8, now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return users.size();
+            }
+        });
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.GeneralWebProject.service;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor over (sort key, id) used by the product listings.
+ * The encoded form is URL-safe Base64 so clients can pass it back verbatim.
+ */
+final class ProductCursor {
+
+    private static final String ID_PREFIX = "id:";
+    private static final String PRICE_PREFIX = "price:";
+
+    private final BigDecimal price;
+    private final long id;
+
+    private ProductCursor(BigDecimal price, long id) {
+        this.price = price;
+        this.id = id;
+    }
+
+    static ProductCursor ofId(long id) {
+        return new ProductCursor(null, id);
+    }
+
+    static ProductCursor ofPrice(BigDecimal price, long id) {
+        return new ProductCursor(price, id);
+    }
+
+    /**
+     * Decode a cursor for a listing ordered by id.
+     *
+     * @param token the encoded cursor, or null for the first page
+     * @return the id to seek past, 0 for the first page
+     */
+    static long decodeId(String token) {
+        if (token == null || token.isEmpty()) {
+            return 0L;
+        }
+        String raw = decodeRaw(token);
+        if (!raw.startsWith(ID_PREFIX)) {
+            throw invalid();
+        }
+        return parseId(raw.substring(ID_PREFIX.length()));
+    }
+
+    /**
+     * Decode a cursor for a listing ordered by (price, id).
+     *
+     * @param token the encoded cursor, or null for the first page
+     * @return the decoded cursor, or null for the first page
+     */
+    static ProductCursor decodePrice(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        String raw = decodeRaw(token);
+        int separator = raw.lastIndexOf(':');
+        if (!raw.startsWith(PRICE_PREFIX) || separator <= PRICE_PREFIX.length()) {
+            throw invalid();
+        }
+        try {
+            BigDecimal price = new BigDecimal(raw.substring(PRICE_PREFIX.length(), separator));
+            return new ProductCursor(price, parseId(raw.substring(separator + 1)));
+        } catch (NumberFormatException ex) {
+            throw invalid();
+        }
+    }
+
+    String encode() {
+        String raw = price == null ? ID_PREFIX + id : PRICE_PREFIX + price.toPlainString() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    BigDecimal getPrice() {
+        return price;
+    }
+
+    long getId() {
+        return id;
+    }
+
+    private static String decodeRaw(String token) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            throw invalid();
+        }
+    }
+
+    private static long parseId(String value) {
+        try {
+            long id = Long.parseLong(value);
+            if (id < 0) {
+                throw invalid();
+            }
+            return id;
+        } catch (NumberFormatException ex) {
+            throw invalid();
+        }
+    }
+
+    private static IllegalArgumentException invalid() {
+        return new IllegalArgumentException("Invalid cursor");
+    }
+}
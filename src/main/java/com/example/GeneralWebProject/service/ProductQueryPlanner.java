@@ -0,0 +1,243 @@
+package com.example.GeneralWebProject.service;
+
+import com.example.GeneralWebProject.dto.ProductQuery;
+import com.example.GeneralWebProject.dto.ProductQueryPlanDTO;
+import com.example.GeneralWebProject.dto.ProductSort;
+import com.example.GeneralWebProject.index.ProductNameIndex;
+import com.example.GeneralWebProject.index.ProductPriceIndex;
+import com.example.GeneralWebProject.index.ProductStockIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plans a product query across the in-memory name, price and stock indexes.
+ * <p>
+ * Each index that can answer one of the query's predicates estimates how many products match it: the price
+ * index counts its range exactly, the stock index counts its set bits, and the name index bounds the matches
+ * by its shortest trigram posting list. The query starts from the most selective index, narrows the candidates
+ * with the other indexed predicates in memory, and hands the remaining ids to the database with whatever
+ * predicates no index answered exactly, along with the sort and limit. When no index cuts the catalog down to
+ * {@code app.products.query.max-index-candidates} products or fewer, the database scans the table instead.
+ * <p>
+ * The estimates and the candidates are separate reads of indexes that keep changing, so the chosen index is also
+ * held to the bound when it is read: it is asked for one id more than the bound, and if it returns that many the
+ * query falls back to the table scan rather than continuing with a truncated or oversized candidate list.
+ */
+@Component
+public class ProductQueryPlanner {
+
+    /**
+     * Ways a query can reach its rows, in the order they are preferred when estimates tie.
+     */
+    enum Access {
+        NAME_INDEX("name-index"),
+        PRICE_INDEX("price-index"),
+        STOCK_INDEX("stock-index"),
+        TABLE_SCAN("table-scan");
+
+        private final String name;
+
+        Access(String name) {
+            this.name = name;
+        }
+    }
+
+    private final ProductNameIndex nameIndex;
+    private final ProductPriceIndex priceIndex;
+    private final ProductStockIndex stockIndex;
+    private final int maxCandidates;
+
+    @Autowired
+    public ProductQueryPlanner(ProductNameIndex nameIndex, ProductPriceIndex priceIndex, ProductStockIndex stockIndex,
+                               @Value("${app.products.query.max-index-candidates:10000}") int maxCandidates) {
+        if (maxCandidates < 1) {
+            throw new IllegalArgumentException("Max index candidates must be positive");
+        }
+        this.nameIndex = nameIndex;
+        this.priceIndex = priceIndex;
+        this.stockIndex = stockIndex;
+        this.maxCandidates = maxCandidates;
+    }
+
+    /**
+     * Plan a query and resolve its candidate ids from the indexes.
+     *
+     * @param query the query, with a non-blank name or none
+     * @return the plan
+     */
+    public Plan plan(ProductQuery query) {
+        boolean byName = query.getName() != null && nameIndex.isReady()
+                && query.getName().length() >= ProductNameIndex.GRAM;
+        boolean byPrice = (query.getMinPrice() != null || query.getMaxPrice() != null) && priceIndex.isReady();
+        // The stock index only knows whether a product is in stock, which settles a minimum of 1 exactly
+        boolean byStock = query.getMinStock() != null && query.getMinStock() > 0 && stockIndex.isReady();
+        long minCents = query.getMinPrice() == null
+                ? Long.MIN_VALUE : ProductPriceIndex.toCents(query.getMinPrice(), RoundingMode.CEILING);
+        long maxCents = query.getMaxPrice() == null
+                ? Long.MAX_VALUE : ProductPriceIndex.toCents(query.getMaxPrice(), RoundingMode.FLOOR);
+
+        Map<Access, Long> estimates = new EnumMap<>(Access.class);
+        if (byName) {
+            estimates.put(Access.NAME_INDEX, (long) nameIndex.estimate(query.getName()));
+        }
+        if (byPrice) {
+            estimates.put(Access.PRICE_INDEX, (long) priceIndex.count(minCents, maxCents));
+        }
+        if (byStock) {
+            estimates.put(Access.STOCK_INDEX, (long) stockIndex.cardinality());
+        }
+        estimates.put(Access.TABLE_SCAN,
+                priceIndex.isReady() ? priceIndex.count(Long.MIN_VALUE, Long.MAX_VALUE) : -1L);
+
+        Access access = Access.TABLE_SCAN;
+        for (Map.Entry<Access, Long> estimate : estimates.entrySet()) {
+            if (estimate.getKey() != Access.TABLE_SCAN && estimate.getValue() <= maxCandidates
+                    && (access == Access.TABLE_SCAN || estimate.getValue() < estimates.get(access))) {
+                access = estimate.getKey();
+            }
+        }
+
+        ProductQuery residual = new ProductQuery(query.getName(), query.getMinPrice(), query.getMaxPrice(),
+                query.getMinStock(), query.getSort(), query.getLimit());
+        List<String> indexFilters = new ArrayList<>();
+        // One more than the bound, so an index that grew past it since its estimate is noticed
+        int fetchLimit = maxCandidates < Integer.MAX_VALUE ? maxCandidates + 1 : maxCandidates;
+        int[] ids = switch (access) {
+            case NAME_INDEX -> nameIndex.search(query.getName(), fetchLimit);
+            case PRICE_INDEX -> sortedIds(priceIndex.range(minCents, maxCents, Long.MIN_VALUE, 0L, fetchLimit));
+            case STOCK_INDEX -> stockIndex.idsAfter(0L, fetchLimit);
+            case TABLE_SCAN -> null;
+        };
+        if (ids != null && ids.length > maxCandidates) {
+            access = Access.TABLE_SCAN;
+            ids = null;
+        }
+        if (ids != null) {
+            if (byName) {
+                if (access != Access.NAME_INDEX) {
+                    ids = nameIndex.retainMatching(ids, query.getName());
+                }
+                indexFilters.add(describeName(query));
+                residual.setName(null);
+            }
+            if (byPrice) {
+                if (access != Access.PRICE_INDEX) {
+                    ids = priceIndex.retainInRange(ids, minCents, maxCents);
+                }
+                indexFilters.add(describePrice(query));
+                residual.setMinPrice(null);
+                residual.setMaxPrice(null);
+            }
+            if (byStock) {
+                if (access != Access.STOCK_INDEX) {
+                    ids = stockIndex.retainInStock(ids);
+                }
+                indexFilters.add("quantityInStock >= 1");
+                if (query.getMinStock() == 1) {
+                    residual.setMinStock(null);
+                }
+            }
+            if (residual.getName() == null && residual.getMinPrice() == null && residual.getMaxPrice() == null
+                    && residual.getMinStock() == null && query.getSort() == ProductSort.ID
+                    && ids.length > query.getLimit()) {
+                // Every predicate is settled and the ids are already in order, so only the first page is loaded
+                ids = Arrays.copyOf(ids, query.getLimit());
+            }
+        }
+        return new Plan(access, estimates, ids, indexFilters, residual);
+    }
+
+    private static int[] sortedIds(ProductPriceIndex.Slice slice) {
+        int[] ids = slice.getIds();
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    private static String describeName(ProductQuery query) {
+        return "name contains '" + query.getName() + "'";
+    }
+
+    private static String describePrice(ProductQuery query) {
+        if (query.getMinPrice() == null) {
+            return "price <= " + query.getMaxPrice().toPlainString();
+        }
+        if (query.getMaxPrice() == null) {
+            return "price >= " + query.getMinPrice().toPlainString();
+        }
+        return query.getMinPrice().toPlainString() + " <= price <= " + query.getMaxPrice().toPlainString();
+    }
+
+    /**
+     * A planned query: the candidate ids resolved from the indexes, and the query the database still has to run.
+     */
+    public static final class Plan {
+        private final Access access;
+        private final Map<Access, Long> estimates;
+        private final int[] candidateIds;
+        private final List<String> indexFilters;
+        private final ProductQuery residual;
+
+        Plan(Access access, Map<Access, Long> estimates, int[] candidateIds, List<String> indexFilters,
+             ProductQuery residual) {
+            this.access = access;
+            this.estimates = estimates;
+            this.candidateIds = candidateIds;
+            this.indexFilters = indexFilters;
+            this.residual = residual;
+        }
+
+        /**
+         * @return the ids the database may return, in ascending order, or null to scan the table
+         */
+        public List<Long> getCandidateIds() {
+            if (candidateIds == null) {
+                return null;
+            }
+            List<Long> ids = new ArrayList<>(candidateIds.length);
+            for (int id : candidateIds) {
+                ids.add((long) id);
+            }
+            return ids;
+        }
+
+        /**
+         * @return the query with the predicates the indexes answered exactly removed
+         */
+        public ProductQuery getResidual() {
+            return residual;
+        }
+
+        /**
+         * @return the plan as returned with {@code explain=true}
+         */
+        public ProductQueryPlanDTO toDTO() {
+            Map<String, Long> described = new LinkedHashMap<>();
+            estimates.entrySet().stream()
+                    .sorted(Map.Entry.comparingByValue((a, b) -> Long.compare(
+                            a < 0 ? Long.MAX_VALUE : a, b < 0 ? Long.MAX_VALUE : b)))
+                    .forEach(estimate -> described.put(estimate.getKey().name, estimate.getValue()));
+            List<String> databaseFilters = new ArrayList<>();
+            if (residual.getName() != null) {
+                databaseFilters.add(describeName(residual));
+            }
+            if (residual.getMinPrice() != null || residual.getMaxPrice() != null) {
+                databaseFilters.add(describePrice(residual));
+            }
+            if (residual.getMinStock() != null) {
+                databaseFilters.add("quantityInStock >= " + residual.getMinStock());
+            }
+            return new ProductQueryPlanDTO(access.name, described,
+                    candidateIds == null ? null : candidateIds.length,
+                    indexFilters, databaseFilters, residual.getSort().getName());
+        }
+    }
+}
@@ -2,10 +2,19 @@
 // File: src/main/java/com/example/webapp/service/ProductService.java
 package com.example.GeneralWebProject.service;
 
+import com.example.GeneralWebProject.dto.CatalogVersionDTO;
+import com.example.GeneralWebProject.dto.CursorPageDTO;
 import com.example.GeneralWebProject.dto.ProductDTO;
+import com.example.GeneralWebProject.dto.ProductField;
+import com.example.GeneralWebProject.dto.ProductQuery;
+import com.example.GeneralWebProject.dto.ProductQueryResultDTO;
+import com.example.GeneralWebProject.dto.ReservationDTO;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Service interface for product-related operations.
@@ -13,11 +22,35 @@ import java.util.List;
 public interface ProductService {
 
     /**
-     * Get all products.
+     * Maximum number of products returned in a single page.
+     */
+    int MAX_PAGE_SIZE = 500;
+
+    /**
+     * Maximum number of products accepted by a single bulk create.
+     */
+    int MAX_BULK_SIZE = 10_000;
+
+    /**
+     * Get a page of all products, ordered by id.
      *
-     * @return list of all products
+     * @param after the cursor returned with the previous page, or null for the first page
+     * @param limit the maximum number of products to return
+     * @return a page of products
      */
-    List<ProductDTO> getAllProducts();
+    default CursorPageDTO<ProductDTO> getAllProducts(String after, int limit) {
+        return getAllProducts(after, limit, null);
+    }
+
+    /**
+     * Get a page of all products, ordered by id, loading only some fields.
+     *
+     * @param after the cursor returned with the previous page, or null for the first page
+     * @param limit the maximum number of products to return
+     * @param fields the fields to load, or null for all
+     * @return a page of products
+     */
+    CursorPageDTO<ProductDTO> getAllProducts(String after, int limit, Set<ProductField> fields);
 
     /**
      * Get a product by ID.
@@ -28,27 +61,116 @@ public interface ProductService {
     ProductDTO getProductById(Long id);
 
     /**
-     * Find products by name.
+     * Get the last modification time of a product without loading it.
+     *
+     * @param id the product ID
+     * @return the modification time, or null if the product does not exist or has none recorded
+     */
+    LocalDateTime getProductLastModified(Long id);
+
+    /**
+     * Get the product count and latest modification time across the catalog.
+     *
+     * @return the catalog version
+     */
+    CatalogVersionDTO getCatalogVersion();
+
+    /**
+     * Find a page of products by name, ordered by id.
+     *
+     * @param name the name to search for
+     * @param after the cursor returned with the previous page, or null for the first page
+     * @param limit the maximum number of products to return
+     * @return a page of products matching the name criteria
+     */
+    default CursorPageDTO<ProductDTO> findProductsByName(String name, String after, int limit) {
+        return findProductsByName(name, after, limit, null);
+    }
+
+    /**
+     * Find a page of products by name, ordered by id, loading only some fields.
      *
      * @param name the name to search for
-     * @return list of products matching the name criteria
+     * @param after the cursor returned with the previous page, or null for the first page
+     * @param limit the maximum number of products to return
+     * @param fields the fields to load, or null for all
+     * @return a page of products matching the name criteria
+     */
+    CursorPageDTO<ProductDTO> findProductsByName(String name, String after, int limit, Set<ProductField> fields);
+
+    /**
+     * Find a page of products with price less than or equal to the provided amount, ordered by price.
+     *
+     * @param maxPrice the maximum price
+     * @param after the cursor returned with the previous page, or null for the first page
+     * @param limit the maximum number of products to return
+     * @return a page of products with price less than or equal to maxPrice
      */
-    List<ProductDTO> findProductsByName(String name);
+    default CursorPageDTO<ProductDTO> findProductsByMaxPrice(BigDecimal maxPrice, String after, int limit) {
+        return findProductsByMaxPrice(maxPrice, after, limit, null);
+    }
 
     /**
-     * Find products with price less than or equal to the provided amount.
+     * Find a page of products with price less than or equal to the provided amount, ordered by price,
+     * loading only some fields.
      *
      * @param maxPrice the maximum price
-     * @return list of products with price less than or equal to maxPrice
+     * @param after the cursor returned with the previous page, or null for the first page
+     * @param limit the maximum number of products to return
+     * @param fields the fields to load, or null for all
+     * @return a page of products with price less than or equal to maxPrice
+     */
+    CursorPageDTO<ProductDTO> findProductsByMaxPrice(BigDecimal maxPrice, String after, int limit,
+                                                     Set<ProductField> fields);
+
+    /**
+     * Find a page of products that are in stock, ordered by id.
+     *
+     * @param after the cursor returned with the previous page, or null for the first page
+     * @param limit the maximum number of products to return
+     * @return a page of products with quantity in stock greater than zero
      */
-    List<ProductDTO> findProductsByMaxPrice(BigDecimal maxPrice);
+    default CursorPageDTO<ProductDTO> findProductsInStock(String after, int limit) {
+        return findProductsInStock(after, limit, null);
+    }
 
     /**
-     * Find products that are in stock.
+     * Find a page of products that are in stock, ordered by id, loading only some fields.
      *
-     * @return list of products with quantity in stock greater than zero
+     * @param after the cursor returned with the previous page, or null for the first page
+     * @param limit the maximum number of products to return
+     * @param fields the fields to load, or null for all
+     * @return a page of products with quantity in stock greater than zero
      */
-    List<ProductDTO> findProductsInStock();
+    CursorPageDTO<ProductDTO> findProductsInStock(String after, int limit, Set<ProductField> fields);
+
+    /**
+     * Find the products matching every predicate of a query, starting from the most selective index.
+     *
+     * @param query the predicates, sort and limit
+     * @param explain whether to return the query plan with the products
+     * @param fields the fields to load, or null for all
+     * @return the matching products, and the plan if asked for
+     */
+    ProductQueryResultDTO queryProducts(ProductQuery query, boolean explain, Set<ProductField> fields);
+
+    /**
+     * Export the full catalog, ordered by id, one product at a time.
+     * Products are handed to the sink as they are read so memory use does not grow with the catalog.
+     *
+     * @param sink receives each product in order
+     */
+    default void exportProducts(Consumer<ProductDTO> sink) {
+        exportProducts(null, sink);
+    }
+
+    /**
+     * Export the full catalog, ordered by id, one product at a time, loading only some fields.
+     *
+     * @param fields the fields to load, or null for all
+     * @param sink receives each product in order
+     */
+    void exportProducts(Set<ProductField> fields, Consumer<ProductDTO> sink);
 
     /**
      * Create a new product.
@@ -58,6 +180,14 @@ public interface ProductService {
      */
     ProductDTO createProduct(ProductDTO productDTO);
 
+    /**
+     * Create many products in a single transaction using batched inserts.
+     *
+     * @param productDTOs the products to create
+     * @return the ids of the created products, in the order given
+     */
+    List<Long> createProducts(List<ProductDTO> productDTOs);
+
     /**
      * Update a product.
      *
@@ -67,6 +197,38 @@ public interface ProductService {
      */
     ProductDTO updateProduct(Long id, ProductDTO productDTO);
 
+    /**
+     * Reserve stock of a product for checkout.
+     * The stock is taken off the product immediately and returned if the reservation is released or expires.
+     *
+     * @param productId the product ID
+     * @param quantity the quantity to reserve
+     * @return the reservation
+     */
+    ReservationDTO reserveStock(Long productId, int quantity);
+
+    /**
+     * Confirm a reservation, keeping the reserved stock taken.
+     *
+     * @param reservationId the reservation ID
+     */
+    void confirmReservation(String reservationId);
+
+    /**
+     * Release a reservation, returning its stock to the product.
+     *
+     * @param reservationId the reservation ID
+     */
+    void releaseReservation(String reservationId);
+
+    /**
+     * Release reservations whose time to live has passed.
+     * Reservations that were already confirmed or released are ignored.
+     *
+     * @param reservationIds the reservation IDs
+     */
+    void expireReservations(List<String> reservationIds);
+
     /**
      * Delete a product.
      *
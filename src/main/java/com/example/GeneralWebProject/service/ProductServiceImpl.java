@@ -1,17 +1,51 @@
 package com.example.GeneralWebProject.service;
 // File: src/main/java/com/example/webapp/service/ProductServiceImpl.java
 
+import com.example.GeneralWebProject.cache.ProductCache;
+import com.example.GeneralWebProject.dto.CatalogVersionDTO;
+import com.example.GeneralWebProject.dto.CursorPageDTO;
 import com.example.GeneralWebProject.dto.ProductDTO;
+import com.example.GeneralWebProject.dto.ProductField;
+import com.example.GeneralWebProject.dto.ProductQuery;
+import com.example.GeneralWebProject.dto.ProductQueryResultDTO;
+import com.example.GeneralWebProject.dto.ReservationDTO;
+import com.example.GeneralWebProject.exception.InsufficientStockException;
 import com.example.GeneralWebProject.exception.ResourceNotFoundException;
+import com.example.GeneralWebProject.index.ProductIndexLoader;
+import com.example.GeneralWebProject.index.ProductNameIndex;
+import com.example.GeneralWebProject.index.ProductPriceIndex;
+import com.example.GeneralWebProject.index.ProductStockIndex;
 import com.example.GeneralWebProject.model.Product;
+import com.example.GeneralWebProject.model.StockHold;
 import com.example.GeneralWebProject.repository.ProductRepository;
+import com.example.GeneralWebProject.repository.StockHoldRepository;
+import com.example.GeneralWebProject.scheduling.StockHoldScheduler;
+import com.example.GeneralWebProject.stock.HotStockManager;
+import jakarta.persistence.EntityManager;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Implementation of the ProductService interface.
@@ -20,45 +54,146 @@ import java.util.stream.Collectors;
 public class ProductServiceImpl implements ProductService {
 
     private final ProductRepository productRepository;
+    private final EntityManager entityManager;
+    private final ProductNameIndex nameIndex;
+    private final ProductPriceIndex priceIndex;
+    private final ProductStockIndex stockIndex;
+    private final ProductIndexLoader indexLoader;
+    private final ProductQueryPlanner queryPlanner;
+    private final ProductCache productCache;
+    private final StockHoldRepository stockHoldRepository;
+    private final StockHoldScheduler holdScheduler;
+    private final HotStockManager hotStock;
+    private final TransactionTemplate transactionTemplate;
 
     @Autowired
-    public ProductServiceImpl(ProductRepository productRepository) {
+    public ProductServiceImpl(ProductRepository productRepository, EntityManager entityManager,
+                              ProductNameIndex nameIndex, ProductPriceIndex priceIndex,
+                              ProductStockIndex stockIndex, ProductIndexLoader indexLoader,
+                              ProductQueryPlanner queryPlanner,
+                              ProductCache productCache,
+                              StockHoldRepository stockHoldRepository, StockHoldScheduler holdScheduler,
+                              HotStockManager hotStock, PlatformTransactionManager transactionManager) {
         this.productRepository = productRepository;
+        this.entityManager = entityManager;
+        this.nameIndex = nameIndex;
+        this.priceIndex = priceIndex;
+        this.stockIndex = stockIndex;
+        this.indexLoader = indexLoader;
+        this.queryPlanner = queryPlanner;
+        this.productCache = productCache;
+        this.stockHoldRepository = stockHoldRepository;
+        this.holdScheduler = holdScheduler;
+        this.hotStock = hotStock;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Override
-    public List<ProductDTO> getAllProducts() {
-        return productRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ProductDTO> getAllProducts(String after, int limit, Set<ProductField> fields) {
+        checkLimit(limit);
+        long afterId = ProductCursor.decodeId(after);
+        List<ProductDTO> products = productRepository.findPageAfterId(columns(fields), afterId, limit + 1);
+        return toPage(products, limit, product -> ProductCursor.ofId(product.getId()));
     }
 
     @Override
     public ProductDTO getProductById(Long id) {
-        return productRepository.findById(id)
-                .map(this::convertToDTO)
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+        return productCache.get(id, key -> productRepository.findDetailById(key)
+                .map(detail -> new ProductCache.Entry(detail.toDTO(), detail.updatedAt()))
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + key)));
     }
 
     @Override
-    public List<ProductDTO> findProductsByName(String name) {
-        return productRepository.findByNameContainingIgnoreCase(name).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public LocalDateTime getProductLastModified(Long id) {
+        LocalDateTime cached = productCache.getLastModifiedIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+        return productRepository.findUpdatedAtById(id).orElse(null);
     }
 
     @Override
-    public List<ProductDTO> findProductsByMaxPrice(BigDecimal maxPrice) {
-        return productRepository.findByPriceLessThanEqual(maxPrice).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public CatalogVersionDTO getCatalogVersion() {
+        return productRepository.findCatalogVersion();
     }
 
     @Override
-    public List<ProductDTO> findProductsInStock() {
-        return productRepository.findByQuantityInStockGreaterThan(0).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ProductDTO> findProductsByName(String name, String after, int limit,
+                                                        Set<ProductField> fields) {
+        checkLimit(limit);
+        long afterId = ProductCursor.decodeId(after);
+        int[] ids = nameIndex.isReady() ? nameIndex.search(name, afterId, limit + 1) : null;
+        if (ids != null) {
+            boolean hasNext = ids.length > limit;
+            return pageOfIds(hasNext ? Arrays.copyOf(ids, limit) : ids, hasNext, fields);
+        }
+        List<ProductDTO> products = productRepository.findPageByNameAfterId(columns(fields), name, afterId, limit + 1);
+        return toPage(products, limit, product -> ProductCursor.ofId(product.getId()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ProductDTO> findProductsByMaxPrice(BigDecimal maxPrice, String after, int limit,
+                                                            Set<ProductField> fields) {
+        checkLimit(limit);
+        ProductCursor cursor = ProductCursor.decodePrice(after);
+        if (priceIndex.isReady()) {
+            ProductPriceIndex.Slice slice = priceIndex.range(Long.MIN_VALUE,
+                    ProductPriceIndex.toCents(maxPrice, RoundingMode.FLOOR),
+                    cursor == null ? Long.MIN_VALUE : ProductPriceIndex.toCents(cursor.getPrice(), RoundingMode.HALF_UP),
+                    cursor == null ? 0L : cursor.getId(),
+                    limit);
+            return pageByPriceSlice(slice, fields);
+        }
+        // The next cursor is built from the price of the last row, so it is read even if not asked for
+        EnumSet<ProductField> columns = EnumSet.copyOf(columns(fields));
+        columns.add(ProductField.PRICE);
+        List<ProductDTO> products = productRepository.findPageByMaxPrice(columns, maxPrice,
+                cursor == null ? null : cursor.getPrice(), cursor == null ? 0L : cursor.getId(), limit + 1);
+        return toPage(products, limit, product -> ProductCursor.ofPrice(product.getPrice(), product.getId()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ProductDTO> findProductsInStock(String after, int limit, Set<ProductField> fields) {
+        checkLimit(limit);
+        long afterId = ProductCursor.decodeId(after);
+        if (stockIndex.isReady()) {
+            int[] ids = stockIndex.idsAfter(afterId, limit + 1);
+            boolean hasNext = ids.length > limit;
+            return pageOfIds(hasNext ? Arrays.copyOf(ids, limit) : ids, hasNext, fields);
+        }
+        List<ProductDTO> products = productRepository.findPageInStockAfterId(columns(fields), afterId, limit + 1);
+        return toPage(products, limit, product -> ProductCursor.ofId(product.getId()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductQueryResultDTO queryProducts(ProductQuery query, boolean explain, Set<ProductField> fields) {
+        checkLimit(query.getLimit());
+        if (query.getMinStock() != null && query.getMinStock() < 0) {
+            throw new IllegalArgumentException("Minimum stock must not be negative");
+        }
+        if (query.getMinPrice() != null && query.getMaxPrice() != null
+                && query.getMinPrice().compareTo(query.getMaxPrice()) > 0) {
+            throw new IllegalArgumentException("Minimum price must not exceed maximum price");
+        }
+        ProductQueryPlanner.Plan plan = queryPlanner.plan(query);
+        List<Long> ids = plan.getCandidateIds();
+        List<ProductDTO> items = ids != null && ids.isEmpty()
+                ? List.of()
+                : productRepository.findByQuery(columns(fields), plan.getResidual(), ids);
+        return new ProductQueryResultDTO(items, explain ? plan.toDTO() : null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportProducts(Set<ProductField> fields, Consumer<ProductDTO> sink) {
+        try (Stream<ProductDTO> products = productRepository.streamAllDTOsByOrderByIdAsc(columns(fields))) {
+            products.forEach(sink);
+        }
     }
 
     @Override
@@ -66,9 +201,27 @@ public class ProductServiceImpl implements ProductService {
     public ProductDTO createProduct(ProductDTO productDTO) {
         Product product = convertToEntity(productDTO);
         Product savedProduct = productRepository.save(product);
+        afterCommit(() -> indexLoader.refresh(List.of(savedProduct.getId())));
         return convertToDTO(savedProduct);
     }
 
+    @Override
+    @Transactional
+    public List<Long> createProducts(List<ProductDTO> productDTOs) {
+        if (productDTOs.isEmpty() || productDTOs.size() > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException("Bulk size must be between 1 and " + MAX_BULK_SIZE);
+        }
+        List<Product> products = productDTOs.stream()
+                .map(this::convertToEntity)
+                .collect(Collectors.toList());
+        productRepository.batchInsert(products);
+        List<Long> ids = products.stream()
+                .map(Product::getId)
+                .collect(Collectors.toList());
+        afterCommit(() -> indexLoader.refresh(ids));
+        return ids;
+    }
+
     @Override
     @Transactional
     public ProductDTO updateProduct(Long id, ProductDTO productDTO) {
@@ -79,11 +232,59 @@ public class ProductServiceImpl implements ProductService {
                     product.setPrice(productDTO.getPrice());
                     product.setQuantityInStock(productDTO.getQuantityInStock());
 
-                    return convertToDTO(productRepository.save(product));
+                    Product savedProduct = productRepository.save(product);
+                    afterCommit(() -> {
+                        productCache.invalidate(id);
+                        indexLoader.refresh(List.of(id));
+                        hotStock.resync(id);
+                    });
+                    return convertToDTO(savedProduct);
                 })
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
     }
 
+    /**
+     * Not {@code @Transactional}: a hot product's reservation waits for the group commit and must not hold
+     * a pooled connection meanwhile, so only the regular path runs in a transaction of its own.
+     */
+    @Override
+    public ReservationDTO reserveStock(Long productId, int quantity) {
+        if (quantity < 1) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+        StockHold hold;
+        if (hotStock.isHot(productId)) {
+            hold = newHold(productId, quantity);
+            // The flush that commits the hold refreshes the cache and indexes for its whole batch
+            hotStock.reserve(hold);
+        } else {
+            hold = transactionTemplate.execute(status -> reserveStockWithRowUpdate(productId, quantity));
+        }
+        return new ReservationDTO(hold.getId(), productId, quantity, hold.getExpiresAt());
+    }
+
+    @Override
+    @Transactional
+    public void confirmReservation(String reservationId) {
+        if (stockHoldRepository.deleteHoldById(reservationId) == 0) {
+            throw new ResourceNotFoundException("Reservation not found with id: " + reservationId);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void releaseReservation(String reservationId) {
+        if (releaseHolds(List.of(reservationId)) == 0) {
+            throw new ResourceNotFoundException("Reservation not found with id: " + reservationId);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void expireReservations(List<String> reservationIds) {
+        releaseHolds(reservationIds);
+    }
+
     @Override
     @Transactional
     public void deleteProduct(Long id) {
@@ -91,6 +292,183 @@ public class ProductServiceImpl implements ProductService {
             throw new ResourceNotFoundException("Product not found with id: " + id);
         }
         productRepository.deleteById(id);
+        afterCommit(() -> {
+            productCache.invalidate(id);
+            indexLoader.refresh(List.of(id));
+            hotStock.unflag(id);
+        });
+    }
+
+    /**
+     * Take the stock with a conditional row update and persist the hold in the same transaction.
+     *
+     * @param productId the product ID
+     * @param quantity the quantity to reserve
+     * @return the persisted hold
+     */
+    private StockHold reserveStockWithRowUpdate(Long productId, int quantity) {
+        if (productRepository.reserveStock(productId, quantity) == 0) {
+            if (!productRepository.existsById(productId)) {
+                throw new ResourceNotFoundException("Product not found with id: " + productId);
+            }
+            throw new InsufficientStockException("Insufficient stock for product with id: " + productId);
+        }
+        StockHold hold = newHold(productId, quantity);
+        entityManager.persist(hold);
+        afterCommit(() -> {
+            holdScheduler.schedule(hold.getId(), hold.getExpiresAt());
+            stockChanged(productId);
+        });
+        return hold;
+    }
+
+    private StockHold newHold(Long productId, int quantity) {
+        return new StockHold(UUID.randomUUID().toString(), productId, quantity, holdScheduler.nextExpiry());
+    }
+
+    /**
+     * Close the given holds and return their stock, one update per product.
+     * Holds are locked first, so concurrent release, confirm and expiry close each hold at most once.
+     *
+     * @param holdIds the hold IDs
+     * @return the number of holds that were still open
+     */
+    private int releaseHolds(Collection<String> holdIds) {
+        List<StockHold> holds = stockHoldRepository.findAllForUpdate(holdIds);
+        if (holds.isEmpty()) {
+            return 0;
+        }
+        stockHoldRepository.deleteAllInBatch(holds);
+        Map<Long, Integer> quantities = holds.stream()
+                .collect(Collectors.groupingBy(StockHold::getProductId, Collectors.summingInt(StockHold::getQuantity)));
+        List<Long> released = new ArrayList<>();
+        quantities.forEach((productId, quantity) -> {
+            if (productRepository.releaseStock(productId, quantity) > 0) {
+                released.add(productId);
+            }
+        });
+        afterCommit(() -> released.forEach(productId -> {
+            hotStock.stockReleased(productId, quantities.get(productId));
+            stockChanged(productId);
+        }));
+        return holds.size();
+    }
+
+    /**
+     * Refresh the cache and indexes after a product's stock changed outside the entity.
+     * The indexes re-read the committed row rather than taking a quantity read inside the transaction, which
+     * a concurrent reservation or release could already have made stale by the time it is applied.
+     *
+     * @param productId the product ID
+     */
+    private void stockChanged(Long productId) {
+        productCache.invalidate(productId);
+        indexLoader.refresh(List.of(productId));
+    }
+
+    /**
+     * Validate the requested page size.
+     *
+     * @param limit the requested page size
+     */
+    private void checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    /**
+     * Build a page from a seek query that fetched one row more than the page size.
+     * The extra row only signals that a next page exists and is not returned.
+     *
+     * @param products the products fetched, at most limit + 1
+     * @param limit the page size
+     * @param cursorOf builds the cursor pointing just past a product
+     * @return the page of product DTOs
+     */
+    private CursorPageDTO<ProductDTO> toPage(List<ProductDTO> products, int limit,
+                                             Function<ProductDTO, ProductCursor> cursorOf) {
+        boolean hasNext = products.size() > limit;
+        List<ProductDTO> page = hasNext ? products.subList(0, limit) : products;
+        String next = hasNext ? cursorOf.apply(page.get(page.size() - 1)).encode() : null;
+        return new CursorPageDTO<>(page, next);
+    }
+
+    /**
+     * Load one page of ascending product ids answered by an in-memory index.
+     * Ids whose rows were deleted since they were indexed are skipped.
+     *
+     * @param pageIds the ids on this page in ascending order
+     * @param hasNext whether the index holds further ids after this page
+     * @param fields the fields to load, or null for all
+     * @return the page of product DTOs
+     */
+    private CursorPageDTO<ProductDTO> pageOfIds(int[] pageIds, boolean hasNext, Set<ProductField> fields) {
+        if (pageIds.length == 0) {
+            return new CursorPageDTO<>(List.of(), null);
+        }
+        List<Long> ids = new ArrayList<>(pageIds.length);
+        for (int id : pageIds) {
+            ids.add((long) id);
+        }
+        String next = hasNext ? ProductCursor.ofId(pageIds[pageIds.length - 1]).encode() : null;
+        return new CursorPageDTO<>(productRepository.findAllDTOsByIdIn(columns(fields), ids), next);
+    }
+
+    /**
+     * Build a page from a slice of the price index, keeping its (price, id) order.
+     * Ids whose rows were deleted since they were indexed are skipped.
+     *
+     * @param slice the slice answered by the price index
+     * @param fields the fields to load, or null for all
+     * @return the page of product DTOs
+     */
+    private CursorPageDTO<ProductDTO> pageByPriceSlice(ProductPriceIndex.Slice slice, Set<ProductField> fields) {
+        int[] ids = slice.getIds();
+        if (ids.length == 0) {
+            return new CursorPageDTO<>(List.of(), null);
+        }
+        List<Long> pageIds = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            pageIds.add((long) id);
+        }
+        Map<Long, ProductDTO> byId = productRepository.findAllDTOsByIdIn(columns(fields), pageIds).stream()
+                .collect(Collectors.toMap(ProductDTO::getId, Function.identity()));
+        List<ProductDTO> items = pageIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        int last = ids.length - 1;
+        String next = slice.hasMore()
+                ? ProductCursor.ofPrice(ProductPriceIndex.fromCents(slice.getCents()[last]), ids[last]).encode()
+                : null;
+        return new CursorPageDTO<>(items, next);
+    }
+
+    /**
+     * The fields a read selects: the ones asked for, or every field when none were.
+     */
+    private static Set<ProductField> columns(Set<ProductField> fields) {
+        return fields == null ? EnumSet.allOf(ProductField.class) : fields;
+    }
+
+    /**
+     * Run an index, cache or scheduler update once the surrounding transaction commits, or immediately
+     * outside one, so in-memory state never reflects rolled-back writes.
+     *
+     * @param action the update
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 
     /**
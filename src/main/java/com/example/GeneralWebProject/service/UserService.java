@@ -3,10 +3,13 @@
 // File: src/main/java/com/example/webapp/service/UserService.java
 package com.example.GeneralWebProject.service;
 
+import com.example.GeneralWebProject.dto.UserAvailabilityDTO;
 import com.example.GeneralWebProject.dto.UserCreateDTO;
 import com.example.GeneralWebProject.dto.UserDTO;
+import com.example.GeneralWebProject.dto.UserField;
 
 import java.util.List;
+import java.util.Set;
 
 /**
  * Service interface for user-related operations.
@@ -18,7 +21,17 @@ public interface UserService {
      *
      * @return list of all users
      */
-    List<UserDTO> getAllUsers();
+    default List<UserDTO> getAllUsers() {
+        return getAllUsers(null);
+    }
+
+    /**
+     * Get all users, loading only some fields.
+     *
+     * @param fields the fields to load, or null for all
+     * @return list of all users
+     */
+    List<UserDTO> getAllUsers(Set<UserField> fields);
 
     /**
      * Get a user by ID.
@@ -26,7 +39,18 @@ public interface UserService {
      * @param id the user ID
      * @return the user
      */
-    UserDTO getUserById(Long id);
+    default UserDTO getUserById(Long id) {
+        return getUserById(id, null);
+    }
+
+    /**
+     * Get a user by ID, loading only some fields.
+     *
+     * @param id the user ID
+     * @param fields the fields to load, or null for all
+     * @return the user
+     */
+    UserDTO getUserById(Long id, Set<UserField> fields);
 
     /**
      * Get a user by username.
@@ -34,7 +58,29 @@ public interface UserService {
      * @param username the username
      * @return the user
      */
-    UserDTO getUserByUsername(String username);
+    default UserDTO getUserByUsername(String username) {
+        return getUserByUsername(username, null);
+    }
+
+    /**
+     * Get a user by username, loading only some fields.
+     *
+     * @param username the username
+     * @param fields the fields to load, or null for all
+     * @return the user
+     */
+    UserDTO getUserByUsername(String username, Set<UserField> fields);
+
+    /**
+     * Check whether a username and an email are free for a new user.
+     * Values that are certainly free are answered from memory; the rest are confirmed against the database.
+     *
+     * @param username the username to check, or null
+     * @param email the email to check, or null
+     * @return the availability of each value asked about
+     * @throws IllegalArgumentException if neither value is given
+     */
+    UserAvailabilityDTO checkAvailability(String username, String email);
 
     /**
      * Create a new user.
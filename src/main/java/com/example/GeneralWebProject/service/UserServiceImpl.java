@@ -2,18 +2,31 @@
 // File: src/main/java/com/example/webapp/service/UserServiceImpl.java
 package com.example.GeneralWebProject.service;
 
+import com.example.GeneralWebProject.cache.UserPrincipalCache;
+import com.example.GeneralWebProject.dto.UserAvailabilityDTO;
 import com.example.GeneralWebProject.dto.UserCreateDTO;
 import com.example.GeneralWebProject.dto.UserDTO;
+import com.example.GeneralWebProject.dto.UserField;
 import com.example.GeneralWebProject.exception.ResourceNotFoundException;
+import com.example.GeneralWebProject.index.UserIdentifierIndex;
 import com.example.GeneralWebProject.model.User;
 import com.example.GeneralWebProject.repository.UserRepository;
+import com.example.GeneralWebProject.security.AccessTokenService;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
 
+import java.util.EnumSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Predicate;
 
 /**
  * Implementation of the UserService interface.
@@ -23,47 +36,59 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserPrincipalCache principalCache;
+    private final UserIdentifierIndex identifierIndex;
+    private final AccessTokenService tokenService;
 
     @Autowired
-    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                           UserPrincipalCache principalCache, UserIdentifierIndex identifierIndex,
+                           AccessTokenService tokenService) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.principalCache = principalCache;
+        this.identifierIndex = identifierIndex;
+        this.tokenService = tokenService;
     }
 
     @Override
-    public List<UserDTO> getAllUsers() {
-        return userRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public List<UserDTO> getAllUsers(Set<UserField> fields) {
+        return userRepository.findAllDTOs(columns(fields));
     }
 
     @Override
-    public UserDTO getUserById(Long id) {
-        return userRepository.findById(id)
-                .map(this::convertToDTO)
+    @Transactional(readOnly = true)
+    public UserDTO getUserById(Long id, Set<UserField> fields) {
+        return userRepository.findDTOById(columns(fields), id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
     }
 
     @Override
-    public UserDTO getUserByUsername(String username) {
-        return userRepository.findByUsername(username)
-                .map(this::convertToDTO)
+    @Transactional(readOnly = true)
+    public UserDTO getUserByUsername(String username, Set<UserField> fields) {
+        return userRepository.findDTOByUsername(columns(fields), username)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with username: " + username));
     }
 
     @Override
-    @Transactional
-    public UserDTO createUser(UserCreateDTO userCreateDTO) {
-        // Check if username already exists
-        if (userRepository.existsByUsername(userCreateDTO.getUsername())) {
-            throw new IllegalArgumentException("Username already exists");
-        }
-
-        // Check if email already exists
-        if (userRepository.existsByEmail(userCreateDTO.getEmail())) {
-            throw new IllegalArgumentException("Email already exists");
+    // Not transactional: starting a transaction would take a connection even when the filters answer
+    public UserAvailabilityDTO checkAvailability(String username, String email) {
+        boolean hasUsername = StringUtils.hasText(username);
+        boolean hasEmail = StringUtils.hasText(email);
+        if (!hasUsername && !hasEmail) {
+            throw new IllegalArgumentException("Username or email is required");
         }
+        return new UserAvailabilityDTO(
+                hasUsername ? username : null,
+                hasUsername ? !isTaken(username, identifierIndex::mightContainUsername, userRepository::existsByUsername) : null,
+                hasEmail ? email : null,
+                hasEmail ? !isTaken(email, identifierIndex::mightContainEmail, userRepository::existsByEmail) : null);
+    }
 
+    @Override
+    // Not transactional: the password is hashed before any connection is taken, and the insert commits on its own
+    public UserDTO createUser(UserCreateDTO userCreateDTO) {
         User user = new User();
         user.setUsername(userCreateDTO.getUsername());
         user.setPassword(passwordEncoder.encode(userCreateDTO.getPassword()));
@@ -72,7 +97,14 @@ public class UserServiceImpl implements UserService {
         user.setEmail(userCreateDTO.getEmail());
         user.setActive(true);
 
-        User savedUser = userRepository.save(user);
+        // One insert, with uniqueness left to the database
+        User savedUser;
+        try {
+            savedUser = userRepository.save(user);
+        } catch (DataIntegrityViolationException ex) {
+            throw duplicateUser(ex);
+        }
+        afterCommit(() -> identifierIndex.add(savedUser.getUsername(), savedUser.getEmail()));
         return convertToDTO(savedUser);
     }
 
@@ -93,13 +125,27 @@ public class UserServiceImpl implements UserService {
                         throw new IllegalArgumentException("Email already exists");
                     }
 
+                    String oldUsername = user.getUsername();
+                    String oldEmail = user.getEmail();
                     user.setUsername(userDTO.getUsername());
                     user.setFirstName(userDTO.getFirstName());
                     user.setLastName(userDTO.getLastName());
                     user.setEmail(userDTO.getEmail());
                     user.setActive(userDTO.isActive());
 
-                    return convertToDTO(userRepository.save(user));
+                    boolean revoked = !oldUsername.equals(user.getUsername()) || !user.isActive();
+                    UserDTO updated = convertToDTO(userRepository.save(user));
+                    // A renamed or deactivated user must not keep logging in with the cached principal or a token
+                    afterCommit(() -> {
+                        if (revoked) {
+                            tokenService.revoke(oldUsername);
+                        }
+                        principalCache.invalidate(oldUsername);
+                        principalCache.invalidate(updated.getUsername());
+                        identifierIndex.remove(oldUsername, oldEmail);
+                        identifierIndex.add(updated.getUsername(), updated.getEmail());
+                    });
+                    return updated;
                 })
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
     }
@@ -107,10 +153,69 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional
     public void deleteUser(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new ResourceNotFoundException("User not found with id: " + id);
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+        userRepository.delete(user);
+        afterCommit(() -> {
+            tokenService.revoke(user.getUsername());
+            principalCache.invalidate(user.getUsername());
+            identifierIndex.remove(user.getUsername(), user.getEmail());
+        });
+    }
+
+    private boolean isTaken(String value, Predicate<String> mightBeTaken, Predicate<String> exists) {
+        // A negative filter answer is definite; a positive one may be a false positive
+        if (identifierIndex.isReady() && !mightBeTaken.test(value)) {
+            return false;
+        }
+        return exists.test(value);
+    }
+
+    /**
+     * The fields a read selects: the ones asked for, or every field when none were.
+     */
+    private static Set<UserField> columns(Set<UserField> fields) {
+        return fields == null ? EnumSet.allOf(UserField.class) : fields;
+    }
+
+    /**
+     * Map a failed insert to the error for the value it duplicated.
+     *
+     * @param ex the failure
+     * @return an IllegalArgumentException naming the duplicated value, or the failure itself if it was not a
+     * duplicate username or email
+     */
+    private static RuntimeException duplicateUser(DataIntegrityViolationException ex) {
+        String constraint = ex.getCause() instanceof ConstraintViolationException violation
+                && violation.getConstraintName() != null
+                ? violation.getConstraintName() : String.valueOf(ex.getMostSpecificCause().getMessage());
+        constraint = constraint.toLowerCase(Locale.ROOT);
+        if (constraint.contains(User.USERNAME_CONSTRAINT)) {
+            return new IllegalArgumentException("Username already exists");
+        }
+        if (constraint.contains(User.EMAIL_CONSTRAINT)) {
+            return new IllegalArgumentException("Email already exists");
+        }
+        return ex;
+    }
+
+    /**
+     * Run a cache update once the surrounding transaction commits, or immediately outside one, so a login
+     * racing with the change cannot cache the old row again.
+     *
+     * @param action the update
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
         }
-        userRepository.deleteById(id);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 
     /**
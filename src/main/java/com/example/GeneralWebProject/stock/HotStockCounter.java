@@ -0,0 +1,203 @@
+package com.example.GeneralWebProject.stock;
+
+import com.example.GeneralWebProject.model.StockHold;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * In-memory stock budget for one hot product, split across padded stripes so concurrent
+ * reservations update different cache lines.
+ * <p>
+ * The sum of the stripes is the stock still available to reserve: the committed quantity minus
+ * reservations acquired but not yet flushed. A reservation first tries to take its whole quantity
+ * from its own stripe and only gathers from the other stripes when that stripe runs short, so the
+ * total can never go below zero.
+ * <p>
+ * Acquisitions and releases share a read lock that a reset takes exclusively, so a reset never rebuilds the
+ * stripes from a pending count that misses an acquisition already taken from them.
+ */
+final class HotStockCounter {
+
+    /**
+     * Longs per stripe; 8 longs keep each stripe on its own 64-byte cache line.
+     */
+    private static final int PAD = 8;
+
+    private final long productId;
+    private final int mask;
+    private final AtomicLongArray cells;
+    private final StampedLock resetLock = new StampedLock();
+
+    final Queue<PendingReservation> queue = new ConcurrentLinkedQueue<>();
+    final ReentrantLock flushLock = new ReentrantLock();
+    final LongAdder pending = new LongAdder();
+    final LongAdder acquired = new LongAdder();
+    final LongAdder rejected = new LongAdder();
+    final LongAdder contended = new LongAdder();
+    final LongAdder flushes = new LongAdder();
+    final LongAdder flushedReservations = new LongAdder();
+    final LongAdder flushLagNanos = new LongAdder();
+    final AtomicLong maxFlushLagNanos = new AtomicLong();
+
+    HotStockCounter(long productId, long budget) {
+        int stripes = 1;
+        while (stripes < Runtime.getRuntime().availableProcessors()) {
+            stripes <<= 1;
+        }
+        this.productId = productId;
+        this.mask = stripes - 1;
+        this.cells = new AtomicLongArray(stripes * PAD);
+        cells.set(0, budget);
+    }
+
+    long productId() {
+        return productId;
+    }
+
+    /**
+     * Take stock from the budget if enough is available.
+     *
+     * @param quantity the quantity to take
+     * @return true if the stock was taken
+     */
+    boolean tryAcquire(int quantity) {
+        long stamp = resetLock.readLock();
+        try {
+            int home = homeStripe();
+            while (true) {
+                long available = cells.get(home);
+                if (available < quantity) {
+                    break;
+                }
+                if (cells.compareAndSet(home, available, available - quantity)) {
+                    acquired.increment();
+                    pending.add(quantity);
+                    return true;
+                }
+                contended.increment();
+            }
+            return gather(home, quantity);
+        } finally {
+            resetLock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Return stock to the budget.
+     *
+     * @param quantity the quantity to return
+     */
+    void release(long quantity) {
+        long stamp = resetLock.readLock();
+        try {
+            cells.getAndAdd(homeStripe(), quantity);
+        } finally {
+            resetLock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Give up reservations that were acquired but will not be flushed: they stop counting as pending and their
+     * stock returns to the budget in one step, so a reset cannot count them twice.
+     *
+     * @param quantity the quantity of the abandoned reservations
+     */
+    void abandon(long quantity) {
+        long stamp = resetLock.readLock();
+        try {
+            pending.add(-quantity);
+            cells.getAndAdd(homeStripe(), quantity);
+        } finally {
+            resetLock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Rebuild the budget from the committed quantity, e.g. after it was changed outside the hot path.
+     * The reservations acquired but not yet flushed are taken off it.
+     *
+     * @param committed the committed quantity in stock
+     */
+    void reset(long committed) {
+        long stamp = resetLock.writeLock();
+        try {
+            for (int i = 0; i <= mask; i++) {
+                cells.set(i * PAD, 0L);
+            }
+            cells.set(0, Math.max(0L, committed - pending.sum()));
+        } finally {
+            resetLock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Stock currently available to reserve.
+     *
+     * @return the sum of all stripes
+     */
+    long available() {
+        long sum = 0;
+        for (int i = 0; i <= mask; i++) {
+            sum += cells.get(i * PAD);
+        }
+        return sum;
+    }
+
+    /**
+     * Slow path: take the quantity from several stripes, or put back what was taken if the total falls short.
+     * Serialized so two slow paths cannot each hold part of the last units and both fail.
+     */
+    private synchronized boolean gather(int home, int quantity) {
+        long taken = 0;
+        for (int i = 0; i <= mask && taken < quantity; i++) {
+            int index = i * PAD;
+            while (taken < quantity) {
+                long available = cells.get(index);
+                if (available <= 0) {
+                    break;
+                }
+                long take = Math.min(available, quantity - taken);
+                if (cells.compareAndSet(index, available, available - take)) {
+                    taken += take;
+                } else {
+                    contended.increment();
+                }
+            }
+        }
+        if (taken < quantity) {
+            if (taken > 0) {
+                cells.getAndAdd(home, taken);
+            }
+            rejected.increment();
+            return false;
+        }
+        acquired.increment();
+        pending.add(quantity);
+        return true;
+    }
+
+    private int homeStripe() {
+        long id = Thread.currentThread().threadId();
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> 40 & mask) * PAD;
+    }
+
+    /**
+     * A reservation taken from the budget and waiting for the next flush.
+     */
+    static final class PendingReservation {
+        final StockHold hold;
+        final long enqueuedNanos = System.nanoTime();
+        final CompletableFuture<Void> flushed = new CompletableFuture<>();
+
+        PendingReservation(StockHold hold) {
+            this.hold = hold;
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package com.example.GeneralWebProject.stock;
+
+import com.example.GeneralWebProject.cache.ProductCache;
+import com.example.GeneralWebProject.dto.HotStockStatsDTO;
+import com.example.GeneralWebProject.exception.InsufficientStockException;
+import com.example.GeneralWebProject.exception.ResourceNotFoundException;
+import com.example.GeneralWebProject.exception.ServiceOverloadedException;
+import com.example.GeneralWebProject.index.ProductIndexLoader;
+import com.example.GeneralWebProject.model.StockHold;
+import com.example.GeneralWebProject.repository.ProductRepository;
+import com.example.GeneralWebProject.scheduling.StockHoldScheduler;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Group-committed stock reservations for products flagged as hot.
+ * <p>
+ * A reservation on a hot product is checked against a striped in-memory budget instead of locking the
+ * product row, then queued. A single flusher commits everything queued for a product in one transaction
+ * with one conditional stock update and the batch of hold inserts, so thousands of reservations per second
+ * cost one row update per flush interval. The product cache and indexes are refreshed once per committed
+ * batch as well, before its reservations are acknowledged.
+ * <p>
+ * Guarantees:
+ * <ul>
+ *     <li>No oversell: the budget never goes below zero, and the flush update only succeeds if the row
+ *     still has enough stock, so stock changed elsewhere fails the batch instead of going negative.</li>
+ *     <li>No lost acknowledgements: a reservation returns only after its flush committed. A crash loses
+ *     queued reservations whose callers have not been answered; a crash after the commit leaves holds
+ *     that {@link StockHoldScheduler#recover()} expires as usual.</li>
+ * </ul>
+ * The budget assumes this instance is the only writer of hot rows; other writers are tolerated but cost
+ * failed batches and a budget resync.
+ */
+@Component
+public class HotStockManager {
+
+    private static final Logger log = LoggerFactory.getLogger(HotStockManager.class);
+
+    private static final int MAX_FLUSH_BATCH = 10_000;
+
+    private final ProductRepository productRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final StockHoldScheduler holdScheduler;
+    private final ProductCache productCache;
+    private final ProductIndexLoader indexLoader;
+    private final boolean enabled;
+    private final Duration maxWait;
+    private final Duration retryAfter;
+    private final Map<Long, HotStockCounter> counters = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+
+    @Autowired
+    public HotStockManager(ProductRepository productRepository, EntityManager entityManager,
+                           PlatformTransactionManager transactionManager, StockHoldScheduler holdScheduler,
+                           ProductCache productCache, ProductIndexLoader indexLoader,
+                           @Value("${app.products.hot-stock.enabled:false}") boolean enabled,
+                           @Value("${app.products.hot-stock.flush-interval:10ms}") Duration flushInterval,
+                           @Value("${app.products.hot-stock.max-wait:5s}") Duration maxWait,
+                           @Value("${app.products.hot-stock.retry-after:1s}") Duration retryAfter) {
+        this.productRepository = productRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.holdScheduler = holdScheduler;
+        this.productCache = productCache;
+        this.indexLoader = indexLoader;
+        this.enabled = enabled;
+        this.maxWait = maxWait;
+        this.retryAfter = retryAfter;
+        if (enabled) {
+            this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "hot-stock-flush");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long intervalNanos = flushInterval.toNanos();
+            this.flusher.scheduleWithFixedDelay(this::flushAll, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+        } else {
+            this.flusher = null;
+        }
+    }
+
+    /**
+     * Check whether a product is flagged as hot.
+     *
+     * @param productId the product ID
+     * @return true if reservations for the product go through the hot path
+     */
+    public boolean isHot(Long productId) {
+        return counters.containsKey(productId);
+    }
+
+    /**
+     * Flag a product as hot, seeding its budget from the committed stock.
+     *
+     * @param productId the product ID
+     * @return the statistics of the product's counter
+     */
+    public HotStockStatsDTO flag(Long productId) {
+        if (!enabled) {
+            throw new IllegalArgumentException("Hot stock mode is disabled");
+        }
+        HotStockCounter counter = counters.computeIfAbsent(productId, id -> new HotStockCounter(id,
+                productRepository.findQuantityInStockById(id)
+                        .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id))));
+        return toStats(counter);
+    }
+
+    /**
+     * Stop treating a product as hot. Queued reservations are flushed first.
+     *
+     * @param productId the product ID
+     */
+    public void unflag(Long productId) {
+        HotStockCounter counter = counters.remove(productId);
+        if (counter != null) {
+            flush(counter);
+        }
+    }
+
+    /**
+     * Reserve stock for a hot product and wait until the hold is committed.
+     *
+     * @param hold the hold to create
+     * @return the stock left in the product's budget
+     * @throws InsufficientStockException if the budget or the committed stock is too low
+     * @throws ServiceOverloadedException if the hold was not committed within the maximum wait
+     */
+    public long reserve(StockHold hold) {
+        HotStockCounter counter = counters.get(hold.getProductId());
+        if (counter == null) {
+            throw new IllegalStateException("Product is not hot: " + hold.getProductId());
+        }
+        if (!counter.tryAcquire(hold.getQuantity())) {
+            throw new InsufficientStockException("Insufficient stock for product with id: " + hold.getProductId());
+        }
+        HotStockCounter.PendingReservation pending = new HotStockCounter.PendingReservation(hold);
+        counter.queue.add(pending);
+        if (counters.get(hold.getProductId()) != counter) {
+            // Unflagged concurrently; its final flush may have missed this reservation
+            flush(counter);
+        }
+        await(counter, pending);
+        return counter.available();
+    }
+
+    /**
+     * Return released stock to a hot product's budget once the release has committed.
+     *
+     * @param productId the product ID
+     * @param quantity the released quantity
+     */
+    public void stockReleased(Long productId, int quantity) {
+        HotStockCounter counter = counters.get(productId);
+        if (counter != null) {
+            counter.release(quantity);
+        }
+    }
+
+    /**
+     * Reseed a hot product's budget after its stock was set outside the hot path.
+     *
+     * @param productId the product ID
+     */
+    public void resync(Long productId) {
+        HotStockCounter counter = counters.get(productId);
+        if (counter != null) {
+            resync(counter);
+        }
+    }
+
+    /**
+     * Statistics for every hot product.
+     *
+     * @return the statistics, ordered by product ID
+     */
+    public List<HotStockStatsDTO> stats() {
+        return counters.values().stream()
+                .sorted(Comparator.comparingLong(HotStockCounter::productId))
+                .map(this::toStats)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Commit everything queued, for every hot product.
+     */
+    public void flushAll() {
+        counters.values().forEach(this::flush);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (flusher != null) {
+            flusher.shutdown();
+            try {
+                flusher.awaitTermination(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flushAll();
+    }
+
+    private void await(HotStockCounter counter, HotStockCounter.PendingReservation pending) {
+        try {
+            try {
+                pending.flushed.get(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException ex) {
+                if (counter.queue.remove(pending)) {
+                    // Never flushed, so nothing was written: hand the stock back and shed the request
+                    counter.abandon(pending.hold.getQuantity());
+                    throw new ServiceOverloadedException("Reservation was not committed within " + maxWait
+                            + ", retry later", retryAfter);
+                }
+                // A flush already owns it; its outcome is the answer
+                pending.flushed.get();
+            }
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            if (counter.queue.remove(pending)) {
+                counter.abandon(pending.hold.getQuantity());
+            }
+            throw new ServiceOverloadedException("Interrupted while waiting for the reservation to commit",
+                    retryAfter);
+        }
+    }
+
+    private void flush(HotStockCounter counter) {
+        counter.flushLock.lock();
+        try {
+            List<HotStockCounter.PendingReservation> batch = new ArrayList<>();
+            HotStockCounter.PendingReservation next;
+            while (batch.size() < MAX_FLUSH_BATCH && (next = counter.queue.poll()) != null) {
+                batch.add(next);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            int total = batch.stream().mapToInt(pending -> pending.hold.getQuantity()).sum();
+            RuntimeException failure = null;
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    if (productRepository.reserveStock(counter.productId(), total) == 0) {
+                        throw new InsufficientStockException(
+                                "Insufficient stock for product with id: " + counter.productId());
+                    }
+                    batch.forEach(pending -> entityManager.persist(pending.hold));
+                });
+            } catch (RuntimeException ex) {
+                failure = ex;
+            }
+            if (failure == null) {
+                counter.pending.add(-total);
+                committed(counter, batch);
+            } else {
+                failed(counter, batch, total, failure);
+            }
+        } finally {
+            counter.flushLock.unlock();
+        }
+    }
+
+    private void committed(HotStockCounter counter, List<HotStockCounter.PendingReservation> batch) {
+        // One refresh for the whole batch, as it committed one stock update
+        productCache.invalidate(counter.productId());
+        try {
+            indexLoader.refresh(List.of(counter.productId()));
+        } catch (RuntimeException ex) {
+            log.warn("Could not refresh the indexes of hot product {} after a flush", counter.productId(), ex);
+        }
+        long now = System.nanoTime();
+        for (HotStockCounter.PendingReservation pending : batch) {
+            holdScheduler.schedule(pending.hold.getId(), pending.hold.getExpiresAt());
+            long lag = now - pending.enqueuedNanos;
+            counter.flushLagNanos.add(lag);
+            counter.maxFlushLagNanos.accumulateAndGet(lag, Math::max);
+            pending.flushed.complete(null);
+        }
+        counter.flushes.increment();
+        counter.flushedReservations.add(batch.size());
+    }
+
+    private void failed(HotStockCounter counter, List<HotStockCounter.PendingReservation> batch, int total,
+                        RuntimeException failure) {
+        if (failure instanceof InsufficientStockException) {
+            // The row changed outside the hot path; the budget was wrong, so start over from the committed stock
+            log.warn("Hot stock flush for product {} found less stock than budgeted, resyncing",
+                    counter.productId());
+            counter.pending.add(-total);
+            resync(counter);
+        } else {
+            log.error("Hot stock flush for product {} failed for {} reservations",
+                    counter.productId(), batch.size(), failure);
+            counter.abandon(total);
+        }
+        batch.forEach(pending -> pending.flushed.completeExceptionally(failure));
+    }
+
+    private void resync(HotStockCounter counter) {
+        productRepository.findQuantityInStockById(counter.productId()).ifPresentOrElse(
+                counter::reset,
+                () -> counters.remove(counter.productId(), counter));
+    }
+
+    private HotStockStatsDTO toStats(HotStockCounter counter) {
+        long flushed = counter.flushedReservations.sum();
+        return new HotStockStatsDTO(
+                counter.productId(),
+                counter.available(),
+                counter.pending.sum(),
+                counter.acquired.sum(),
+                counter.rejected.sum(),
+                counter.contended.sum(),
+                counter.flushes.sum(),
+                flushed == 0 ? 0.0 : counter.flushLagNanos.sum() / (double) flushed / 1_000_000.0,
+                counter.maxFlushLagNanos.get() / 1_000_000.0);
+    }
+}
@@ -5,9 +5,9 @@
 -- These passwords are already encrypted with BCrypt corresponding to 'password' and 'admin'
 INSERT INTO users (username, password, first_name, last_name, email, active, created_at, updated_at)
 VALUES
-('john.doe', '$2a$10$Ix7y1DWuOIbZmEW1.l66x.kHAyEcjGJ7jcsAtCWcMFk0btkrvYGv.', 'John', 'Doe', 'john.doe@example.com', true, CURRENT_TIMESTAMP(), CURRENT_TIMESTAMP()),
-('jane.smith', '$2a$10$Ix7y1DWuOIbZmEW1.l66x.kHAyEcjGJ7jcsAtCWcMFk0btkrvYGv.', 'Jane', 'Smith', 'jane.smith@example.com', true, CURRENT_TIMESTAMP(), CURRENT_TIMESTAMP()),
-('admin', '$2a$10$4nO90GKUXASQVPSnpONupe82E6k0vDD1nF/dZcifZvPQtk.38v5LS', 'Admin', 'User', 'admin@example.com', true, CURRENT_TIMESTAMP(), CURRENT_TIMESTAMP());
+('john.doe', '$2a$10$AUPspGZtWqX2jJGKfKgr6eUH.VHnkitIOgwbWutDxl0e3kw8170tS', 'John', 'Doe', 'john.doe@example.com', true, CURRENT_TIMESTAMP(), CURRENT_TIMESTAMP()),
+('jane.smith', '$2a$10$AUPspGZtWqX2jJGKfKgr6eUH.VHnkitIOgwbWutDxl0e3kw8170tS', 'Jane', 'Smith', 'jane.smith@example.com', true, CURRENT_TIMESTAMP(), CURRENT_TIMESTAMP()),
+('admin', '$2a$10$Mt/7ONnC9eZigfc9dHjEyeyjPv5mHdRKdpfCNgHRsLSjIgPb53Tme', 'Admin', 'User', 'admin@example.com', true, CURRENT_TIMESTAMP(), CURRENT_TIMESTAMP());
 
 -- Insert sample products
 INSERT INTO products (name, description, price, quantity_in_stock, created_at, updated_at)
@@ -0,0 +1,3 @@
+-- Lets the catalog version (product count and latest updated_at) be read without scanning products
+
+CREATE INDEX idx_products_updated_at ON products (updated_at);
@@ -0,0 +1,142 @@
+package com.example.GeneralWebProject;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Floods user creation while timing product reads, with real BCrypt and eight Tomcat threads.
+ * Hashing is limited to one thread and two queued hashes, so the storm is shed with 503 instead of holding
+ * request threads, and reads keep answering quickly.
+ * <p>
+ * All requests use a bearer token, so the only BCrypt work is the hashing of new passwords.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:signup_storm",
+        "server.tomcat.threads.max=8",
+        "app.security.hashing.threads=1",
+        "app.security.hashing.queue-capacity=2",
+        "app.security.hashing.retry-after=1s",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+class UserSignupStormTest {
+
+    private static final long STORM_MILLIS = 3_000;
+    private static final int SIGNUPS_PER_WAVE = 24;
+    private static final long MAX_P95_READ_MILLIS = 1_000;
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void signupStorm_ShouldBeShedWhileReadsKeepTheirLatency() throws Exception {
+        String token = token("john.doe", "password");
+        AtomicInteger created = new AtomicInteger();
+        AtomicReference<String> createdUsername = new AtomicReference<>();
+        AtomicInteger shed = new AtomicInteger();
+        ConcurrentLinkedQueue<String> unexpected = new ConcurrentLinkedQueue<>();
+
+        CompletableFuture<Void> storm = CompletableFuture.runAsync(() -> {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(STORM_MILLIS);
+            int next = 0;
+            while (System.nanoTime() < deadline) {
+                List<CompletableFuture<HttpResponse<String>>> wave = new ArrayList<>();
+                for (int i = 0; i < SIGNUPS_PER_WAVE; i++, next++) {
+                    wave.add(client.sendAsync(signup(token, next), HttpResponse.BodyHandlers.ofString()));
+                }
+                for (CompletableFuture<HttpResponse<String>> response : wave) {
+                    HttpResponse<String> signup = response.join();
+                    if (signup.statusCode() == 201) {
+                        created.incrementAndGet();
+                        createdUsername.compareAndSet(null, username(signup.body()));
+                    } else if (signup.statusCode() == 503
+                            && signup.headers().firstValue("Retry-After").orElse("").equals("1")) {
+                        shed.incrementAndGet();
+                    } else {
+                        unexpected.add(signup.statusCode() + " " + signup.body());
+                    }
+                }
+            }
+        });
+
+        List<Long> readMillis = new ArrayList<>();
+        HttpRequest read = HttpRequest.newBuilder(uri("/api/v1/products/1"))
+                .header("Authorization", "Bearer " + token)
+                .build();
+        while (!storm.isDone()) {
+            long start = System.nanoTime();
+            HttpResponse<Void> response = client.send(read, HttpResponse.BodyHandlers.discarding());
+            readMillis.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            assertEquals(200, response.statusCode());
+        }
+        storm.join();
+
+        assertTrue(unexpected.isEmpty(), "unexpected signup responses: " + unexpected);
+        assertTrue(created.get() > 0, "no signup succeeded");
+        assertTrue(shed.get() > 0, "no signup was shed");
+        assertTrue(readMillis.size() >= 10, "only " + readMillis.size() + " reads completed during the storm");
+        // Unbounded, with a hashing thread per request thread, reads here took seconds and p95 was above 2 s
+        long p95 = readMillis.stream().sorted().skip(readMillis.size() * 95L / 100).findFirst().orElseThrow();
+        assertTrue(p95 < MAX_P95_READ_MILLIS, "p95 read took " + p95 + " ms: " + readMillis);
+
+        // The hashes computed off the request threads are real: a new user can log in
+        assertFalse(token(createdUsername.get(), "password123").isEmpty());
+    }
+
+    private String username(String body) {
+        try {
+            return objectMapper.readTree(body).get("username").asText();
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private HttpRequest signup(String token, int number) {
+        String body = """
+                {"username":"storm.user.%d","password":"password123","firstName":"Storm","lastName":"User",\
+                "email":"storm.user.%d@example.com"}""".formatted(number, number);
+        return HttpRequest.newBuilder(uri("/api/v1/users"))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private String token(String username, String password) throws Exception {
+        String basic = Base64.getEncoder().encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri("/api/v1/auth/token"))
+                .header("Authorization", "Basic " + basic)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), response.body());
+        return objectMapper.readTree(response.body()).get("accessToken").asText();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
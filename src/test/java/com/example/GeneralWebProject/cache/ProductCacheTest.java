@@ -0,0 +1,95 @@
+package com.example.GeneralWebProject.cache;
+
+import com.example.GeneralWebProject.dto.CacheStatsDTO;
+import com.example.GeneralWebProject.dto.ProductDTO;
+import com.example.GeneralWebProject.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for ProductCache.
+ */
+class ProductCacheTest {
+
+    private static final LocalDateTime MODIFIED = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private final ProductCache cache = new ProductCache(1_000_000L);
+
+    @Test
+    void get_WhenConcurrentMisses_ShouldLoadOnce() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<ProductDTO>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return cache.get(1L, id -> {
+                        loads.incrementAndGet();
+                        sleep();
+                        return entry(id);
+                    });
+                }));
+            }
+            start.countDown();
+            for (Future<ProductDTO> result : results) {
+                assertEquals("Product 1", result.get(5, TimeUnit.SECONDS).getName());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_WhenLoaderThrows_ShouldNotCacheMiss() {
+        assertThrows(ResourceNotFoundException.class, () -> cache.get(1L, id -> {
+            throw new ResourceNotFoundException("Product not found with id: " + id);
+        }));
+
+        assertEquals("Product 1", cache.get(1L, this::entry).getName());
+    }
+
+    @Test
+    void invalidate_ShouldForceReload() {
+        assertNull(cache.getLastModifiedIfPresent(1L));
+        cache.get(1L, this::entry);
+        assertEquals(MODIFIED, cache.getLastModifiedIfPresent(1L));
+        cache.invalidate(1L);
+        cache.get(1L, this::entry);
+        cache.get(1L, this::entry);
+
+        CacheStatsDTO stats = cache.stats();
+        assertEquals(2, stats.getLoadCount());
+        assertEquals(1, stats.getHitCount());
+        assertEquals(1, stats.getEstimatedSize());
+        assertTrue(stats.getWeightedSize() > 0);
+    }
+
+    private ProductCache.Entry entry(Long id) {
+        return new ProductCache.Entry(
+                new ProductDTO(id, "Product " + id, "Description", new BigDecimal("9.99"), 1), MODIFIED);
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(50);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
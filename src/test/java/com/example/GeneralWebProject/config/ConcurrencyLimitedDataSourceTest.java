@@ -0,0 +1,51 @@
+package com.example.GeneralWebProject.config;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for ConcurrencyLimitedDataSource.
+ */
+class ConcurrencyLimitedDataSourceTest {
+
+    private final DataSource pool = mock(DataSource.class);
+    private final ConcurrencyLimitedDataSource dataSource =
+            new ConcurrencyLimitedDataSource(pool, 1, Duration.ofMillis(20));
+
+    @Test
+    void getConnection_WhenLimitReached_ShouldFailUntilConnectionIsClosed() throws SQLException {
+        Connection pooled = mock(Connection.class);
+        when(pool.getConnection()).thenReturn(pooled);
+
+        Connection first = dataSource.getConnection();
+        assertEquals(1, dataSource.getActive());
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+
+        first.close();
+        first.close();
+        verify(pooled, times(2)).close();
+        assertEquals(0, dataSource.getActive());
+
+        dataSource.getConnection().close();
+        assertEquals(0, dataSource.getActive());
+        verify(pool, times(2)).getConnection();
+    }
+
+    @Test
+    void getConnection_WhenPoolFails_ShouldReturnPermit() throws SQLException {
+        when(pool.getConnection()).thenThrow(new SQLException("pool exhausted"));
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+
+        assertEquals(0, dataSource.getActive());
+        assertEquals(1, dataSource.getLimit());
+    }
+}
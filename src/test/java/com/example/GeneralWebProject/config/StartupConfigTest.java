@@ -0,0 +1,39 @@
+package com.example.GeneralWebProject.config;
+
+import com.example.GeneralWebProject.controller.ProductController;
+import com.example.GeneralWebProject.service.ProductServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springdoc.webmvc.api.OpenApiWebMvcResource;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.security.web.DefaultSecurityFilterChain;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for StartupConfig.
+ */
+class StartupConfigTest {
+
+    private final LazyInitializationExcludeFilter filter = StartupConfig.hotPathExcludeFilter();
+
+    @Test
+    void hotPathExcludeFilter_ShouldKeepApplicationAndHotPathBeansEager() {
+        assertTrue(isExcluded(ProductController.class));
+        assertTrue(isExcluded(ProductServiceImpl.class));
+        assertTrue(isExcluded(DefaultSecurityFilterChain.class));
+        assertTrue(isExcluded(RequestMappingHandlerMapping.class));
+    }
+
+    @Test
+    void hotPathExcludeFilter_ShouldLeaveOtherBeansLazy() {
+        assertFalse(isExcluded(OpenApiWebMvcResource.class));
+        assertFalse(isExcluded(String.class));
+        assertFalse(isExcluded(null));
+    }
+
+    private boolean isExcluded(Class<?> type) {
+        return filter.isExcluded("bean", new RootBeanDefinition(), type);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.GeneralWebProject.controller;
+
+import com.example.GeneralWebProject.cache.ProductCache;
+import com.example.GeneralWebProject.dto.CacheStatsDTO;
+import com.example.GeneralWebProject.dto.HotStockStatsDTO;
+import com.example.GeneralWebProject.stock.HotStockManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests for AdminController.
+ */
+@WebMvcTest(AdminController.class)
+@Import(TestControllerConfig.class)
+@ActiveProfiles("test")
+class AdminControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private HotStockManager hotStock;
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getProductCacheStats_ShouldReturnStats() throws Exception {
+        when(productCache.stats()).thenReturn(new CacheStatsDTO(0.75, 3, 1, 2, 1, 1.5, 10, 2048));
+
+        mockMvc.perform(get("/api/v1/admin/cache/products"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hitRate", is(0.75)))
+                .andExpect(jsonPath("$.evictionCount", is(2)))
+                .andExpect(jsonPath("$.averageLoadMillis", is(1.5)));
+
+        verify(productCache, times(1)).stats();
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void flagHotProduct_ShouldReturnCounterStats() throws Exception {
+        when(hotStock.flag(1L)).thenReturn(new HotStockStatsDTO(1L, 100, 0, 0, 0, 0, 0, 0.0, 0.0));
+
+        mockMvc.perform(put("/api/v1/admin/hot-products/1").with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.productId", is(1)))
+                .andExpect(jsonPath("$.availableQuantity", is(100)));
+
+        verify(hotStock, times(1)).flag(1L);
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void flagHotProduct_WhenModeDisabled_ShouldReturnBadRequest() throws Exception {
+        when(hotStock.flag(2L)).thenThrow(new IllegalArgumentException("Hot stock mode is disabled"));
+
+        mockMvc.perform(put("/api/v1/admin/hot-products/2").with(csrf()))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.GeneralWebProject.controller;
+
+import com.example.GeneralWebProject.dto.AccessTokenDTO;
+import com.example.GeneralWebProject.security.AccessTokenService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests for AuthController.
+ */
+@WebMvcTest(AuthController.class)
+@Import(TestControllerConfig.class)
+@ActiveProfiles("test")
+class AuthControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AccessTokenService tokenService;
+
+    @Test
+    @WithMockUser(username = "user")
+    void issueToken_ShouldReturnTokenForCaller() throws Exception {
+        when(tokenService.issue(argThat((Authentication authentication) -> "user".equals(authentication.getName()))))
+                .thenReturn(new AccessTokenDTO("payload.signature", "Bearer", 900));
+
+        mockMvc.perform(post("/api/v1/auth/token").with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accessToken", is("payload.signature")))
+                .andExpect(jsonPath("$.tokenType", is("Bearer")))
+                .andExpect(jsonPath("$.expiresIn", is(900)));
+    }
+
+    @Test
+    void issueToken_ShouldRequireAuthentication() throws Exception {
+        mockMvc.perform(post("/api/v1/auth/token").with(csrf()))
+                .andExpect(status().isUnauthorized());
+    }
+}
@@ -1,27 +1,49 @@
 // File: src/test/java/com/example/webapp/controller/ProductControllerTest.java
 package com.example.GeneralWebProject.controller;
 
+import com.example.GeneralWebProject.dto.CatalogVersionDTO;
+import com.example.GeneralWebProject.dto.CursorPageDTO;
 import com.example.GeneralWebProject.dto.ProductDTO;
+import com.example.GeneralWebProject.dto.ProductField;
+import com.example.GeneralWebProject.dto.ProductQuery;
+import com.example.GeneralWebProject.dto.ProductQueryPlanDTO;
+import com.example.GeneralWebProject.dto.ProductQueryResultDTO;
+import com.example.GeneralWebProject.dto.ProductSort;
+import com.example.GeneralWebProject.dto.ReservationDTO;
+import com.example.GeneralWebProject.exception.InsufficientStockException;
 import com.example.GeneralWebProject.service.ProductService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.mockito.Mock;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import org.springframework.test.context.ActiveProfiles;
@@ -34,6 +56,8 @@ import org.springframework.test.context.ActiveProfiles;
 @ActiveProfiles("test")
 class ProductControllerTest {
 
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -59,15 +83,165 @@ class ProductControllerTest {
     @WithMockUser
     void getAllProducts_ShouldReturnListOfProducts() throws Exception {
         List<ProductDTO> products = Arrays.asList(productDTO);
-        when(productService.getAllProducts()).thenReturn(products);
+        when(productService.getAllProducts(null, 50, null)).thenReturn(new CursorPageDTO<>(products, null));
 
         mockMvc.perform(get("/api/v1/products"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(1)))
-                .andExpect(jsonPath("$[0].id", is(1)))
-                .andExpect(jsonPath("$[0].name", is("Test Product")));
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].id", is(1)))
+                .andExpect(jsonPath("$.items[0].name", is("Test Product")))
+                .andExpect(jsonPath("$.next").doesNotExist());
+
+        verify(productService, times(1)).getAllProducts(null, 50, null);
+    }
+
+    @Test
+    @WithMockUser
+    void getAllProducts_WithCursor_ShouldPassCursorAndReturnNext() throws Exception {
+        List<ProductDTO> products = Arrays.asList(productDTO);
+        when(productService.getAllProducts("abc", 1, null)).thenReturn(new CursorPageDTO<>(products, "def"));
+
+        mockMvc.perform(get("/api/v1/products").param("after", "abc").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.next", is("def")));
+
+        verify(productService, times(1)).getAllProducts("abc", 1, null);
+    }
+
+    @Test
+    @WithMockUser
+    void getAllProducts_WithInvalidCursor_ShouldReturnBadRequest() throws Exception {
+        when(productService.getAllProducts("bogus", 50, null)).thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+        mockMvc.perform(get("/api/v1/products").param("after", "bogus"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("Invalid cursor")));
+    }
+
+    @Test
+    @WithMockUser
+    void getAllProducts_WithFields_ShouldLoadAndReturnOnlyThoseFields() throws Exception {
+        Set<ProductField> fields = EnumSet.of(ProductField.ID, ProductField.NAME, ProductField.PRICE);
+        ProductDTO narrow = new ProductDTO(1L, "Test Product", null, new BigDecimal("99.99"), null);
+        when(productService.getAllProducts(null, 7, fields)).thenReturn(new CursorPageDTO<>(List.of(narrow), null));
+
+        mockMvc.perform(get("/api/v1/products").param("limit", "7").param("fields", "name,price"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id", is(1)))
+                .andExpect(jsonPath("$.items[0].name", is("Test Product")))
+                .andExpect(jsonPath("$.items[0].price", is(99.99)))
+                .andExpect(jsonPath("$.items[0].description").doesNotExist())
+                .andExpect(jsonPath("$.items[0].quantityInStock").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser
+    void getAllProducts_WithUnknownField_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/products").param("fields", "name,colour"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("colour")));
+    }
+
+    @Test
+    @WithMockUser
+    void getProductById_WithFields_ShouldReturnOnlyThoseFields() throws Exception {
+        when(productService.getProductById(8L)).thenReturn(productDTO);
+
+        byte[] body = mockMvc.perform(get("/api/v1/products/8").param("fields", "quantityInStock").accept(SMILE))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        ProductDTO read = new ObjectMapper(new SmileFactory()).readValue(body, ProductDTO.class);
+        assertEquals(new ProductDTO(1L, null, null, null, 100), read);
+    }
+
+    @Test
+    @WithMockUser
+    void queryProducts_WithExplain_ShouldReturnProductsAndPlan() throws Exception {
+        ProductQuery query = new ProductQuery("Test", null, new BigDecimal("100.00"), 2, ProductSort.PRICE_DESC, 5);
+        ProductQueryPlanDTO plan = new ProductQueryPlanDTO("name-index", Map.of("name-index", 1L), 1,
+                List.of("name contains 'Test'"), List.of("price <= 100.00", "quantityInStock >= 2"), "-price");
+        when(productService.queryProducts(query, true, null))
+                .thenReturn(new ProductQueryResultDTO(List.of(productDTO), plan));
+
+        mockMvc.perform(get("/api/v1/products/query")
+                        .param("name", "Test")
+                        .param("maxPrice", "100.00")
+                        .param("minStock", "2")
+                        .param("sort", "-price")
+                        .param("limit", "5")
+                        .param("explain", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id", is(1)))
+                .andExpect(jsonPath("$.plan.access", is("name-index")))
+                .andExpect(jsonPath("$.plan.databaseFilters", hasSize(2)));
+    }
 
-        verify(productService, times(1)).getAllProducts();
+    @Test
+    @WithMockUser
+    void queryProducts_WithoutExplain_ShouldOmitPlan() throws Exception {
+        when(productService.queryProducts(new ProductQuery(null, null, null, 1, ProductSort.ID, 50), false, null))
+                .thenReturn(new ProductQueryResultDTO(List.of(productDTO), null));
+
+        mockMvc.perform(get("/api/v1/products/query").param("name", " ").param("minStock", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.plan").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser
+    void queryProducts_WithUnknownSort_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/products/query").param("sort", "stock"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("Unknown sort 'stock'")));
+    }
+
+    @Test
+    @WithMockUser
+    @SuppressWarnings("unchecked")
+    void exportProducts_ShouldStreamNewlineDelimitedJson() throws Exception {
+        ProductDTO second = new ProductDTO(2L, "Second Product", null, new BigDecimal("5.00"), 3);
+        doAnswer(invocation -> {
+            Consumer<ProductDTO> sink = invocation.getArgument(1);
+            sink.accept(productDTO);
+            sink.accept(second);
+            return null;
+        }).when(productService).exportProducts(isNull(), any(Consumer.class));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/products/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(productDTO, objectMapper.readValue(lines[0], ProductDTO.class));
+        assertEquals(second, objectMapper.readValue(lines[1], ProductDTO.class));
+    }
+
+    @Test
+    @WithMockUser
+    @SuppressWarnings("unchecked")
+    void exportProducts_WithFields_ShouldWriteOnlyThoseFields() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<ProductDTO> sink = invocation.getArgument(1);
+            sink.accept(new ProductDTO(9L, "Exported", null, null, null));
+            return null;
+        }).when(productService).exportProducts(eq(EnumSet.of(ProductField.ID, ProductField.NAME)), any(Consumer.class));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/products/export").param("fields", "name"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string("{\"id\":9,\"name\":\"Exported\"}\n"));
     }
 
     @Test
@@ -83,46 +257,146 @@ class ProductControllerTest {
         verify(productService, times(1)).getProductById(1L);
     }
 
+    @Test
+    @WithMockUser
+    void getProductById_WithSmileAccept_ShouldReturnSmile() throws Exception {
+        when(productService.getProductById(3L)).thenReturn(productDTO);
+
+        byte[] body = mockMvc.perform(get("/api/v1/products/3").accept(SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(SMILE))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertEquals(productDTO, new ObjectMapper(new SmileFactory()).readValue(body, ProductDTO.class));
+    }
+
+    @Test
+    @WithMockUser
+    void getProductById_ShouldUseDifferentETagPerFormat() throws Exception {
+        when(productService.getProductLastModified(6L)).thenReturn(LocalDateTime.of(2024, 5, 1, 10, 30, 15));
+
+        String jsonTag = mockMvc.perform(get("/api/v1/products/6"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String smileTag = mockMvc.perform(get("/api/v1/products/6").accept(SMILE))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertNotEquals(jsonTag, smileTag);
+        mockMvc.perform(get("/api/v1/products/6").accept(SMILE).header(HttpHeaders.IF_NONE_MATCH, jsonTag))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/products/6").accept(SMILE).header(HttpHeaders.IF_NONE_MATCH, smileTag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @WithMockUser
+    void getProductById_WithAnyAccept_ShouldDefaultToJson() throws Exception {
+        when(productService.getProductById(4L)).thenReturn(productDTO);
+
+        mockMvc.perform(get("/api/v1/products/4").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.id", is(1)));
+    }
+
+    @Test
+    @WithMockUser
+    void getProductById_WithCborAccept_ShouldReturnCbor() throws Exception {
+        when(productService.getProductById(5L)).thenReturn(productDTO);
+
+        byte[] body = mockMvc.perform(get("/api/v1/products/5").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertEquals(productDTO, new ObjectMapper(new CBORFactory()).readValue(body, ProductDTO.class));
+    }
+
+    @Test
+    @WithMockUser
+    void getProductById_WhenETagMatches_ShouldReturnNotModifiedWithoutLoading() throws Exception {
+        when(productService.getProductLastModified(2L)).thenReturn(LocalDateTime.of(2024, 5, 1, 10, 30, 15));
+
+        String etag = mockMvc.perform(get("/api/v1/products/2"))
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/v1/products/2").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(productService, times(1)).getProductById(2L);
+    }
+
+    @Test
+    @WithMockUser
+    void searchProductsByName_WhenCatalogUnchanged_ShouldReturnNotModified() throws Exception {
+        CatalogVersionDTO version = new CatalogVersionDTO(5, LocalDateTime.of(2024, 5, 1, 10, 30, 15));
+        when(productService.getCatalogVersion()).thenReturn(version);
+        when(productService.findProductsByName("Conditional", null, 50, null))
+                .thenReturn(new CursorPageDTO<>(List.of(productDTO), null));
+
+        MvcResult first = mockMvc.perform(get("/api/v1/products/search").param("name", "Conditional"))
+                .andExpect(status().isOk())
+                .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        String lastModified = first.getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+
+        mockMvc.perform(get("/api/v1/products/search").param("name", "Conditional")
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+                .andExpect(status().isNotModified());
+
+        version.setProductCount(4);
+        mockMvc.perform(get("/api/v1/products/search").param("name", "Conditional")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+
+        verify(productService, times(2)).findProductsByName("Conditional", null, 50, null);
+        when(productService.getCatalogVersion()).thenReturn(null);
+    }
+
     @Test
     @WithMockUser
     void searchProductsByName_ShouldReturnMatchingProducts() throws Exception {
         List<ProductDTO> products = Arrays.asList(productDTO);
-        when(productService.findProductsByName("Test")).thenReturn(products);
+        when(productService.findProductsByName("Test", null, 50, null)).thenReturn(new CursorPageDTO<>(products, null));
 
         mockMvc.perform(get("/api/v1/products/search").param("name", "Test"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(1)))
-                .andExpect(jsonPath("$[0].name", is("Test Product")));
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].name", is("Test Product")));
 
-        verify(productService, times(1)).findProductsByName("Test");
+        verify(productService, times(1)).findProductsByName("Test", null, 50, null);
     }
 
     @Test
     @WithMockUser
     void getProductsByMaxPrice_ShouldReturnMatchingProducts() throws Exception {
         List<ProductDTO> products = Arrays.asList(productDTO);
-        when(productService.findProductsByMaxPrice(new BigDecimal("100.00"))).thenReturn(products);
+        when(productService.findProductsByMaxPrice(new BigDecimal("100.00"), null, 50, null))
+                .thenReturn(new CursorPageDTO<>(products, null));
 
         mockMvc.perform(get("/api/v1/products/price").param("maxPrice", "100.00"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(1)))
-                .andExpect(jsonPath("$[0].price", is(99.99)));
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].price", is(99.99)));
 
-        verify(productService, times(1)).findProductsByMaxPrice(new BigDecimal("100.00"));
+        verify(productService, times(1)).findProductsByMaxPrice(new BigDecimal("100.00"), null, 50, null);
     }
 
     @Test
     @WithMockUser
     void getProductsInStock_ShouldReturnInStockProducts() throws Exception {
         List<ProductDTO> products = Arrays.asList(productDTO);
-        when(productService.findProductsInStock()).thenReturn(products);
+        when(productService.findProductsInStock(null, 50, null)).thenReturn(new CursorPageDTO<>(products, null));
 
         mockMvc.perform(get("/api/v1/products/in-stock"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(1)))
-                .andExpect(jsonPath("$[0].quantityInStock", is(100)));
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].quantityInStock", is(100)));
 
-        verify(productService, times(1)).findProductsInStock();
+        verify(productService, times(1)).findProductsInStock(null, 50, null);
     }
 
     @Test
@@ -140,6 +414,77 @@ class ProductControllerTest {
         verify(productService, times(1)).createProduct(any(ProductDTO.class));
     }
 
+    @Test
+    @WithMockUser
+    @SuppressWarnings("unchecked")
+    void createProducts_ShouldReturnCreatedIdsInOrder() throws Exception {
+        ProductDTO second = new ProductDTO(null, "Second Product", null, new BigDecimal("5.00"), 3);
+        when(productService.createProducts(any(List.class))).thenReturn(List.of(7L, 8L));
+
+        mockMvc.perform(post("/api/v1/products/bulk")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(productDTO, second))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$", contains(7, 8)));
+
+        verify(productService, times(1)).createProducts(List.of(productDTO, second));
+    }
+
+    @Test
+    @WithMockUser
+    void createProducts_WithInvalidItem_ShouldReportItsIndexAndCreateNothing() throws Exception {
+        ProductDTO invalid = new ProductDTO(null, "", null, new BigDecimal("-1.00"), 3);
+
+        mockMvc.perform(post("/api/v1/products/bulk")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(productDTO, invalid))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.validationErrors['[1].name']", is("Product name is required")))
+                .andExpect(jsonPath("$.validationErrors['[1].price']", is("Price must be positive")));
+
+        verify(productService, never()).createProducts(List.of(productDTO, invalid));
+    }
+
+    @Test
+    @WithMockUser
+    void reserveStock_ShouldReturnCreatedReservation() throws Exception {
+        ReservationDTO reservation = new ReservationDTO("r-1", 1L, 2, LocalDateTime.of(2024, 5, 1, 10, 45));
+        when(productService.reserveStock(1L, 2)).thenReturn(reservation);
+
+        mockMvc.perform(post("/api/v1/products/1/reservations")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"quantity\": 2}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id", is("r-1")))
+                .andExpect(jsonPath("$.quantity", is(2)));
+    }
+
+    @Test
+    @WithMockUser
+    void reserveStock_WhenStockInsufficient_ShouldReturnConflict() throws Exception {
+        when(productService.reserveStock(1L, 500))
+                .thenThrow(new InsufficientStockException("Insufficient stock for product with id: 1"));
+
+        mockMvc.perform(post("/api/v1/products/1/reservations")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"quantity\": 500}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message", is("Insufficient stock for product with id: 1")));
+    }
+
+    @Test
+    @WithMockUser
+    void releaseReservation_ShouldReturnNoContent() throws Exception {
+        mockMvc.perform(delete("/api/v1/products/reservations/r-1").with(csrf()))
+                .andExpect(status().isNoContent());
+
+        verify(productService, times(1)).releaseReservation("r-1");
+    }
+
     @Test
     @WithMockUser
     void updateProduct_ShouldReturnUpdatedProduct() throws Exception {
@@ -2,8 +2,11 @@ package com.example.GeneralWebProject.controller;
 
 
 
+import com.example.GeneralWebProject.cache.ProductCache;
+import com.example.GeneralWebProject.security.AccessTokenService;
 import com.example.GeneralWebProject.service.ProductService;
 import com.example.GeneralWebProject.service.UserService;
+import com.example.GeneralWebProject.stock.HotStockManager;
 import org.mockito.Mockito;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
@@ -30,6 +33,24 @@ public class TestControllerConfig {
         return Mockito.mock(ProductService.class);
     }
 
+    @Bean
+    @Primary
+    public ProductCache productCache() {
+        return Mockito.mock(ProductCache.class);
+    }
+
+    @Bean
+    @Primary
+    public HotStockManager hotStockManager() {
+        return Mockito.mock(HotStockManager.class);
+    }
+
+    @Bean
+    @Primary
+    public AccessTokenService accessTokenService() {
+        return Mockito.mock(AccessTokenService.class);
+    }
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
@@ -1,8 +1,10 @@
 // File: src/test/java/com/example/webapp/controller/UserControllerTest.java
 package com.example.GeneralWebProject.controller;
 
+import com.example.GeneralWebProject.dto.UserAvailabilityDTO;
 import com.example.GeneralWebProject.dto.UserCreateDTO;
 import com.example.GeneralWebProject.dto.UserDTO;
+import com.example.GeneralWebProject.dto.UserField;
 import com.example.GeneralWebProject.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,6 +18,7 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
 
 import static org.hamcrest.Matchers.*;
@@ -68,7 +71,7 @@ class UserControllerTest {
     @WithMockUser
     void getAllUsers_ShouldReturnListOfUsers() throws Exception {
         List<UserDTO> users = Arrays.asList(userDTO);
-        when(userService.getAllUsers()).thenReturn(users);
+        when(userService.getAllUsers(null)).thenReturn(users);
 
         mockMvc.perform(get("/api/v1/users"))
                 .andExpect(status().isOk())
@@ -76,33 +79,68 @@ class UserControllerTest {
                 .andExpect(jsonPath("$[0].id", is(1)))
                 .andExpect(jsonPath("$[0].username", is("testuser")));
 
-        verify(userService, times(1)).getAllUsers();
+        verify(userService, times(1)).getAllUsers(null);
     }
 
     @Test
     @WithMockUser
     void getUserById_ShouldReturnUser() throws Exception {
-        when(userService.getUserById(1L)).thenReturn(userDTO);
+        when(userService.getUserById(1L, null)).thenReturn(userDTO);
 
         mockMvc.perform(get("/api/v1/users/1"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id", is(1)))
                 .andExpect(jsonPath("$.username", is("testuser")));
 
-        verify(userService, times(1)).getUserById(1L);
+        verify(userService, times(1)).getUserById(1L, null);
     }
 
     @Test
     @WithMockUser
     void getUserByUsername_ShouldReturnUser() throws Exception {
-        when(userService.getUserByUsername("testuser")).thenReturn(userDTO);
+        when(userService.getUserByUsername("testuser", null)).thenReturn(userDTO);
 
         mockMvc.perform(get("/api/v1/users/username/testuser"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id", is(1)))
                 .andExpect(jsonPath("$.username", is("testuser")));
 
-        verify(userService, times(1)).getUserByUsername("testuser");
+        verify(userService, times(1)).getUserByUsername("testuser", null);
+    }
+
+    @Test
+    @WithMockUser
+    void getUserById_WithFields_ShouldLoadAndReturnOnlyThoseFields() throws Exception {
+        UserDTO narrow = new UserDTO();
+        narrow.setId(2L);
+        narrow.setEmail("narrow@example.com");
+        when(userService.getUserById(2L, EnumSet.of(UserField.ID, UserField.EMAIL))).thenReturn(narrow);
+
+        mockMvc.perform(get("/api/v1/users/2").param("fields", "email"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"id\":2,\"email\":\"narrow@example.com\"}", true));
+    }
+
+    @Test
+    @WithMockUser
+    void getUserById_WithNoFields_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/users/3").param("fields", " , "))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser
+    void checkAvailability_ShouldReturnAvailability() throws Exception {
+        when(userService.checkAvailability("newuser", null))
+                .thenReturn(new UserAvailabilityDTO("newuser", true, null, null));
+
+        mockMvc.perform(get("/api/v1/users/availability").param("username", "newuser"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username", is("newuser")))
+                .andExpect(jsonPath("$.usernameAvailable", is(true)))
+                .andExpect(jsonPath("$.emailAvailable", nullValue()));
+
+        verify(userService, times(1)).checkAvailability("newuser", null);
     }
 
     @Test
@@ -0,0 +1,83 @@
+package com.example.GeneralWebProject.index;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for CountingBloomFilter.
+ */
+class CountingBloomFilterTest {
+
+    @Test
+    void mightContain_ShouldNeverMissAddedKeys() {
+        CountingBloomFilter filter = new CountingBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("user" + i);
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("user" + i));
+        }
+    }
+
+    @Test
+    void mightContain_ShouldKeepFalsePositivesNearConfiguredRate() {
+        CountingBloomFilter filter = new CountingBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("user" + i + "@example.com");
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("other" + i + "@example.com")) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < 2_000, "false positive rate was " + falsePositives / 100_000.0);
+    }
+
+    @Test
+    void remove_ShouldForgetKeyButKeepOthers() {
+        CountingBloomFilter filter = new CountingBloomFilter(1_000, 0.01);
+        for (int i = 0; i < 1_000; i++) {
+            filter.add("user" + i);
+        }
+
+        filter.remove("user7");
+
+        assertFalse(filter.mightContain("user7"));
+        for (int i = 0; i < 1_000; i++) {
+            if (i != 7) {
+                assertTrue(filter.mightContain("user" + i));
+            }
+        }
+    }
+
+    @Test
+    void remove_WhenKeyWasAddedTwice_ShouldKeepItUntilRemovedTwice() {
+        CountingBloomFilter filter = new CountingBloomFilter(100, 0.01);
+        filter.add("john.doe");
+        filter.add("john.doe");
+
+        filter.remove("john.doe");
+        assertTrue(filter.mightContain("john.doe"));
+
+        filter.remove("john.doe");
+        assertFalse(filter.mightContain("john.doe"));
+    }
+
+    @Test
+    void add_WhenCountersSaturate_ShouldNotWrapAround() {
+        CountingBloomFilter filter = new CountingBloomFilter(100, 0.01);
+        for (int i = 0; i < 20; i++) {
+            filter.add("hot");
+        }
+        for (int i = 0; i < 20; i++) {
+            filter.remove("hot");
+        }
+
+        assertTrue(filter.mightContain("hot"));
+    }
+}
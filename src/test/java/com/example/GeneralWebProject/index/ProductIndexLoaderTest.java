@@ -0,0 +1,148 @@
+package com.example.GeneralWebProject.index;
+
+import com.example.GeneralWebProject.repository.ProductIndexView;
+import com.example.GeneralWebProject.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for ProductIndexLoader.
+ */
+@ExtendWith(MockitoExtension.class)
+class ProductIndexLoaderTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ProductNameIndex nameIndex;
+    private ProductPriceIndex priceIndex;
+    private ProductStockIndex stockIndex;
+    private ProductIndexLoader loader;
+
+    @BeforeEach
+    void setUp() {
+        nameIndex = new ProductNameIndex();
+        priceIndex = new ProductPriceIndex();
+        stockIndex = new ProductStockIndex();
+        loader = new ProductIndexLoader(productRepository, nameIndex, priceIndex, stockIndex, transactionManager);
+    }
+
+    @Test
+    void load_WhenWritesCommitDuringStream_ShouldKeepCommittedRows() {
+        // Product 1 is renamed and sold out and product 2 deleted after the stream read them, and the writes'
+        // refreshes run before the stream applies the stale rows
+        ProductIndexView fresh = row(1L, "Fresh Cable", "2.00", 0);
+        when(productRepository.findIndexViewsByIdIn(List.of(1L, 2L))).thenReturn(List.of(fresh));
+        when(productRepository.streamIndexViewsByOrderByIdAsc()).thenReturn(
+                Stream.of(row(1L, "Stale Cable", "1.00", 5), row(2L, "Gone Cable", "3.00", 5))
+                        .peek(row -> {
+                            if (row.getId() == 1L) {
+                                loader.refresh(List.of(1L, 2L));
+                            }
+                        }));
+
+        loader.load();
+
+        assertTrue(nameIndex.isReady());
+        assertArrayEquals(new int[]{1}, nameIndex.search("cable"));
+        assertArrayEquals(new int[]{1}, nameIndex.search("fresh"));
+        assertArrayEquals(new int[0], nameIndex.search("stale"));
+        assertArrayEquals(new int[]{1}, priceIndex.range(Long.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE, 0L, 10)
+                .getIds());
+        assertEquals(200L, priceIndex.range(Long.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE, 0L, 10).getCents()[0]);
+        assertEquals(0, stockIndex.cardinality());
+    }
+
+    @Test
+    void refresh_AfterLoad_ShouldApplyRowsAndRemoveDeletedProducts() {
+        when(productRepository.streamIndexViewsByOrderByIdAsc()).thenReturn(
+                Stream.of(row(1L, "Laptop", "999.00", 3), row(2L, "Mouse", "9.00", 1)));
+        loader.load();
+        when(productRepository.findIndexViewsByIdIn(List.of(1L, 2L)))
+                .thenReturn(List.of(row(1L, "Laptop", "999.00", 0)));
+
+        loader.refresh(List.of(1L, 2L));
+
+        assertEquals(1, nameIndex.size());
+        assertFalse(stockIndex.contains(1L));
+        assertFalse(stockIndex.contains(2L));
+        verify(productRepository, times(1)).findIndexViewsByIdIn(anyList());
+    }
+
+    @Test
+    void refresh_WhenReserveAndReleaseRefreshConcurrently_ShouldApplyLatestCommittedStock() throws Exception {
+        // A reservation took the last unit and a release then returned it; the reservation's refresh reads
+        // the sold-out row first and is slow to apply it, while the release's refresh reads the restocked row
+        CountDownLatch reserveRead = new CountDownLatch(1);
+        CountDownLatch finishReserve = new CountDownLatch(1);
+        AtomicInteger reads = new AtomicInteger();
+        when(productRepository.findIndexViewsByIdIn(List.of(1L))).thenAnswer(invocation -> {
+            if (reads.getAndIncrement() == 0) {
+                reserveRead.countDown();
+                finishReserve.await();
+                return List.of(row(1L, "Cable", "1.00", 0));
+            }
+            return List.of(row(1L, "Cable", "1.00", 1));
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> reserve = executor.submit(() -> loader.refresh(List.of(1L)));
+            assertTrue(reserveRead.await(5, TimeUnit.SECONDS));
+            Future<?> release = executor.submit(() -> loader.refresh(List.of(1L)));
+            // Give the release's refresh the chance to overtake the reservation's
+            Thread.sleep(100);
+            finishReserve.countDown();
+            reserve.get(5, TimeUnit.SECONDS);
+            release.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(stockIndex.contains(1L));
+        assertEquals(2, reads.get());
+    }
+
+    private static ProductIndexView row(Long id, String name, String price, int quantityInStock) {
+        return new ProductIndexView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public BigDecimal getPrice() {
+                return new BigDecimal(price);
+            }
+
+            @Override
+            public Integer getQuantityInStock() {
+                return quantityInStock;
+            }
+        };
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.GeneralWebProject.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for ProductNameIndex.
+ */
+class ProductNameIndexTest {
+
+    private ProductNameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductNameIndex();
+        index.put(1L, "Laptop");
+        index.put(2L, "Gaming Laptop");
+        index.put(3L, "Smartphone");
+        index.put(4L, "Laptop Stand");
+    }
+
+    @Test
+    void search_ShouldMatchSubstringIgnoringCase() {
+        assertArrayEquals(new int[]{1, 2, 4}, index.search("LaPtOp"));
+        assertArrayEquals(new int[]{3}, index.search("phone"));
+        assertArrayEquals(new int[]{2}, index.search("ming lap"));
+    }
+
+    @Test
+    void search_ShouldVerifyCandidatesAgainstName() {
+        index.put(5L, "top lap");
+
+        // Both "lap" and "top" occur in "top lap" but "laptop" does not
+        assertArrayEquals(new int[]{1, 2, 4}, index.search("laptop"));
+    }
+
+    @Test
+    void search_WithLimit_ShouldReturnFirstMatches() {
+        assertArrayEquals(new int[]{1, 2}, index.search("laptop", 2));
+        assertArrayEquals(new int[]{3}, index.search("phone", 2));
+    }
+
+    @Test
+    void search_AfterCursor_ShouldReturnFirstMatchesPastIt() {
+        assertArrayEquals(new int[]{2, 4}, index.search("laptop", 1L, 5));
+        assertArrayEquals(new int[]{4}, index.search("laptop", 2L, 1));
+        assertArrayEquals(new int[]{4}, index.search("laptop", 3L, 5));
+        assertEquals(0, index.search("laptop", 4L, 5).length);
+        assertNull(index.search("la", 1L, 5));
+    }
+
+    @Test
+    void search_WhenFragmentShorterThanGram_ShouldReturnNull() {
+        assertNull(index.search("la"));
+        assertNull(index.search(""));
+    }
+
+    @Test
+    void search_WhenNoMatch_ShouldReturnEmpty() {
+        assertEquals(0, index.search("tablet").length);
+    }
+
+    @Test
+    void estimate_ShouldBoundMatchesByShortestPostingList() {
+        assertEquals(3, index.estimate("laptop"));
+        assertEquals(1, index.estimate("ming lap"));
+        assertEquals(0, index.estimate("tablet"));
+        assertEquals(-1, index.estimate("la"));
+    }
+
+    @Test
+    void retainMatching_ShouldKeepCandidatesInOrder() {
+        assertArrayEquals(new int[]{4, 1}, index.retainMatching(new int[]{4, 3, 1, 99}, "LAP"));
+    }
+
+    @Test
+    void put_WhenNameChanges_ShouldReplaceOldGrams() {
+        index.put(3L, "Tablet");
+
+        assertEquals(0, index.search("phone").length);
+        assertArrayEquals(new int[]{3}, index.search("tab"));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void remove_ShouldDropProductFromResults() {
+        index.remove(2L);
+        index.remove(99L);
+
+        assertArrayEquals(new int[]{1, 4}, index.search("laptop"));
+        assertEquals(3, index.size());
+    }
+}
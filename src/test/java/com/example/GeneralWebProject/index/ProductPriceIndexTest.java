@@ -0,0 +1,116 @@
+package com.example.GeneralWebProject.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for ProductPriceIndex.
+ */
+class ProductPriceIndexTest {
+
+    private ProductPriceIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductPriceIndex();
+        index.put(1L, new BigDecimal("1299.99"));
+        index.put(2L, new BigDecimal("899.99"));
+        index.put(3L, new BigDecimal("249.99"));
+        index.put(4L, new BigDecimal("899.99"));
+        index.put(5L, new BigDecimal("19.99"));
+        index.markReady();
+    }
+
+    @Test
+    void range_ShouldReturnIdsOrderedByPriceThenId() {
+        ProductPriceIndex.Slice slice = index.range(Long.MIN_VALUE, 100000L, Long.MIN_VALUE, 0L, 10);
+
+        assertArrayEquals(new int[]{5, 3, 2, 4}, slice.getIds());
+        assertArrayEquals(new long[]{1999L, 24999L, 89999L, 89999L}, slice.getCents());
+        assertFalse(slice.hasMore());
+    }
+
+    @Test
+    void range_ShouldPageFromCursorAcrossPriceTies() {
+        ProductPriceIndex.Slice first = index.range(2000L, 100000L, Long.MIN_VALUE, 0L, 2);
+        ProductPriceIndex.Slice second = index.range(2000L, 100000L, 89999L, 2L, 2);
+
+        assertArrayEquals(new int[]{3, 2}, first.getIds());
+        assertTrue(first.hasMore());
+        assertArrayEquals(new int[]{4}, second.getIds());
+        assertFalse(second.hasMore());
+    }
+
+    @Test
+    void count_ShouldCountInclusiveRange() {
+        assertEquals(5, index.count(Long.MIN_VALUE, Long.MAX_VALUE));
+        assertEquals(3, index.count(24999L, 89999L));
+        assertEquals(0, index.count(30000L, 80000L));
+    }
+
+    @Test
+    void retainInRange_ShouldKeepCandidatesInOrder() {
+        assertArrayEquals(new int[]{4, 3, 2}, index.retainInRange(new int[]{4, 5, 3, 1, 2, 42}, 24999L, 89999L));
+    }
+
+    @Test
+    void put_AfterReady_ShouldRepriceAndInsert() {
+        index.put(1L, new BigDecimal("9.99"));
+        index.put(6L, new BigDecimal("250.00"));
+
+        ProductPriceIndex.Slice slice = index.range(Long.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE, 0L, 10);
+
+        assertArrayEquals(new int[]{1, 5, 3, 6, 2, 4}, slice.getIds());
+    }
+
+    @Test
+    void put_WhenRepricedUpward_ShouldMoveProductPastEqualPrices() {
+        index.put(5L, new BigDecimal("899.99"));
+        index.put(4L, new BigDecimal("899.99"));
+
+        ProductPriceIndex.Slice slice = index.range(Long.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE, 0L, 10);
+
+        assertArrayEquals(new int[]{3, 2, 4, 5, 1}, slice.getIds());
+        assertArrayEquals(new long[]{24999L, 89999L, 89999L, 89999L, 129999L}, slice.getCents());
+    }
+
+    @Test
+    void apply_ShouldAddRepriceAndRemoveInOneBatch() {
+        index.apply(Map.of(
+                        1L, new BigDecimal("19.99"),
+                        3L, new BigDecimal("2000.00"),
+                        4L, new BigDecimal("899.99"),
+                        6L, new BigDecimal("500.00")),
+                List.of(2L, 42L));
+
+        ProductPriceIndex.Slice slice = index.range(Long.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE, 0L, 10);
+
+        assertArrayEquals(new int[]{1, 5, 6, 4, 3}, slice.getIds());
+        assertArrayEquals(new long[]{1999L, 1999L, 50000L, 89999L, 200000L}, slice.getCents());
+        assertEquals(5, index.count(Long.MIN_VALUE, Long.MAX_VALUE));
+        assertArrayEquals(new int[]{6, 4}, index.retainInRange(new int[]{2, 6, 4}, 20000L, 100000L));
+    }
+
+    @Test
+    void remove_ShouldDropProduct() {
+        index.remove(2L);
+        index.remove(42L);
+
+        assertArrayEquals(new int[]{5, 3, 4, 1},
+                index.range(Long.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE, 0L, 10).getIds());
+    }
+
+    @Test
+    void toCents_ShouldRoundAsRequested() {
+        assertEquals(10000L, ProductPriceIndex.toCents(new BigDecimal("100.009"), RoundingMode.FLOOR));
+        assertEquals(10001L, ProductPriceIndex.toCents(new BigDecimal("100.005"), RoundingMode.HALF_UP));
+        assertEquals(new BigDecimal("100.01"), ProductPriceIndex.fromCents(10001L));
+    }
+}
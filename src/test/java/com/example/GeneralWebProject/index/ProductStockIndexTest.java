@@ -0,0 +1,58 @@
+package com.example.GeneralWebProject.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for ProductStockIndex.
+ */
+class ProductStockIndexTest {
+
+    private ProductStockIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductStockIndex();
+        index.put(1L, 10);
+        index.put(2L, 0);
+        index.put(3L, 5);
+        index.put(64L, 1);
+        index.put(200L, 7);
+        index.markReady();
+    }
+
+    @Test
+    void idsAfter_ShouldReturnInStockIdsInOrderAcrossWords() {
+        assertArrayEquals(new int[]{1, 3, 64, 200}, index.idsAfter(0L, 10));
+        assertArrayEquals(new int[]{64, 200}, index.idsAfter(3L, 10));
+        assertArrayEquals(new int[]{1, 3}, index.idsAfter(0L, 2));
+        assertArrayEquals(new int[0], index.idsAfter(200L, 10));
+        assertArrayEquals(new int[0], index.idsAfter(100_000L, 10));
+    }
+
+    @Test
+    void put_WhenStockRunsOut_ShouldClearBit() {
+        index.put(3L, 0);
+        index.put(2L, 4);
+
+        assertFalse(index.contains(3L));
+        assertTrue(index.contains(2L));
+        assertEquals(4, index.cardinality());
+    }
+
+    @Test
+    void clear_ShouldRemoveProductAndIgnoreUnknownIds() {
+        index.clear(64L);
+        index.clear(10_000L);
+
+        assertFalse(index.contains(64L));
+        assertArrayEquals(new int[]{1, 3, 200}, index.idsAfter(0L, 10));
+    }
+
+    @Test
+    void retainInStock_ShouldFilterCandidatesPreservingOrder() {
+        assertArrayEquals(new int[]{200, 3, 1}, index.retainInStock(new int[]{200, 2, 3, 99, 1}));
+    }
+}
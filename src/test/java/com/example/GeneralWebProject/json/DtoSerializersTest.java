@@ -0,0 +1,115 @@
+package com.example.GeneralWebProject.json;
+
+import com.example.GeneralWebProject.dto.ProductDTO;
+import com.example.GeneralWebProject.dto.ProductField;
+import com.example.GeneralWebProject.dto.UserDTO;
+import com.example.GeneralWebProject.exception.GlobalExceptionHandler.ErrorDetails;
+import com.example.GeneralWebProject.exception.GlobalExceptionHandler.ValidationErrorDetails;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.core.json.JsonWriteFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The DTO serializers must write exactly what Jackson's bean serializer writes.
+ */
+class DtoSerializersTest {
+
+    private static final List<String> DECIMALS = List.of("24.99", "0", "0.00", "0.05", "7", "100.10", "1E+3",
+            "0.000001", "0.0000001", "-3.50", "-0.5", "123456789012345678", "1234567890123456789.5",
+            "0.123456789012345678", "99999999.99");
+
+    private final ObjectMapper stock = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final ObjectMapper custom = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .modulesToInstall(module())
+            .build();
+
+    @Test
+    void productDTO_ShouldMatchBeanSerializer() throws Exception {
+        for (String decimal : DECIMALS) {
+            assertSame(new ProductDTO(42L, "Wireless \"Mouse\" é", "Line\nbreak",
+                    new BigDecimal(decimal), 150));
+        }
+        assertSame(new ProductDTO());
+        assertSame(List.of(new ProductDTO(1L, "A", null, new BigDecimal("1.50"), 1),
+                new ProductDTO(2L, "B", "b", new BigDecimal("2"), 2)));
+    }
+
+    @Test
+    void productDTO_WithNumbersAsStrings_ShouldMatchBeanSerializer() throws Exception {
+        ProductDTO product = new ProductDTO(42L, "Mouse", null, new BigDecimal("24.99"), 150);
+
+        assertEquals(stock.writer().with(JsonWriteFeature.WRITE_NUMBERS_AS_STRINGS).writeValueAsString(product),
+                custom.writer().with(JsonWriteFeature.WRITE_NUMBERS_AS_STRINGS).writeValueAsString(product));
+    }
+
+    @Test
+    void productDTO_WithFieldSelection_ShouldMatchFilteredBeanSerializer() throws Exception {
+        ProductDTO product = new ProductDTO(42L, "Mouse", null, new BigDecimal("24.99"), 150);
+        FilterProvider filters = FieldSelection.filters(EnumSet.of(ProductField.ID, ProductField.PRICE));
+        ObjectMapper filtered = stock.copy().addMixIn(ProductDTO.class, SelectedFields.class);
+
+        assertEquals("{\"id\":42,\"price\":24.99}", custom.writer(filters).writeValueAsString(product));
+        assertEquals(filtered.writer(filters).writeValueAsString(product),
+                custom.writer(filters).writeValueAsString(product));
+    }
+
+    @Test
+    void userDTO_ShouldMatchBeanSerializer() throws Exception {
+        assertSame(new UserDTO(7L, "jdoe", "Jane", "Doe", "jane.doe@example.com", true));
+        assertSame(new UserDTO());
+    }
+
+    @Test
+    void errorDetails_ShouldMatchBeanSerializer() throws Exception {
+        LocalDateTime timestamp = LocalDateTime.of(2024, 5, 1, 10, 30, 0, 123_000_000);
+        Map<String, String> errors = new LinkedHashMap<>();
+        errors.put("name", "Product name is required");
+        errors.put("[3].price", "Price must be positive");
+
+        assertSame(new ErrorDetails(timestamp, 404, "Not Found", "Product not found with id: 1", "uri=/x"));
+        assertSame(new ErrorDetails(null, 500, null, null, null));
+        assertSame(new ValidationErrorDetails(timestamp, 400, "Validation Error", "Input validation failed",
+                "uri=/y", errors));
+    }
+
+    @Test
+    void binaryFormat_ShouldRoundTrip() throws Exception {
+        ObjectMapper smile = new ObjectMapper(new SmileFactory()).registerModule(module());
+        ProductDTO product = new ProductDTO(42L, "Mouse", "desc", new BigDecimal("24.99"), 150);
+
+        assertEquals(product, smile.readValue(smile.writeValueAsBytes(product), ProductDTO.class));
+    }
+
+    private void assertSame(Object value) throws Exception {
+        assertEquals(stock.writeValueAsString(value), custom.writeValueAsString(value));
+    }
+
+    @JsonFilter(FieldSelection.FILTER_ID)
+    private interface SelectedFields {
+    }
+
+    private static SimpleModule module() {
+        return new SimpleModule()
+                .addSerializer(new ProductDTOSerializer())
+                .addSerializer(new UserDTOSerializer())
+                .addSerializer(new ErrorDetailsSerializer());
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.GeneralWebProject.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for MethodTimingInterceptor.
+ */
+class MethodTimingInterceptorTest {
+
+    private MeterRegistry registry;
+    private Catalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("registry", registry);
+        MethodTimingInterceptor interceptor = new MethodTimingInterceptor("app.test.calls",
+                List.of(Catalog.class), beanFactory.getBeanProvider(MeterRegistry.class));
+
+        ProxyFactory proxyFactory = new ProxyFactory(new FixedCatalog());
+        proxyFactory.addInterface(Catalog.class);
+        proxyFactory.addAdvice(interceptor);
+        catalog = (Catalog) proxyFactory.getProxy();
+    }
+
+    @Test
+    void invoke_ShouldRecordSuccessfulCallsPerMethod() {
+        catalog.find(1);
+        catalog.find(2);
+        catalog.count();
+
+        assertEquals(2, timer("find", "success").count());
+        assertEquals(1, timer("count", "success").count());
+        assertEquals(0, timer("find", "error").count());
+    }
+
+    @Test
+    void invoke_ShouldRecordFailedCallsAndRethrow() {
+        assertThrows(IllegalArgumentException.class, () -> catalog.find(-1));
+
+        assertEquals(1, timer("find", "error").count());
+        assertEquals(0, timer("find", "success").count());
+    }
+
+    @Test
+    void instruments_ShouldMatchImplementationsOfInstrumentedInterfaces() {
+        MethodTimingInterceptor interceptor = new MethodTimingInterceptor("app.test.calls",
+                List.of(Catalog.class), new DefaultListableBeanFactory().getBeanProvider(MeterRegistry.class));
+
+        assertTrue(interceptor.instruments(FixedCatalog.class));
+        assertFalse(interceptor.instruments(String.class));
+    }
+
+    private Timer timer(String method, String outcome) {
+        return registry.get("app.test.calls")
+                .tag("component", "Catalog")
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .timer();
+    }
+
+    interface Catalog {
+        String find(int id);
+
+        int count();
+    }
+
+    static class FixedCatalog implements Catalog {
+
+        @Override
+        public String find(int id) {
+            if (id < 0) {
+                throw new IllegalArgumentException("Negative id");
+            }
+            return "product-" + id;
+        }
+
+        @Override
+        public int count() {
+            return 3;
+        }
+    }
+}
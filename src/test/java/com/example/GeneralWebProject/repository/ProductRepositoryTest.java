@@ -3,6 +3,11 @@ package com.example.GeneralWebProject.repository;
 // File: src/test/java/com/example/webapp/repository/ProductRepositoryTest.java
 
 
+import com.example.GeneralWebProject.dto.CatalogVersionDTO;
+import com.example.GeneralWebProject.dto.ProductDTO;
+import com.example.GeneralWebProject.dto.ProductField;
+import com.example.GeneralWebProject.dto.ProductQuery;
+import com.example.GeneralWebProject.dto.ProductSort;
 import com.example.GeneralWebProject.model.Product;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,7 +16,11 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -21,6 +30,8 @@ import static org.junit.jupiter.api.Assertions.*;
 @DataJpaTest
 class ProductRepositoryTest {
 
+    private static final Set<ProductField> ALL_FIELDS = EnumSet.allOf(ProductField.class);
+
     @Autowired
     private TestEntityManager entityManager;
 
@@ -28,121 +39,217 @@ class ProductRepositoryTest {
     private ProductRepository productRepository;
 
     @Test
-    void findByNameContainingIgnoreCase_ShouldReturnMatchingProducts() {
-        // Create test products
-        Product product1 = new Product();
-        product1.setName("Laptop");
-        product1.setDescription("High-performance laptop");
-        product1.setPrice(new BigDecimal("1299.99"));
-        product1.setQuantityInStock(50);
-        product1.setCreatedAt(LocalDateTime.now());
-        product1.setUpdatedAt(LocalDateTime.now());
-
-        Product product2 = new Product();
-        product2.setName("Gaming Laptop");
-        product2.setDescription("High-performance gaming laptop");
-        product2.setPrice(new BigDecimal("1899.99"));
-        product2.setQuantityInStock(30);
-        product2.setCreatedAt(LocalDateTime.now());
-        product2.setUpdatedAt(LocalDateTime.now());
-
-        Product product3 = new Product();
-        product3.setName("Smartphone");
-        product3.setDescription("Latest smartphone model");
-        product3.setPrice(new BigDecimal("899.99"));
-        product3.setQuantityInStock(100);
-        product3.setCreatedAt(LocalDateTime.now());
-        product3.setUpdatedAt(LocalDateTime.now());
-
-        // Save products to DB
+    void findPageAfterId_ShouldSeekPastGivenId() {
+        Product product1 = newProduct("Seek One", "1.00");
+        Product product2 = newProduct("Seek Two", "2.00");
+        Product product3 = newProduct("Seek Three", "3.00");
+
         entityManager.persist(product1);
         entityManager.persist(product2);
         entityManager.persist(product3);
         entityManager.flush();
 
-        // Test findByNameContainingIgnoreCase with lowercase search
-        List<Product> laptops = productRepository.findByNameContainingIgnoreCase("laptop");
+        List<ProductDTO> firstPage = productRepository.findPageAfterId(ALL_FIELDS, product1.getId() - 1, 2);
+        List<ProductDTO> secondPage = productRepository.findPageAfterId(
+                ALL_FIELDS, firstPage.get(firstPage.size() - 1).getId(), 2);
+
+        assertEquals(2, firstPage.size());
+        assertEquals(product1.getId(), firstPage.get(0).getId());
+        assertEquals(product2.getId(), firstPage.get(1).getId());
+        assertEquals(product3.getId(), secondPage.get(0).getId());
+        assertEquals("Seek Two", firstPage.get(1).getName());
+        assertEquals(new BigDecimal("2.00"), firstPage.get(1).getPrice());
+    }
 
-        assertEquals(2, laptops.size());
-        assertTrue(laptops.stream().anyMatch(p -> p.getName().equals("Laptop")));
-        assertTrue(laptops.stream().anyMatch(p -> p.getName().equals("Gaming Laptop")));
+    @Test
+    void findPageByNameAfterId_ShouldMatchCaseInsensitivelyAndTreatWildcardsLiterally() {
+        Product percent = newProduct("100% Cotton Shirt", "20.00");
+        Product plain = newProduct("1000 Cotton Shirts", "30.00");
+
+        entityManager.persist(percent);
+        entityManager.persist(plain);
+        entityManager.flush();
 
-        // Test findByNameContainingIgnoreCase with mixed case search
-        List<Product> laptopsUppercase = productRepository.findByNameContainingIgnoreCase("LaPtOp");
+        List<ProductDTO> matches = productRepository.findPageByNameAfterId(ALL_FIELDS, "0% cOTTON", 0L, 10);
 
-        assertEquals(2, laptopsUppercase.size());
+        assertEquals(1, matches.size());
+        assertEquals(percent.getId(), matches.get(0).getId());
     }
 
     @Test
-    void findByPriceLessThanEqual_ShouldReturnProductsWithPriceLessThanOrEqual() {
-        // Create test products
-        Product product1 = new Product();
-        product1.setName("Budget Phone");
-        product1.setDescription("Affordable smartphone");
-        product1.setPrice(new BigDecimal("299.99"));
-        product1.setQuantityInStock(200);
-        product1.setCreatedAt(LocalDateTime.now());
-        product1.setUpdatedAt(LocalDateTime.now());
-
-        Product product2 = new Product();
-        product2.setName("Mid-range Phone");
-        product2.setDescription("Good value smartphone");
-        product2.setPrice(new BigDecimal("499.99"));
-        product2.setQuantityInStock(150);
-        product2.setCreatedAt(LocalDateTime.now());
-        product2.setUpdatedAt(LocalDateTime.now());
-
-        Product product3 = new Product();
-        product3.setName("Premium Phone");
-        product3.setDescription("High-end smartphone");
-        product3.setPrice(new BigDecimal("999.99"));
-        product3.setQuantityInStock(75);
-        product3.setCreatedAt(LocalDateTime.now());
-        product3.setUpdatedAt(LocalDateTime.now());
-
-        // Save products to DB
-        entityManager.persist(product1);
-        entityManager.persist(product2);
-        entityManager.persist(product3);
+    void findPageAfterId_WithFields_ShouldLoadOnlyThoseFields() {
+        Product product = newProduct("Narrow", "7.50");
+        Product wildcard = newProduct("Narrow_Wild", "8.50");
+        entityManager.persist(product);
+        entityManager.persist(wildcard);
         entityManager.flush();
+        Set<ProductField> fields = EnumSet.of(ProductField.ID, ProductField.PRICE);
+
+        List<ProductDTO> page = productRepository.findPageAfterId(fields, product.getId() - 1, 1);
+        List<ProductDTO> byName = productRepository.findPageByNameAfterId(fields, "w_w", 0L, 10);
+        List<ProductDTO> exported;
+        try (Stream<ProductDTO> products = productRepository.streamAllDTOsByOrderByIdAsc(fields)) {
+            exported = products.filter(dto -> dto.getId().equals(product.getId())).toList();
+        }
+
+        assertEquals(List.of(new ProductDTO(product.getId(), null, null, new BigDecimal("7.50"), null)), page);
+        assertEquals(List.of(wildcard.getId()), byName.stream().map(ProductDTO::getId).toList());
+        assertEquals(page, exported);
+        assertEquals(page, productRepository.findAllDTOsByIdIn(fields, List.of(product.getId(), -1L)));
+    }
 
-        // Test findByPriceLessThanEqual
-        List<Product> affordablePhones = productRepository.findByPriceLessThanEqual(new BigDecimal("500.00"));
+    @Test
+    void findDetailById_ShouldProjectRowWithModificationTime() {
+        Product product = newProduct("Detailed", "4.00");
+        entityManager.persist(product);
+        entityManager.flush();
+        entityManager.clear();
 
-        assertEquals(2, affordablePhones.size());
-        assertTrue(affordablePhones.stream().anyMatch(p -> p.getName().equals("Budget Phone")));
-        assertTrue(affordablePhones.stream().anyMatch(p -> p.getName().equals("Mid-range Phone")));
-        assertFalse(affordablePhones.stream().anyMatch(p -> p.getName().equals("Premium Phone")));
+        ProductDetailView detail = productRepository.findDetailById(product.getId()).orElseThrow();
+
+        assertEquals("Detailed", detail.toDTO().getName());
+        assertEquals(entityManager.find(Product.class, product.getId()).getUpdatedAt(), detail.updatedAt());
+        assertTrue(productRepository.findDetailById(-1L).isEmpty());
+        assertEquals(List.of(product.getId()),
+                productRepository.findAllDTOsByIdIn(ALL_FIELDS, List.of(product.getId(), -1L)).stream()
+                        .map(ProductDTO::getId)
+                        .toList());
     }
 
     @Test
-    void findByQuantityInStockGreaterThan_ShouldReturnProductsInStock() {
-        // Create test products
-        Product product1 = new Product();
-        product1.setName("In Stock Item");
-        product1.setDescription("Item with stock");
-        product1.setPrice(new BigDecimal("99.99"));
-        product1.setQuantityInStock(10);
-        product1.setCreatedAt(LocalDateTime.now());
-        product1.setUpdatedAt(LocalDateTime.now());
-
-        Product product2 = new Product();
-        product2.setName("Out of Stock Item");
-        product2.setDescription("Item without stock");
-        product2.setPrice(new BigDecimal("79.99"));
-        product2.setQuantityInStock(0);
-        product2.setCreatedAt(LocalDateTime.now());
-        product2.setUpdatedAt(LocalDateTime.now());
-
-        // Save products to DB
-        entityManager.persist(product1);
-        entityManager.persist(product2);
+    void findPageByMaxPrice_ShouldSeekPastPriceAndIdTies() {
+        Product cheap = newProduct("Cheap", "1.00");
+        Product tieA = newProduct("Tie A", "2.00");
+        Product tieB = newProduct("Tie B", "2.00");
+        Product pricey = newProduct("Pricey", "5.00");
+
+        entityManager.persist(cheap);
+        entityManager.persist(tieA);
+        entityManager.persist(tieB);
+        entityManager.persist(pricey);
+        entityManager.flush();
+
+        BigDecimal maxPrice = new BigDecimal("2.00");
+        List<ProductDTO> firstPage = productRepository.findPageByMaxPrice(ALL_FIELDS, maxPrice, null, 0L, 2);
+        List<ProductDTO> secondPage = productRepository.findPageByMaxPrice(
+                ALL_FIELDS, maxPrice, tieA.getPrice(), tieA.getId(), 2);
+
+        assertEquals(2, firstPage.size());
+        assertEquals(cheap.getId(), firstPage.get(0).getId());
+        assertEquals(tieA.getId(), firstPage.get(1).getId());
+        assertEquals(1, secondPage.size());
+        assertEquals(tieB.getId(), secondPage.get(0).getId());
+    }
+
+    @Test
+    void findPageByMaxPrice_WithFields_ShouldSeekPastPriceAndIdTies() {
+        Product tieA = newProduct("Narrow Tie A", "0.02");
+        Product tieB = newProduct("Narrow Tie B", "0.02");
+        entityManager.persist(tieA);
+        entityManager.persist(tieB);
         entityManager.flush();
+        Set<ProductField> fields = EnumSet.of(ProductField.ID, ProductField.PRICE);
+        BigDecimal maxPrice = new BigDecimal("0.02");
+
+        List<ProductDTO> firstPage = productRepository.findPageByMaxPrice(fields, maxPrice, null, 0L, 1);
+        List<ProductDTO> secondPage = productRepository.findPageByMaxPrice(
+                fields, maxPrice, firstPage.get(0).getPrice(), firstPage.get(0).getId(), 1);
+
+        assertEquals(tieA.getId(), firstPage.get(0).getId());
+        assertEquals(tieB.getId(), secondPage.get(0).getId());
+        assertNull(secondPage.get(0).getName());
+    }
 
-        // Test findByQuantityInStockGreaterThan
-        List<Product> inStockItems = productRepository.findByQuantityInStockGreaterThan(0);
+    @Test
+    void findByQuery_ShouldApplyEveryPredicateSortAndLimit() {
+        Product cheap = newProduct("Query Cable", "0.03");
+        Product pricey = newProduct("Query Cable XL", "0.05");
+        Product lowStock = newProduct("Query Cable Mini", "0.04");
+        lowStock.setQuantityInStock(1);
+        Product other = newProduct("Query Plug", "0.04");
+        entityManager.persist(cheap);
+        entityManager.persist(pricey);
+        entityManager.persist(lowStock);
+        entityManager.persist(other);
+        entityManager.flush();
+        Set<ProductField> fields = EnumSet.of(ProductField.ID, ProductField.NAME);
+
+        List<ProductDTO> byPrice = productRepository.findByQuery(fields, new ProductQuery(
+                "query cable", new BigDecimal("0.01"), new BigDecimal("0.05"), 2, ProductSort.PRICE_DESC, 10), null);
+        List<ProductDTO> limited = productRepository.findByQuery(fields, new ProductQuery(
+                null, null, null, null, ProductSort.NAME, 1), List.of(other.getId(), pricey.getId()));
+
+        assertEquals(List.of(pricey.getId(), cheap.getId()), byPrice.stream().map(ProductDTO::getId).toList());
+        assertNull(byPrice.get(0).getPrice());
+        assertEquals(List.of(pricey.getId()), limited.stream().map(ProductDTO::getId).toList());
+    }
+
+    @Test
+    void findCatalogVersion_ShouldBeAnsweredWithoutScanningProducts() {
+        String plan = String.valueOf(entityManager.getEntityManager()
+                .createNativeQuery("explain select count(*), max(updated_at) from products")
+                .getSingleResult());
+
+        assertTrue(plan.contains("direct lookup"), plan);
+    }
+
+    @Test
+    void findCatalogVersion_ShouldChangeWhenProductsAreAddedOrUpdated() {
+        CatalogVersionDTO before = productRepository.findCatalogVersion();
+        Product product = newProduct("Versioned", "3.00");
+        entityManager.persist(product);
+        entityManager.flush();
+        entityManager.clear();
+
+        CatalogVersionDTO after = productRepository.findCatalogVersion();
+        LocalDateTime updatedAt = entityManager.find(Product.class, product.getId()).getUpdatedAt();
+
+        assertEquals(before.getProductCount() + 1, after.getProductCount());
+        assertFalse(after.getLastModified().isBefore(updatedAt));
+        assertEquals(updatedAt, productRepository.findUpdatedAtById(product.getId()).orElseThrow());
+        assertTrue(productRepository.findUpdatedAtById(-1L).isEmpty());
+    }
+
+    @Test
+    void batchInsert_ShouldAssignGeneratedIdsInOrder() {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 1201; i++) {
+            products.add(newProduct("Bulk " + i, "1.00"));
+        }
+
+        productRepository.batchInsert(products);
+
+        for (int i = 1; i < products.size(); i++) {
+            assertTrue(products.get(i).getId() > products.get(i - 1).getId());
+        }
+        Product last = products.get(products.size() - 1);
+        assertEquals("Bulk 1200", productRepository.findById(last.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void reserveStock_ShouldNeverTakeMoreThanAvailable() {
+        Product product = newProduct("Reservable", "4.00");
+        entityManager.persist(product);
+        entityManager.flush();
+
+        assertEquals(1, productRepository.reserveStock(product.getId(), 6));
+        assertEquals(0, productRepository.reserveStock(product.getId(), 5));
+        assertEquals(1, productRepository.reserveStock(product.getId(), 4));
+        assertEquals(0, productRepository.findQuantityInStockById(product.getId()).orElseThrow());
+
+        assertEquals(1, productRepository.releaseStock(product.getId(), 3));
+        assertEquals(3, productRepository.findQuantityInStockById(product.getId()).orElseThrow());
+        assertEquals(0, productRepository.reserveStock(-1L, 1));
+    }
 
-        assertEquals(1, inStockItems.size());
-        assertEquals("In Stock Item", inStockItems.get(0).getName());
+    private Product newProduct(String name, String price) {
+        Product product = new Product();
+        product.setName(name);
+        product.setDescription(name + " description");
+        product.setPrice(new BigDecimal(price));
+        product.setQuantityInStock(10);
+        product.setCreatedAt(LocalDateTime.now());
+        product.setUpdatedAt(LocalDateTime.now());
+        return product;
     }
 }
\ No newline at end of file
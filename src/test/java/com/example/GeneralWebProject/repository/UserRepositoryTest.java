@@ -3,14 +3,21 @@ package com.example.GeneralWebProject.repository;
 // File: src/test/java/com/example/webapp/repository/UserRepositoryTest.java
 
 
+import com.example.GeneralWebProject.dto.UserDTO;
+import com.example.GeneralWebProject.dto.UserField;
 import com.example.GeneralWebProject.model.User;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -51,6 +58,53 @@ class UserRepositoryTest {
         assertEquals("test@example.com", found.get().getEmail());
     }
 
+    @Test
+    void findDTOByUsername_ShouldProjectUserWithoutPassword() {
+        User user = new User();
+        user.setUsername("projected");
+        user.setPassword("password");
+        user.setFirstName("Projected");
+        user.setLastName("User");
+        user.setEmail("projected@example.com");
+        user.setActive(false);
+        entityManager.persist(user);
+        entityManager.flush();
+        entityManager.clear();
+
+        Set<UserField> fields = EnumSet.allOf(UserField.class);
+
+        UserDTO found = userRepository.findDTOByUsername(fields, "projected").orElseThrow();
+
+        assertEquals(user.getId(), found.getId());
+        assertEquals("projected@example.com", found.getEmail());
+        assertFalse(found.isActive());
+        assertEquals(found, userRepository.findDTOById(fields, user.getId()).orElseThrow());
+        assertTrue(userRepository.findAllDTOs(fields).contains(found));
+    }
+
+    @Test
+    void findDTOById_WithFields_ShouldLoadOnlyThoseFields() {
+        User user = new User();
+        user.setUsername("narrow");
+        user.setPassword("password");
+        user.setFirstName("Narrow");
+        user.setLastName("User");
+        user.setEmail("narrow@example.com");
+        entityManager.persist(user);
+        entityManager.flush();
+        entityManager.clear();
+        Set<UserField> fields = EnumSet.of(UserField.ID, UserField.EMAIL);
+
+        UserDTO found = userRepository.findDTOById(fields, user.getId()).orElseThrow();
+
+        assertEquals("narrow@example.com", found.getEmail());
+        assertNull(found.getUsername());
+        assertNull(found.getFirstName());
+        assertEquals(found, userRepository.findDTOByUsername(fields, "narrow").orElseThrow());
+        assertTrue(userRepository.findAllDTOs(fields).contains(found));
+        assertTrue(userRepository.findDTOById(fields, -1L).isEmpty());
+    }
+
     @Test
     void findByUsername_WhenUserDoesNotExist_ShouldReturnEmpty() {
         Optional<User> found = userRepository.findByUsername("nonexistentuser");
@@ -142,4 +196,31 @@ class UserRepositoryTest {
 
         assertFalse(exists);
     }
+
+    @Test
+    void save_WhenUsernameOrEmailIsTaken_ShouldNameViolatedConstraint() {
+        userRepository.save(user("taken", "taken@example.com"));
+
+        assertEquals(User.USERNAME_CONSTRAINT, violatedConstraint(user("taken", "other@example.com")));
+        assertEquals(User.EMAIL_CONSTRAINT, violatedConstraint(user("other", "taken@example.com")));
+    }
+
+    private String violatedConstraint(User user) {
+        DataIntegrityViolationException ex = assertThrows(DataIntegrityViolationException.class,
+                () -> userRepository.save(user));
+        String constraint = ((ConstraintViolationException) ex.getCause()).getConstraintName().toLowerCase(Locale.ROOT);
+        return constraint.contains(User.USERNAME_CONSTRAINT) ? User.USERNAME_CONSTRAINT
+                : constraint.contains(User.EMAIL_CONSTRAINT) ? User.EMAIL_CONSTRAINT : constraint;
+    }
+
+    private static User user(String username, String email) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("password");
+        user.setFirstName("Unique");
+        user.setLastName("User");
+        user.setEmail(email);
+        user.setActive(true);
+        return user;
+    }
 }
@@ -0,0 +1,71 @@
+package com.example.GeneralWebProject.scheduling;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for HashedTimingWheel.
+ */
+class HashedTimingWheelTest {
+
+    private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+    private final List<Long> firedAt = new CopyOnWriteArrayList<>();
+    private final HashedTimingWheel<String> wheel = new HashedTimingWheel<>("test-wheel", 10, TimeUnit.MILLISECONDS, 8,
+            expired -> {
+                batches.add(expired);
+                firedAt.add(System.nanoTime());
+            });
+
+    @AfterEach
+    void tearDown() {
+        wheel.close();
+    }
+
+    @Test
+    void schedule_ShouldExpireNoEarlierThanDelayAcrossWheelRounds() throws InterruptedException {
+        long start = System.nanoTime();
+        // 8 buckets of 10 ms: 250 ms needs several rounds of the wheel
+        wheel.schedule("late", 250, TimeUnit.MILLISECONDS);
+        wheel.schedule("early", 30, TimeUnit.MILLISECONDS);
+        assertEquals(2, wheel.pending());
+
+        awaitExpired(2);
+
+        assertEquals(List.of("early", "late"), expiredItems());
+        assertTrue(firedAt.get(1) - start >= TimeUnit.MILLISECONDS.toNanos(250));
+        assertEquals(0, wheel.pending());
+    }
+
+    @Test
+    void schedule_ShouldHandItemsDueInTheSameTickAsOneBatch() throws InterruptedException {
+        for (int i = 0; i < 1000; i++) {
+            wheel.schedule("hold-" + i, 0, TimeUnit.MILLISECONDS);
+        }
+
+        awaitExpired(1000);
+
+        // Scheduling may straddle a tick boundary, but never one batch per item
+        assertTrue(batches.size() <= 3);
+    }
+
+    private void awaitExpired(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (expiredItems().size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(count, expiredItems().size());
+    }
+
+    private List<String> expiredItems() {
+        List<String> items = new ArrayList<>();
+        batches.forEach(items::addAll);
+        return items;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.GeneralWebProject.security;
+
+import com.example.GeneralWebProject.dto.AccessTokenDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for AccessTokenService.
+ */
+class AccessTokenServiceTest {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+    private final AccessTokenService tokenService = service(SECRET, NOW);
+
+    @Test
+    void authenticate_ShouldReturnUserAndAuthoritiesOfIssuedToken() {
+        AccessTokenDTO token = tokenService.issue(user("admin", "ROLE_USER", "ROLE_ADMIN"));
+
+        Authentication authentication = tokenService.authenticate(token.getAccessToken());
+
+        assertEquals("Bearer", token.getTokenType());
+        assertEquals(900, token.getExpiresIn());
+        assertTrue(authentication.isAuthenticated());
+        assertEquals("admin", authentication.getName());
+        assertEquals(List.of("ROLE_USER", "ROLE_ADMIN"),
+                AuthorityUtils.authorityListToSet(authentication.getAuthorities()).stream().toList());
+    }
+
+    @Test
+    void authenticate_ShouldRejectTamperedPayload() {
+        String token = tokenService.issue(user("user", "ROLE_USER")).getAccessToken();
+        String signature = token.substring(token.indexOf('.'));
+        String forged = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                (NOW.plusSeconds(900).getEpochSecond() + "\nROLE_USER,ROLE_ADMIN\nuser").getBytes());
+
+        assertThrows(BadCredentialsException.class, () -> tokenService.authenticate(forged + signature));
+    }
+
+    @Test
+    void authenticate_ShouldRejectTokenSignedWithAnotherKey() {
+        byte[] otherKey = new byte[32];
+        otherKey[0] = 1;
+        String token = service(Base64.getEncoder().encodeToString(otherKey), NOW)
+                .issue(user("user", "ROLE_USER")).getAccessToken();
+
+        assertThrows(BadCredentialsException.class, () -> tokenService.authenticate(token));
+    }
+
+    @Test
+    void authenticate_ShouldRejectExpiredToken() {
+        String token = tokenService.issue(user("user", "ROLE_USER")).getAccessToken();
+
+        AccessTokenService later = service(SECRET, NOW.plus(Duration.ofMinutes(15)));
+
+        assertThrows(BadCredentialsException.class, () -> later.authenticate(token));
+    }
+
+    @Test
+    void authenticate_AfterRevoke_ShouldRejectTokensOfThatUserOnly() {
+        String revoked = tokenService.issue(user("john.doe", "ROLE_USER")).getAccessToken();
+        String other = tokenService.issue(user("jane.smith", "ROLE_USER")).getAccessToken();
+
+        tokenService.revoke("john.doe");
+
+        assertThrows(BadCredentialsException.class, () -> tokenService.authenticate(revoked));
+        assertEquals("jane.smith", tokenService.authenticate(other).getName());
+    }
+
+    @Test
+    void authenticate_ShouldRejectMalformedToken() {
+        assertThrows(BadCredentialsException.class, () -> tokenService.authenticate("not-a-token"));
+        assertThrows(BadCredentialsException.class, () -> tokenService.authenticate("a.b.c"));
+        assertThrows(BadCredentialsException.class, () -> tokenService.authenticate("***.***"));
+    }
+
+    @Test
+    void constructor_ShouldRejectShortSecret() {
+        String shortSecret = Base64.getEncoder().encodeToString(new byte[16]);
+
+        assertThrows(IllegalArgumentException.class, () -> service(shortSecret, NOW));
+    }
+
+    private static AccessTokenService service(String secret, Instant now) {
+        return new AccessTokenService(secret, Duration.ofMinutes(15), Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    private static Authentication user(String username, String... roles) {
+        return UsernamePasswordAuthenticationToken.authenticated(username, null,
+                AuthorityUtils.createAuthorityList(roles));
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.GeneralWebProject.security;
+
+import com.example.GeneralWebProject.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for BoundedPasswordEncoder.
+ */
+class BoundedPasswordEncoderTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch started = new CountDownLatch(1);
+    private MeterRegistry registry;
+    private BoundedPasswordEncoder encoder;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        encoder = new BoundedPasswordEncoder(new BlockingEncoder(), 1, 1, Duration.ofSeconds(2), registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        encoder.close();
+    }
+
+    @Test
+    void encode_ShouldHashOnPoolThread() {
+        release.countDown();
+
+        assertEquals("hashed:secret@password-hashing-1", encoder.encode("secret"));
+        assertEquals(1, registry.get("app.password.hashing").timer().count());
+        assertEquals(1, registry.get("app.password.hashing.wait").timer().count());
+    }
+
+    @Test
+    void encode_WhenQueueIsFull_ShouldFailFastWithRetryAfter() throws Exception {
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("second"));
+        while (registry.get("app.password.hashing.queue").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        long start = System.nanoTime();
+        ServiceOverloadedException ex = assertThrows(ServiceOverloadedException.class, () -> encoder.encode("third"));
+
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        assertEquals(Duration.ofSeconds(2), ex.getRetryAfter());
+        assertEquals(1, registry.get("app.password.hashing.rejected").counter().count());
+        assertEquals(1, registry.get("app.password.hashing.active").gauge().value());
+
+        release.countDown();
+        assertEquals("hashed:first@password-hashing-1", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hashed:second@password-hashing-1", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void matches_ShouldRunOnCallerThread() {
+        assertTrue(encoder.matches("secret", "hashed:secret@" + Thread.currentThread().getName()));
+    }
+
+    /**
+     * Encodes with the name of the hashing thread once released, and matches on the calling thread.
+     */
+    private class BlockingEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return "hashed:" + rawPassword + "@" + Thread.currentThread().getName();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encodedPassword.equals("hashed:" + rawPassword + "@" + Thread.currentThread().getName());
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.GeneralWebProject.security;
+
+import com.example.GeneralWebProject.cache.UserPrincipalCache;
+import com.example.GeneralWebProject.model.User;
+import com.example.GeneralWebProject.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for DatabaseUserDetailsService and its principal cache.
+ */
+@ExtendWith(MockitoExtension.class)
+class DatabaseUserDetailsServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private DatabaseUserDetailsService userDetailsService;
+    private UserPrincipalCache principalCache;
+
+    @BeforeEach
+    void setUp() {
+        principalCache = new UserPrincipalCache(100, Duration.ofMinutes(5));
+        userDetailsService = new DatabaseUserDetailsService(userRepository, principalCache, Set.of("admin"));
+    }
+
+    @Test
+    void loadUserByUsername_ShouldMapUserAndQueryOnce() {
+        when(userRepository.findByUsername("john.doe")).thenReturn(Optional.of(user(1L, "john.doe", true)));
+
+        UserDetails first = userDetailsService.loadUserByUsername("john.doe");
+        UserDetails second = userDetailsService.loadUserByUsername("john.doe");
+
+        assertEquals("john.doe", first.getUsername());
+        assertEquals("hash", first.getPassword());
+        assertTrue(first.isEnabled());
+        assertEquals(Set.of("ROLE_USER"), AuthorityUtils.authorityListToSet(first.getAuthorities()));
+        assertEquals(first, second);
+        verify(userRepository, times(1)).findByUsername("john.doe");
+    }
+
+    @Test
+    void loadUserByUsername_ShouldGrantAdminRoleToConfiguredUsers() {
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(user(3L, "admin", true)));
+
+        UserDetails admin = userDetailsService.loadUserByUsername("admin");
+
+        assertEquals(Set.of("ROLE_USER", "ROLE_ADMIN"), AuthorityUtils.authorityListToSet(admin.getAuthorities()));
+    }
+
+    @Test
+    void loadUserByUsername_ShouldDisableInactiveUsers() {
+        when(userRepository.findByUsername("jane.smith")).thenReturn(Optional.of(user(2L, "jane.smith", false)));
+
+        assertFalse(userDetailsService.loadUserByUsername("jane.smith").isEnabled());
+    }
+
+    @Test
+    void loadUserByUsername_ShouldNotCacheUnknownUsers() {
+        when(userRepository.findByUsername("nobody")).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("nobody"));
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("nobody"));
+
+        verify(userRepository, times(2)).findByUsername("nobody");
+    }
+
+    @Test
+    void loadUserByUsername_ShouldReturnCopiesSoErasedCredentialsAreNotCached() {
+        when(userRepository.findByUsername("john.doe")).thenReturn(Optional.of(user(1L, "john.doe", true)));
+
+        ((CredentialsContainer) userDetailsService.loadUserByUsername("john.doe")).eraseCredentials();
+
+        assertEquals("hash", userDetailsService.loadUserByUsername("john.doe").getPassword());
+    }
+
+    @Test
+    void invalidate_ShouldReloadUserOnNextLogin() {
+        when(userRepository.findByUsername("john.doe"))
+                .thenReturn(Optional.of(user(1L, "john.doe", true)))
+                .thenReturn(Optional.of(user(1L, "john.doe", false)));
+        userDetailsService.loadUserByUsername("john.doe");
+
+        principalCache.invalidate("john.doe");
+
+        assertFalse(userDetailsService.loadUserByUsername("john.doe").isEnabled());
+        verify(userRepository, times(2)).findByUsername("john.doe");
+    }
+
+    @Test
+    void invalidate_WhileLoadIsRunning_ShouldDropTheLoadedPrincipal() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(userRepository.findByUsername("john.doe"))
+                .thenAnswer(invocation -> {
+                    loading.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return Optional.of(user(1L, "john.doe", true));
+                })
+                .thenReturn(Optional.of(user(1L, "john.doe", false)));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<UserDetails> stale = executor.submit(() -> userDetailsService.loadUserByUsername("john.doe"));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            Future<?> invalidated = executor.submit(() -> principalCache.invalidate("john.doe"));
+            // Give the invalidation time to reach the entry that is still loading
+            Thread.sleep(100);
+            release.countDown();
+            stale.get(5, TimeUnit.SECONDS);
+            invalidated.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertFalse(userDetailsService.loadUserByUsername("john.doe").isEnabled());
+    }
+
+    private static User user(Long id, String username, boolean active) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setPassword("hash");
+        user.setActive(active);
+        return user;
+    }
+}
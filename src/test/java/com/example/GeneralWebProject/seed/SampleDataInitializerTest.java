@@ -0,0 +1,64 @@
+package com.example.GeneralWebProject.seed;
+
+import com.example.GeneralWebProject.repository.ProductRepository;
+import com.example.GeneralWebProject.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.sql.init.SqlInitializationProperties;
+import org.springframework.boot.sql.init.DatabaseInitializationMode;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for SampleDataInitializer, against a schema created by the Flyway migrations and validated by Hibernate.
+ */
+@DataJpaTest(properties = {"spring.flyway.enabled=true", "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.defer-datasource-initialization=false"})
+class SampleDataInitializerTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void initializeDatabase_WhenDataExists_ShouldSkipScripts() {
+        long users = userRepository.count();
+        long products = productRepository.count();
+        assertTrue(users > 0 && products > 0);
+
+        initializer().initializeDatabase();
+
+        assertEquals(users, userRepository.count());
+        assertEquals(products, productRepository.count());
+    }
+
+    @Test
+    void initializeDatabase_WhenEmpty_ShouldRunScripts() {
+        long users = userRepository.count();
+        long products = productRepository.count();
+        productRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+
+        initializer().initializeDatabase();
+
+        assertEquals(users, userRepository.count());
+        assertEquals(products, productRepository.count());
+    }
+
+    private SampleDataInitializer initializer() {
+        SqlInitializationProperties properties = new SqlInitializationProperties();
+        properties.setMode(DatabaseInitializationMode.ALWAYS);
+        SampleDataInitializer initializer = new SampleDataInitializer(dataSource, properties);
+        initializer.setResourceLoader(new DefaultResourceLoader());
+        return initializer;
+    }
+}
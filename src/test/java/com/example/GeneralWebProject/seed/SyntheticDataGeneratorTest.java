@@ -0,0 +1,102 @@
+package com.example.GeneralWebProject.seed;
+
+import com.example.GeneralWebProject.model.Product;
+import com.example.GeneralWebProject.model.User;
+import com.example.GeneralWebProject.repository.ProductRepository;
+import com.example.GeneralWebProject.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for SyntheticDataGenerator.
+ */
+@DataJpaTest
+@Import({SyntheticDataGenerator.class, SyntheticDataGeneratorTest.Config.class})
+class SyntheticDataGeneratorTest {
+
+    @Autowired
+    private SyntheticDataGenerator generator;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void newProduct_ShouldBeDeterministicForSeed() {
+        SplittableRandom first = new SplittableRandom(7);
+        SplittableRandom second = new SplittableRandom(7);
+
+        for (int i = 0; i < 1000; i++) {
+            Product expected = SyntheticDataGenerator.newProduct(first);
+            Product actual = SyntheticDataGenerator.newProduct(second);
+            assertEquals(expected.getName(), actual.getName());
+            assertEquals(expected.getDescription(), actual.getDescription());
+            assertEquals(expected.getPrice(), actual.getPrice());
+            assertEquals(expected.getQuantityInStock(), actual.getQuantityInStock());
+        }
+    }
+
+    @Test
+    void newProduct_ShouldFitConstraintsAndSkewBrands() {
+        SplittableRandom random = new SplittableRandom(42);
+        int soldOut = 0;
+        int acme = 0;
+        int duff = 0;
+
+        for (int i = 0; i < 10_000; i++) {
+            Product product = SyntheticDataGenerator.newProduct(random);
+            assertTrue(product.getName().length() <= 100);
+            assertTrue(product.getDescription().length() <= 500);
+            assertTrue(product.getPrice().compareTo(BigDecimal.ZERO) > 0);
+            assertEquals(2, product.getPrice().scale());
+            assertTrue(product.getQuantityInStock() >= 0);
+            soldOut += product.getQuantityInStock() == 0 ? 1 : 0;
+            acme += product.getName().startsWith("Acme ") ? 1 : 0;
+            duff += product.getName().startsWith("Duff ") ? 1 : 0;
+        }
+
+        assertTrue(soldOut > 0);
+        assertTrue(acme > 3 * duff);
+    }
+
+    @Test
+    void generate_ShouldInsertRowsInChunks() {
+        long products = productRepository.count();
+        long users = userRepository.count();
+
+        generator.generate(12_345, 150);
+
+        assertEquals(products + 12_345, productRepository.count());
+        assertEquals(users + 150, userRepository.count());
+
+        // Users are drawn after the products from the same seeded sequence
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < 12_345; i++) {
+            SyntheticDataGenerator.newProduct(random);
+        }
+        User firstUser = SyntheticDataGenerator.newUser(random, 1, "ignored");
+        assertTrue(userRepository.existsByUsername(firstUser.getUsername()));
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return new BCryptPasswordEncoder(4);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.GeneralWebProject.service;
+
+import com.example.GeneralWebProject.dto.ProductQuery;
+import com.example.GeneralWebProject.dto.ProductQueryPlanDTO;
+import com.example.GeneralWebProject.dto.ProductSort;
+import com.example.GeneralWebProject.index.ProductNameIndex;
+import com.example.GeneralWebProject.index.ProductPriceIndex;
+import com.example.GeneralWebProject.index.ProductStockIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for ProductQueryPlanner.
+ */
+class ProductQueryPlannerTest {
+
+    private ProductNameIndex nameIndex;
+    private ProductPriceIndex priceIndex;
+    private ProductStockIndex stockIndex;
+    private ProductQueryPlanner planner;
+
+    @BeforeEach
+    void setUp() {
+        nameIndex = new ProductNameIndex();
+        priceIndex = new ProductPriceIndex();
+        stockIndex = new ProductStockIndex();
+        // Ten cables from 1.00 to 10.00, even ids in stock, and one laptop at 999.00 in stock
+        for (int id = 1; id <= 10; id++) {
+            add(id, "Cable " + id, id + ".00", id % 2 == 0 ? 5 : 0);
+        }
+        add(11, "Laptop", "999.00", 3);
+        nameIndex.markReady();
+        priceIndex.markReady();
+        stockIndex.markReady();
+        planner = new ProductQueryPlanner(nameIndex, priceIndex, stockIndex, 10);
+    }
+
+    @Test
+    void plan_ShouldStartFromMostSelectiveIndexAndFilterTheRestInMemory() {
+        ProductQueryPlanner.Plan plan = planner.plan(
+                query("cable", new BigDecimal("3.00"), new BigDecimal("6.00"), 1));
+
+        ProductQueryPlanDTO dto = plan.toDTO();
+        assertEquals("price-index", dto.getAccess());
+        assertEquals(List.of("price-index", "stock-index", "name-index", "table-scan"),
+                List.copyOf(dto.getEstimates().keySet()));
+        assertEquals(List.of(4L, 6L), plan.getCandidateIds());
+        assertEquals(List.of("name contains 'cable'", "3.00 <= price <= 6.00", "quantityInStock >= 1"),
+                dto.getIndexFilters());
+        assertTrue(dto.getDatabaseFilters().isEmpty());
+        assertNull(plan.getResidual().getName());
+    }
+
+    @Test
+    void plan_WhenIndexesSettleEveryPredicateInIdOrder_ShouldLoadOnlyFirstPage() {
+        ProductQuery query = query("cable", null, null, 1);
+        query.setLimit(2);
+
+        assertEquals(List.of(2L, 4L), planner.plan(query).getCandidateIds());
+        query.setSort(ProductSort.PRICE_DESC);
+        assertEquals(5, planner.plan(query).getCandidateIds().size());
+    }
+
+    @Test
+    void plan_ShouldLeaveStockThresholdAboveOneToDatabase() {
+        ProductQueryPlanner.Plan plan = planner.plan(query("lapt", null, null, 2));
+
+        assertEquals("name-index", plan.toDTO().getAccess());
+        assertEquals(List.of(11L), plan.getCandidateIds());
+        assertEquals(List.of("quantityInStock >= 2"), plan.toDTO().getDatabaseFilters());
+        assertEquals(2, plan.getResidual().getMinStock());
+    }
+
+    @Test
+    void plan_WhenNoIndexIsSelectiveEnough_ShouldScanTable() {
+        ProductQueryPlanner.Plan plan = planner.plan(query("ca", null, new BigDecimal("1000.00"), null));
+
+        ProductQueryPlanDTO dto = plan.toDTO();
+        assertEquals("table-scan", dto.getAccess());
+        assertEquals(11L, dto.getEstimates().get("price-index"));
+        assertNull(plan.getCandidateIds());
+        assertNull(dto.getCandidates());
+        assertEquals(List.of("name contains 'ca'", "price <= 1000.00"), dto.getDatabaseFilters());
+    }
+
+    @Test
+    void plan_WhenChosenIndexReturnsMoreThanTheBound_ShouldScanTable() {
+        // Estimates taken before a burst of inserts: both indexes look selective but no longer are
+        ProductNameIndex growingNames = new ProductNameIndex() {
+            @Override
+            public int estimate(String fragment) {
+                return 1;
+            }
+        };
+        ProductPriceIndex growingPrices = new ProductPriceIndex() {
+            @Override
+            public int count(long minCents, long maxCents) {
+                return 1;
+            }
+        };
+        for (int id = 1; id <= 10; id++) {
+            growingNames.put(id, "Cable " + id);
+            growingPrices.put(id, new BigDecimal(id + ".00"));
+        }
+        growingNames.markReady();
+        growingPrices.markReady();
+        ProductQueryPlanner bounded = new ProductQueryPlanner(growingNames, growingPrices, stockIndex, 5);
+
+        ProductQueryPlanner.Plan byName = bounded.plan(query("cable", null, null, null));
+        ProductQueryPlanner.Plan byPrice = bounded.plan(query(null, new BigDecimal("1.00"), null, null));
+
+        assertEquals("table-scan", byName.toDTO().getAccess());
+        assertNull(byName.getCandidateIds());
+        assertEquals(List.of("name contains 'cable'"), byName.toDTO().getDatabaseFilters());
+        assertEquals("table-scan", byPrice.toDTO().getAccess());
+        assertNull(byPrice.getCandidateIds());
+    }
+
+    @Test
+    void plan_WhenIndexesAreNotReady_ShouldScanTable() {
+        ProductQueryPlanner cold = new ProductQueryPlanner(
+                new ProductNameIndex(), new ProductPriceIndex(), new ProductStockIndex(), 10);
+
+        ProductQueryPlanner.Plan plan = cold.plan(query("cable", new BigDecimal("3.00"), null, 1));
+
+        assertEquals("table-scan", plan.toDTO().getAccess());
+        assertEquals(-1L, plan.toDTO().getEstimates().get("table-scan"));
+        assertEquals(3, plan.toDTO().getDatabaseFilters().size());
+    }
+
+    private void add(int id, String name, String price, int stock) {
+        nameIndex.put(id, name);
+        priceIndex.put(id, new BigDecimal(price));
+        stockIndex.put(id, stock);
+    }
+
+    private static ProductQuery query(String name, BigDecimal minPrice, BigDecimal maxPrice, Integer minStock) {
+        return new ProductQuery(name, minPrice, maxPrice, minStock, ProductSort.ID, 50);
+    }
+}
@@ -3,25 +3,55 @@ package com.example.GeneralWebProject.service;
 // File: src/test/java/com/example/webapp/service/ProductServiceTest.java
 
 
+import com.example.GeneralWebProject.cache.ProductCache;
+import com.example.GeneralWebProject.dto.CursorPageDTO;
 import com.example.GeneralWebProject.dto.ProductDTO;
+import com.example.GeneralWebProject.dto.ProductField;
+import com.example.GeneralWebProject.dto.ProductQuery;
+import com.example.GeneralWebProject.dto.ProductQueryResultDTO;
+import com.example.GeneralWebProject.dto.ProductSort;
+import com.example.GeneralWebProject.dto.ReservationDTO;
+import com.example.GeneralWebProject.exception.InsufficientStockException;
 import com.example.GeneralWebProject.exception.ResourceNotFoundException;
+import com.example.GeneralWebProject.index.ProductIndexLoader;
+import com.example.GeneralWebProject.index.ProductNameIndex;
+import com.example.GeneralWebProject.index.ProductPriceIndex;
+import com.example.GeneralWebProject.index.ProductStockIndex;
 import com.example.GeneralWebProject.model.Product;
+import com.example.GeneralWebProject.model.StockHold;
+import com.example.GeneralWebProject.repository.ProductDetailView;
 import com.example.GeneralWebProject.repository.ProductRepository;
+import com.example.GeneralWebProject.repository.StockHoldRepository;
+import com.example.GeneralWebProject.scheduling.StockHoldScheduler;
+import com.example.GeneralWebProject.stock.HotStockManager;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -30,9 +60,44 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class ProductServiceTest {
 
+    private static final Set<ProductField> ALL_FIELDS = EnumSet.allOf(ProductField.class);
+
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ProductNameIndex nameIndex;
+
+    @Mock
+    private ProductPriceIndex priceIndex;
+
+    @Mock
+    private ProductStockIndex stockIndex;
+
+    @Mock
+    private ProductIndexLoader indexLoader;
+
+    @Mock
+    private ProductQueryPlanner queryPlanner;
+
+    @Spy
+    private ProductCache productCache = new ProductCache(1_000_000L);
+
+    @Mock
+    private StockHoldRepository stockHoldRepository;
+
+    @Mock
+    private StockHoldScheduler holdScheduler;
+
+    @Mock
+    private HotStockManager hotStock;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private ProductServiceImpl productService;
 
@@ -59,66 +124,327 @@ class ProductServiceTest {
     }
 
     @Test
-    void getAllProducts_ShouldReturnListOfProducts() {
-        when(productRepository.findAll()).thenReturn(Arrays.asList(product));
+    void getAllProducts_ShouldReturnPageOfProducts() {
+        when(productRepository.findPageAfterId(ALL_FIELDS, 0L, 51)).thenReturn(Arrays.asList(productDTO));
 
-        List<ProductDTO> result = productService.getAllProducts();
+        CursorPageDTO<ProductDTO> result = productService.getAllProducts(null, 50);
 
-        assertEquals(1, result.size());
-        assertEquals("Test Product", result.get(0).getName());
-        verify(productRepository, times(1)).findAll();
+        assertEquals(1, result.getItems().size());
+        assertEquals("Test Product", result.getItems().get(0).getName());
+        assertNull(result.getNext());
+        verify(productRepository, times(1)).findPageAfterId(ALL_FIELDS, 0L, 51);
+    }
+
+    @Test
+    void getAllProducts_WhenMoreRowsThanLimit_ShouldReturnNextCursor() {
+        ProductDTO second = new ProductDTO(2L, "Second Product", null, new BigDecimal("10.00"), 1);
+        when(productRepository.findPageAfterId(ALL_FIELDS, 0L, 2)).thenReturn(Arrays.asList(productDTO, second));
+        when(productRepository.findPageAfterId(ALL_FIELDS, 1L, 2)).thenReturn(Arrays.asList(second));
+
+        CursorPageDTO<ProductDTO> first = productService.getAllProducts(null, 1);
+        CursorPageDTO<ProductDTO> next = productService.getAllProducts(first.getNext(), 1);
+
+        assertEquals(1, first.getItems().size());
+        assertEquals(1L, first.getItems().get(0).getId());
+        assertNotNull(first.getNext());
+        assertEquals(2L, next.getItems().get(0).getId());
+        assertNull(next.getNext());
+    }
+
+    @Test
+    void getAllProducts_WithInvalidCursorOrLimit_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> productService.getAllProducts("not-a-cursor!", 10));
+        assertThrows(IllegalArgumentException.class, () -> productService.getAllProducts(null, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> productService.getAllProducts(null, ProductService.MAX_PAGE_SIZE + 1));
+        verifyNoInteractions(productRepository);
     }
 
     @Test
     void getProductById_WhenProductExists_ShouldReturnProduct() {
-        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.findDetailById(1L)).thenReturn(Optional.of(detail(product)));
 
         ProductDTO result = productService.getProductById(1L);
 
         assertEquals("Test Product", result.getName());
-        verify(productRepository, times(1)).findById(1L);
+        verify(productRepository, times(1)).findDetailById(1L);
+    }
+
+    @Test
+    void getProductById_WhenCalledTwice_ShouldLoadOnceAndReturnCopies() {
+        when(productRepository.findDetailById(1L)).thenReturn(Optional.of(detail(product)));
+
+        ProductDTO first = productService.getProductById(1L);
+        first.setName("Changed by caller");
+        ProductDTO second = productService.getProductById(1L);
+
+        assertEquals("Test Product", second.getName());
+        verify(productRepository, times(1)).findDetailById(1L);
+        assertEquals(1, productCache.stats().getHitCount());
+    }
+
+    @Test
+    void getProductById_AfterUpdate_ShouldReloadProduct() {
+        when(productRepository.findDetailById(1L)).thenReturn(Optional.of(detail(product)));
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.save(any(Product.class))).thenReturn(product);
+        productService.getProductById(1L);
+
+        productDTO.setName("Renamed Product");
+        productService.updateProduct(1L, productDTO);
+        when(productRepository.findDetailById(1L)).thenReturn(Optional.of(detail(product)));
+        ProductDTO result = productService.getProductById(1L);
+
+        assertEquals("Renamed Product", result.getName());
+        verify(productCache, times(1)).invalidate(1L);
+        verify(productRepository, times(2)).findDetailById(1L);
+    }
+
+    @Test
+    void getProductLastModified_WhenCached_ShouldNotQueryRepository() {
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 5, 1, 10, 30);
+        product.setUpdatedAt(updatedAt);
+        when(productRepository.findDetailById(1L)).thenReturn(Optional.of(detail(product)));
+        productService.getProductById(1L);
+
+        assertEquals(updatedAt, productService.getProductLastModified(1L));
+        verify(productRepository, never()).findUpdatedAtById(1L);
+    }
+
+    @Test
+    void getProductLastModified_WhenNotCached_ShouldQueryModificationTimeOnly() {
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 5, 1, 10, 30);
+        when(productRepository.findUpdatedAtById(1L)).thenReturn(Optional.of(updatedAt));
+
+        assertEquals(updatedAt, productService.getProductLastModified(1L));
+        verify(productRepository, never()).findDetailById(1L);
     }
 
     @Test
     void getProductById_WhenProductDoesNotExist_ShouldThrowException() {
-        when(productRepository.findById(1L)).thenReturn(Optional.empty());
+        when(productRepository.findDetailById(1L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> productService.getProductById(1L));
-        verify(productRepository, times(1)).findById(1L);
+        verify(productRepository, times(1)).findDetailById(1L);
     }
 
     @Test
     void findProductsByName_ShouldReturnMatchingProducts() {
-        when(productRepository.findByNameContainingIgnoreCase("Test")).thenReturn(Arrays.asList(product));
+        when(productRepository.findPageByNameAfterId(ALL_FIELDS, "Test", 0L, 51))
+                .thenReturn(Arrays.asList(productDTO));
 
-        List<ProductDTO> result = productService.findProductsByName("Test");
+        List<ProductDTO> result = productService.findProductsByName("Test", null, 50).getItems();
 
         assertEquals(1, result.size());
         assertEquals("Test Product", result.get(0).getName());
-        verify(productRepository, times(1)).findByNameContainingIgnoreCase("Test");
+        verify(productRepository, times(1)).findPageByNameAfterId(ALL_FIELDS, "Test", 0L, 51);
+    }
+
+    @Test
+    void findProductsByName_WhenIndexReady_ShouldLoadIndexedIdsOnly() {
+        ProductDTO second = new ProductDTO(3L, "Test Product 3", null, new BigDecimal("10.00"), 1);
+        when(nameIndex.isReady()).thenReturn(true);
+        when(nameIndex.search("Test", 0L, 3)).thenReturn(new int[]{1, 3, 7});
+        when(productRepository.findAllDTOsByIdIn(ALL_FIELDS, List.of(1L, 3L))).thenReturn(Arrays.asList(productDTO, second));
+
+        CursorPageDTO<ProductDTO> result = productService.findProductsByName("Test", null, 2);
+
+        assertEquals(2, result.getItems().size());
+        assertEquals(1L, result.getItems().get(0).getId());
+        assertEquals(3L, result.getItems().get(1).getId());
+        assertNotNull(result.getNext());
+        verify(productRepository, never()).findPageByNameAfterId(any(), any(), anyLong(), anyInt());
+
+        when(nameIndex.search("Test", 3L, 3)).thenReturn(new int[]{7});
+        when(productRepository.findAllDTOsByIdIn(ALL_FIELDS, List.of(7L))).thenReturn(List.of());
+        CursorPageDTO<ProductDTO> last = productService.findProductsByName("Test", result.getNext(), 2);
+
+        assertTrue(last.getItems().isEmpty());
+        assertNull(last.getNext());
+    }
+
+    @Test
+    void findProductsByName_WhenFragmentTooShort_ShouldFallBackToDatabase() {
+        when(nameIndex.isReady()).thenReturn(true);
+        when(nameIndex.search("Te", 0L, 51)).thenReturn(null);
+        when(productRepository.findPageByNameAfterId(ALL_FIELDS, "Te", 0L, 51))
+                .thenReturn(Arrays.asList(productDTO));
+
+        List<ProductDTO> result = productService.findProductsByName("Te", null, 50).getItems();
+
+        assertEquals(1, result.size());
     }
 
     @Test
     void findProductsByMaxPrice_ShouldReturnMatchingProducts() {
         BigDecimal maxPrice = new BigDecimal("100.00");
-        when(productRepository.findByPriceLessThanEqual(maxPrice)).thenReturn(Arrays.asList(product));
+        when(productRepository.findPageByMaxPrice(ALL_FIELDS, maxPrice, null, 0L, 51))
+                .thenReturn(Arrays.asList(productDTO));
 
-        List<ProductDTO> result = productService.findProductsByMaxPrice(maxPrice);
+        List<ProductDTO> result = productService.findProductsByMaxPrice(maxPrice, null, 50).getItems();
 
         assertEquals(1, result.size());
         assertEquals(new BigDecimal("99.99"), result.get(0).getPrice());
-        verify(productRepository, times(1)).findByPriceLessThanEqual(maxPrice);
+        verify(productRepository, times(1)).findPageByMaxPrice(ALL_FIELDS, maxPrice, null, 0L, 51);
+    }
+
+    @Test
+    void findProductsByMaxPrice_WithCursor_ShouldSeekPastPriceAndId() {
+        BigDecimal maxPrice = new BigDecimal("100.00");
+        ProductDTO second = new ProductDTO(2L, "Second Product", null, new BigDecimal("99.99"), 1);
+        when(productRepository.findPageByMaxPrice(ALL_FIELDS, maxPrice, null, 0L, 2))
+                .thenReturn(Arrays.asList(productDTO, second));
+        when(productRepository.findPageByMaxPrice(ALL_FIELDS, maxPrice, new BigDecimal("99.99"), 1L, 2))
+                .thenReturn(Arrays.asList(second));
+
+        CursorPageDTO<ProductDTO> first = productService.findProductsByMaxPrice(maxPrice, null, 1);
+        CursorPageDTO<ProductDTO> next = productService.findProductsByMaxPrice(maxPrice, first.getNext(), 1);
+
+        assertEquals(2L, next.getItems().get(0).getId());
+        assertNull(next.getNext());
+        assertThrows(IllegalArgumentException.class,
+                () -> productService.findProductsInStock(first.getNext(), 1));
+    }
+
+    @Test
+    void findProductsByMaxPrice_WhenIndexReady_ShouldKeepIndexOrderAndSkipDeletedRows() {
+        ProductDTO cheaper = new ProductDTO(5L, "Cheaper Product", null, new BigDecimal("9.99"), 1);
+        when(priceIndex.isReady()).thenReturn(true);
+        when(priceIndex.range(Long.MIN_VALUE, 10000L, Long.MIN_VALUE, 0L, 3))
+                .thenReturn(new ProductPriceIndex.Slice(new int[]{5, 2, 1}, new long[]{999L, 5000L, 9999L}, true));
+        when(productRepository.findAllDTOsByIdIn(ALL_FIELDS, List.of(5L, 2L, 1L))).thenReturn(Arrays.asList(productDTO, cheaper));
+
+        CursorPageDTO<ProductDTO> result = productService.findProductsByMaxPrice(new BigDecimal("100.00"), null, 3);
+
+        assertEquals(2, result.getItems().size());
+        assertEquals(5L, result.getItems().get(0).getId());
+        assertEquals(1L, result.getItems().get(1).getId());
+        assertNotNull(result.getNext());
+
+        when(priceIndex.range(Long.MIN_VALUE, 10000L, 9999L, 1L, 3))
+                .thenReturn(new ProductPriceIndex.Slice(new int[0], new long[0], false));
+        CursorPageDTO<ProductDTO> last = productService.findProductsByMaxPrice(new BigDecimal("100.00"), result.getNext(), 3);
+
+        assertTrue(last.getItems().isEmpty());
+        assertNull(last.getNext());
+        verify(productRepository, never()).findPageByMaxPrice(any(), any(), any(), anyLong(), anyInt());
+    }
+
+    @Test
+    void findProductsByMaxPrice_WithFields_ShouldAlsoSelectPriceForTheCursor() {
+        BigDecimal maxPrice = new BigDecimal("100.00");
+        ProductDTO named = new ProductDTO(1L, "Test Product", null, new BigDecimal("99.99"), null);
+        when(productRepository.findPageByMaxPrice(
+                EnumSet.of(ProductField.ID, ProductField.NAME, ProductField.PRICE), maxPrice, null, 0L, 2))
+                .thenReturn(Arrays.asList(named, named));
+
+        CursorPageDTO<ProductDTO> page = productService.findProductsByMaxPrice(
+                maxPrice, null, 1, EnumSet.of(ProductField.ID, ProductField.NAME));
+
+        assertEquals(1, page.getItems().size());
+        assertNotNull(page.getNext());
+    }
+
+    @Test
+    void findProductsInStock_WhenIndexReadyWithFields_ShouldLoadOnlyThoseFields() {
+        Set<ProductField> fields = EnumSet.of(ProductField.ID, ProductField.QUANTITY_IN_STOCK);
+        ProductDTO stock = new ProductDTO(1L, null, null, null, 100);
+        when(stockIndex.isReady()).thenReturn(true);
+        when(stockIndex.idsAfter(0L, 51)).thenReturn(new int[]{1});
+        when(productRepository.findAllDTOsByIdIn(fields, List.of(1L))).thenReturn(List.of(stock));
+
+        CursorPageDTO<ProductDTO> page = productService.findProductsInStock(null, 50, fields);
+
+        assertEquals(List.of(stock), page.getItems());
     }
 
     @Test
     void findProductsInStock_ShouldReturnInStockProducts() {
-        when(productRepository.findByQuantityInStockGreaterThan(0)).thenReturn(Arrays.asList(product));
+        when(productRepository.findPageInStockAfterId(ALL_FIELDS, 0L, 51))
+                .thenReturn(Arrays.asList(productDTO));
 
-        List<ProductDTO> result = productService.findProductsInStock();
+        List<ProductDTO> result = productService.findProductsInStock(null, 50).getItems();
 
         assertEquals(1, result.size());
         assertEquals(100, result.get(0).getQuantityInStock());
-        verify(productRepository, times(1)).findByQuantityInStockGreaterThan(0);
+        verify(productRepository, times(1)).findPageInStockAfterId(ALL_FIELDS, 0L, 51);
+    }
+
+    @Test
+    void findProductsInStock_WhenIndexReady_ShouldPageIndexedIds() {
+        ProductDTO second = new ProductDTO(2L, "Second Product", null, new BigDecimal("19.99"), 1);
+        when(stockIndex.isReady()).thenReturn(true);
+        when(stockIndex.idsAfter(0L, 2)).thenReturn(new int[]{1, 2});
+        when(productRepository.findAllDTOsByIdIn(ALL_FIELDS, List.of(1L))).thenReturn(List.of(productDTO));
+
+        CursorPageDTO<ProductDTO> page = productService.findProductsInStock(null, 1);
+
+        assertEquals(1, page.getItems().size());
+        assertEquals(1L, page.getItems().get(0).getId());
+        assertNotNull(page.getNext());
+
+        when(stockIndex.idsAfter(1L, 2)).thenReturn(new int[]{2});
+        when(productRepository.findAllDTOsByIdIn(ALL_FIELDS, List.of(2L))).thenReturn(List.of(second));
+
+        CursorPageDTO<ProductDTO> last = productService.findProductsInStock(page.getNext(), 1);
+
+        assertEquals(2L, last.getItems().get(0).getId());
+        assertNull(last.getNext());
+        verify(productRepository, never()).findPageInStockAfterId(any(), anyLong(), anyInt());
+    }
+
+    @Test
+    void queryProducts_ShouldLoadCandidatesWithResidualPredicates() {
+        ProductQuery query = new ProductQuery("Test", null, new BigDecimal("100.00"), 2, ProductSort.PRICE, 10);
+        ProductQuery residual = new ProductQuery(null, null, null, 2, ProductSort.PRICE, 10);
+        when(queryPlanner.plan(query)).thenReturn(new ProductQueryPlanner.Plan(ProductQueryPlanner.Access.NAME_INDEX,
+                Map.of(ProductQueryPlanner.Access.NAME_INDEX, 1L), new int[]{1},
+                List.of("name contains 'Test'", "price <= 100.00"), residual));
+        when(productRepository.findByQuery(ALL_FIELDS, residual, List.of(1L)))
+                .thenReturn(List.of(productDTO));
+
+        ProductQueryResultDTO result = productService.queryProducts(query, true, null);
+
+        assertEquals(List.of(productDTO), result.getItems());
+        assertEquals("name-index", result.getPlan().getAccess());
+        assertEquals(List.of("quantityInStock >= 2"), result.getPlan().getDatabaseFilters());
+    }
+
+    @Test
+    void queryProducts_WhenIndexesLeaveNoCandidates_ShouldNotQueryDatabase() {
+        ProductQuery query = new ProductQuery("nothing", null, null, null, ProductSort.ID, 10);
+        when(queryPlanner.plan(query)).thenReturn(new ProductQueryPlanner.Plan(ProductQueryPlanner.Access.NAME_INDEX,
+                Map.of(ProductQueryPlanner.Access.NAME_INDEX, 0L), new int[0], List.of(), query));
+
+        ProductQueryResultDTO result = productService.queryProducts(query, false, null);
+
+        assertTrue(result.getItems().isEmpty());
+        assertNull(result.getPlan());
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void queryProducts_WithInvalidPredicates_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> productService.queryProducts(
+                new ProductQuery(null, new BigDecimal("5.00"), new BigDecimal("4.00"), null, ProductSort.ID, 10),
+                false, null));
+        assertThrows(IllegalArgumentException.class, () -> productService.queryProducts(
+                new ProductQuery(null, null, null, -1, ProductSort.ID, 10), false, null));
+        assertThrows(IllegalArgumentException.class, () -> productService.queryProducts(
+                new ProductQuery(null, null, null, null, ProductSort.ID, 0), false, null));
+        verifyNoInteractions(queryPlanner);
+    }
+
+    @Test
+    void exportProducts_ShouldStreamEveryProductProjection() {
+        when(productRepository.streamAllDTOsByOrderByIdAsc(ALL_FIELDS)).thenReturn(Stream.of(productDTO));
+        List<ProductDTO> exported = new ArrayList<>();
+
+        productService.exportProducts(exported::add);
+
+        assertEquals(1, exported.size());
+        assertEquals("Test Product", exported.get(0).getName());
+        verifyNoInteractions(entityManager);
     }
 
     @Test
@@ -130,6 +456,33 @@ class ProductServiceTest {
         assertNotNull(result);
         assertEquals("Test Product", result.getName());
         verify(productRepository, times(1)).save(any(Product.class));
+        verify(indexLoader, times(1)).refresh(List.of(1L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void createProducts_ShouldBatchInsertAndReturnIdsInOrder() {
+        ProductDTO second = new ProductDTO(null, "Second Product", null, new BigDecimal("5.00"), 3);
+        doAnswer(invocation -> {
+            List<Product> products = invocation.getArgument(0);
+            products.get(0).setId(10L);
+            products.get(1).setId(11L);
+            return null;
+        }).when(productRepository).batchInsert(anyList());
+
+        List<Long> ids = productService.createProducts(List.of(productDTO, second));
+
+        assertEquals(List.of(10L, 11L), ids);
+        verify(productRepository, never()).save(any(Product.class));
+        verify(indexLoader, times(1)).refresh(List.of(10L, 11L));
+    }
+
+    @Test
+    void createProducts_WhenEmptyOrTooLarge_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> productService.createProducts(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> productService.createProducts(
+                Collections.nCopies(ProductService.MAX_BULK_SIZE + 1, productDTO)));
+        verifyNoInteractions(productRepository);
     }
 
     @Test
@@ -143,6 +496,7 @@ class ProductServiceTest {
         assertEquals("Test Product", result.getName());
         verify(productRepository, times(1)).findById(1L);
         verify(productRepository, times(1)).save(any(Product.class));
+        verify(indexLoader, times(1)).refresh(List.of(1L));
     }
 
     @Test
@@ -154,6 +508,81 @@ class ProductServiceTest {
         verify(productRepository, never()).save(any(Product.class));
     }
 
+    @Test
+    void reserveStock_WhenStockAvailable_ShouldPersistHoldAndScheduleExpiry() {
+        LocalDateTime expiresAt = LocalDateTime.of(2024, 5, 1, 10, 45);
+        when(productRepository.reserveStock(1L, 3)).thenReturn(1);
+        when(holdScheduler.nextExpiry()).thenReturn(expiresAt);
+
+        ReservationDTO reservation = productService.reserveStock(1L, 3);
+
+        assertNotNull(reservation.getId());
+        assertEquals(3, reservation.getQuantity());
+        assertEquals(expiresAt, reservation.getExpiresAt());
+        verify(entityManager, times(1)).persist(any(StockHold.class));
+        verify(holdScheduler, times(1)).schedule(reservation.getId(), expiresAt);
+        verify(indexLoader, times(1)).refresh(List.of(1L));
+        verify(productCache, times(1)).invalidate(1L);
+        verify(productRepository, never()).save(any(Product.class));
+    }
+
+    @Test
+    void reserveStock_WhenStockInsufficientOrProductMissing_ShouldThrowException() {
+        when(productRepository.reserveStock(anyLong(), eq(5))).thenReturn(0);
+        when(productRepository.existsById(1L)).thenReturn(true);
+        when(productRepository.existsById(2L)).thenReturn(false);
+
+        assertThrows(InsufficientStockException.class, () -> productService.reserveStock(1L, 5));
+        assertThrows(ResourceNotFoundException.class, () -> productService.reserveStock(2L, 5));
+        assertThrows(IllegalArgumentException.class, () -> productService.reserveStock(1L, 0));
+        verify(entityManager, never()).persist(any());
+        verifyNoInteractions(holdScheduler);
+    }
+
+    @Test
+    void reserveStock_WhenProductIsHot_ShouldGoThroughHotStockCounters() {
+        LocalDateTime expiresAt = LocalDateTime.of(2024, 5, 1, 10, 45);
+        when(hotStock.isHot(1L)).thenReturn(true);
+        when(holdScheduler.nextExpiry()).thenReturn(expiresAt);
+        when(hotStock.reserve(any(StockHold.class))).thenReturn(7L);
+
+        ReservationDTO reservation = productService.reserveStock(1L, 3);
+
+        assertEquals(3, reservation.getQuantity());
+        assertEquals(expiresAt, reservation.getExpiresAt());
+        verify(hotStock, times(1)).reserve(argThat(hold -> hold.getId().equals(reservation.getId())));
+        verify(productRepository, never()).reserveStock(anyLong(), anyInt());
+        verify(entityManager, never()).persist(any());
+        verifyNoInteractions(transactionManager);
+        // Refreshed by the flush, once per committed batch
+        verifyNoInteractions(indexLoader, productCache);
+    }
+
+    @Test
+    void expireReservations_ShouldReturnStockOncePerProduct() {
+        StockHold first = new StockHold("a", 1L, 2, LocalDateTime.now());
+        StockHold second = new StockHold("b", 1L, 3, LocalDateTime.now());
+        when(stockHoldRepository.findAllForUpdate(List.of("a", "b", "gone"))).thenReturn(List.of(first, second));
+        when(productRepository.releaseStock(1L, 5)).thenReturn(1);
+
+        productService.expireReservations(List.of("a", "b", "gone"));
+
+        verify(stockHoldRepository, times(1)).deleteAllInBatch(List.of(first, second));
+        verify(productRepository, times(1)).releaseStock(1L, 5);
+        verify(indexLoader, times(1)).refresh(List.of(1L));
+        verify(hotStock, times(1)).stockReleased(1L, 5);
+    }
+
+    @Test
+    void releaseOrConfirmReservation_WhenAlreadyClosed_ShouldThrowException() {
+        when(stockHoldRepository.findAllForUpdate(List.of("gone"))).thenReturn(List.of());
+        when(stockHoldRepository.deleteHoldById("gone")).thenReturn(0);
+
+        assertThrows(ResourceNotFoundException.class, () -> productService.releaseReservation("gone"));
+        assertThrows(ResourceNotFoundException.class, () -> productService.confirmReservation("gone"));
+        verify(productRepository, never()).releaseStock(anyLong(), anyInt());
+    }
+
     @Test
     void deleteProduct_WhenProductExists_ShouldDeleteProduct() {
         when(productRepository.existsById(1L)).thenReturn(true);
@@ -163,6 +592,8 @@ class ProductServiceTest {
 
         verify(productRepository, times(1)).existsById(1L);
         verify(productRepository, times(1)).deleteById(1L);
+        verify(productCache, times(1)).invalidate(1L);
+        verify(indexLoader, times(1)).refresh(List.of(1L));
     }
 
     @Test
@@ -173,4 +604,9 @@ class ProductServiceTest {
         verify(productRepository, times(1)).existsById(1L);
         verify(productRepository, never()).deleteById(1L);
     }
-}
\ No newline at end of file
+
+    private static ProductDetailView detail(Product product) {
+        return new ProductDetailView(product.getId(), product.getName(), product.getDescription(),
+                product.getPrice(), product.getQuantityInStock(), product.getUpdatedAt());
+    }
+}
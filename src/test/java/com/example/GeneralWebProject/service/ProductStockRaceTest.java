@@ -0,0 +1,76 @@
+package com.example.GeneralWebProject.service;
+
+import com.example.GeneralWebProject.dto.ProductDTO;
+import com.example.GeneralWebProject.dto.ReservationDTO;
+import com.example.GeneralWebProject.exception.InsufficientStockException;
+import com.example.GeneralWebProject.index.ProductStockIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Races reservations and releases of a product's last unit, so the stock keeps flipping between 0 and 1, and
+ * checks that the stock index and the product cache end up agreeing with the committed row.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:stock_race",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+class ProductStockRaceTest {
+
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 200;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductStockIndex stockIndex;
+
+    @Test
+    void reserveAndRelease_WhenRacing_ShouldLeaveIndexAndCacheAtCommittedStock() throws Exception {
+        ProductDTO product = productService.createProduct(
+                new ProductDTO(null, "Last Unit Lamp", null, new BigDecimal("19.99"), 1));
+        Long id = product.getId();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                workers.add(executor.submit(() -> {
+                    for (int i = 0; i < ROUNDS; i++) {
+                        try {
+                            ReservationDTO reservation = productService.reserveStock(id, 1);
+                            productService.releaseReservation(reservation.getId());
+                        } catch (InsufficientStockException e) {
+                            // Another thread holds the unit
+                        }
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(stockIndex.contains(id));
+        assertEquals(1, productService.getProductById(id).getQuantityInStock());
+
+        productService.reserveStock(id, 1);
+
+        assertFalse(stockIndex.contains(id));
+        assertEquals(0, productService.getProductById(id).getQuantityInStock());
+    }
+}
@@ -1,23 +1,37 @@
 // File: src/test/java/com/example/webapp/service/UserServiceTest.java
 package com.example.GeneralWebProject.service;
 
+import com.example.GeneralWebProject.cache.UserPrincipalCache;
+import com.example.GeneralWebProject.dto.UserAvailabilityDTO;
 import com.example.GeneralWebProject.dto.UserCreateDTO;
 import com.example.GeneralWebProject.dto.UserDTO;
+import com.example.GeneralWebProject.dto.UserField;
 import com.example.GeneralWebProject.exception.ResourceNotFoundException;
+import com.example.GeneralWebProject.index.UserIdentifierIndex;
 import com.example.GeneralWebProject.model.User;
 import com.example.GeneralWebProject.repository.UserRepository;
+import com.example.GeneralWebProject.security.AccessTokenService;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.sql.SQLException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -29,12 +43,23 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class UserServiceTest {
 
+    private static final Set<UserField> ALL_FIELDS = EnumSet.allOf(UserField.class);
+
     @Mock
     private UserRepository userRepository;
 
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private UserPrincipalCache principalCache;
+
+    @Mock
+    private UserIdentifierIndex identifierIndex;
+
+    @Mock
+    private AccessTokenService tokenService;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -73,55 +98,106 @@ class UserServiceTest {
 
     @Test
     void getAllUsers_ShouldReturnListOfUsers() {
-        when(userRepository.findAll()).thenReturn(Arrays.asList(user));
+        when(userRepository.findAllDTOs(ALL_FIELDS)).thenReturn(Arrays.asList(userDTO));
 
         List<UserDTO> result = userService.getAllUsers();
 
         assertEquals(1, result.size());
         assertEquals("testuser", result.get(0).getUsername());
-        verify(userRepository, times(1)).findAll();
+        verify(userRepository, times(1)).findAllDTOs(ALL_FIELDS);
     }
 
     @Test
     void getUserById_WhenUserExists_ShouldReturnUser() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.findDTOById(ALL_FIELDS, 1L)).thenReturn(Optional.of(userDTO));
 
         UserDTO result = userService.getUserById(1L);
 
         assertEquals("testuser", result.getUsername());
-        verify(userRepository, times(1)).findById(1L);
+        verify(userRepository, times(1)).findDTOById(ALL_FIELDS, 1L);
     }
 
     @Test
     void getUserById_WhenUserDoesNotExist_ShouldThrowException() {
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+        when(userRepository.findDTOById(ALL_FIELDS, 1L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> userService.getUserById(1L));
-        verify(userRepository, times(1)).findById(1L);
+        verify(userRepository, times(1)).findDTOById(ALL_FIELDS, 1L);
+    }
+
+    @Test
+    void getUserById_WithFields_ShouldLoadOnlyThoseFields() {
+        Set<UserField> fields = EnumSet.of(UserField.ID, UserField.EMAIL);
+        when(userRepository.findDTOById(fields, 1L)).thenReturn(Optional.of(userDTO));
+
+        userService.getUserById(1L, fields);
+
+        verify(userRepository, times(1)).findDTOById(fields, 1L);
     }
 
     @Test
     void getUserByUsername_WhenUserExists_ShouldReturnUser() {
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(userRepository.findDTOByUsername(ALL_FIELDS, "testuser")).thenReturn(Optional.of(userDTO));
 
         UserDTO result = userService.getUserByUsername("testuser");
 
         assertEquals("testuser", result.getUsername());
-        verify(userRepository, times(1)).findByUsername("testuser");
+        verify(userRepository, times(1)).findDTOByUsername(ALL_FIELDS, "testuser");
     }
 
     @Test
     void getUserByUsername_WhenUserDoesNotExist_ShouldThrowException() {
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.empty());
+        when(userRepository.findDTOByUsername(ALL_FIELDS, "testuser")).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> userService.getUserByUsername("testuser"));
-        verify(userRepository, times(1)).findByUsername("testuser");
+        verify(userRepository, times(1)).findDTOByUsername(ALL_FIELDS, "testuser");
+    }
+
+    @Test
+    void checkAvailability_WhenFilterRulesValuesOut_ShouldNotQueryDatabase() {
+        when(identifierIndex.isReady()).thenReturn(true);
+        when(identifierIndex.mightContainUsername("newuser")).thenReturn(false);
+        when(identifierIndex.mightContainEmail("new@example.com")).thenReturn(false);
+
+        UserAvailabilityDTO result = userService.checkAvailability("newuser", "new@example.com");
+
+        assertTrue(result.getUsernameAvailable());
+        assertTrue(result.getEmailAvailable());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void checkAvailability_WhenFilterMightContainValue_ShouldConfirmWithDatabase() {
+        when(identifierIndex.isReady()).thenReturn(true);
+        when(identifierIndex.mightContainUsername("testuser")).thenReturn(true);
+        when(userRepository.existsByUsername("testuser")).thenReturn(true);
+
+        UserAvailabilityDTO result = userService.checkAvailability("testuser", null);
+
+        assertFalse(result.getUsernameAvailable());
+        assertNull(result.getEmailAvailable());
+        verify(userRepository, times(1)).existsByUsername("testuser");
+        verify(userRepository, never()).existsByEmail(any());
     }
 
     @Test
-    void createUser_WhenUsernameAndEmailAreUnique_ShouldCreateUser() {
-        when(userRepository.existsByUsername("newuser")).thenReturn(false);
+    void checkAvailability_WhenFilterIsNotReady_ShouldQueryDatabase() {
+        when(identifierIndex.isReady()).thenReturn(false);
         when(userRepository.existsByEmail("new@example.com")).thenReturn(false);
+
+        UserAvailabilityDTO result = userService.checkAvailability(null, "new@example.com");
+
+        assertTrue(result.getEmailAvailable());
+        verify(identifierIndex, never()).mightContainEmail(any());
+    }
+
+    @Test
+    void checkAvailability_WhenNothingGiven_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> userService.checkAvailability(" ", null));
+    }
+
+    @Test
+    void createUser_WhenUsernameAndEmailAreUnique_ShouldCreateUserWithSingleInsert() {
         when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
         when(userRepository.save(any(User.class))).thenReturn(user);
 
@@ -129,19 +205,30 @@ class UserServiceTest {
 
         assertNotNull(result);
         assertEquals("testuser", result.getUsername());
-        verify(userRepository, times(1)).existsByUsername("newuser");
-        verify(userRepository, times(1)).existsByEmail("new@example.com");
+        verify(userRepository, never()).existsByUsername(any());
+        verify(userRepository, never()).existsByEmail(any());
         verify(passwordEncoder, times(1)).encode("password123");
         verify(userRepository, times(1)).save(any(User.class));
+        verify(identifierIndex, times(1)).add("testuser", "test@example.com");
     }
 
     @Test
     void createUser_WhenUsernameExists_ShouldThrowException() {
-        when(userRepository.existsByUsername("newuser")).thenReturn(true);
+        when(userRepository.save(any(User.class))).thenThrow(duplicate("PUBLIC.UK_USERS_USERNAME_INDEX_4"));
 
-        assertThrows(IllegalArgumentException.class, () -> userService.createUser(userCreateDTO));
-        verify(userRepository, times(1)).existsByUsername("newuser");
-        verify(userRepository, never()).save(any(User.class));
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> userService.createUser(userCreateDTO));
+        assertEquals("Username already exists", ex.getMessage());
+        verify(identifierIndex, never()).add(any(), any());
+    }
+
+    @Test
+    void createUser_WhenEmailExists_ShouldThrowException() {
+        when(userRepository.save(any(User.class))).thenThrow(duplicate("PUBLIC.UK_USERS_EMAIL_INDEX_4"));
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> userService.createUser(userCreateDTO));
+        assertEquals("Email already exists", ex.getMessage());
     }
 
     @Test
@@ -155,6 +242,24 @@ class UserServiceTest {
         assertEquals("testuser", result.getUsername());
         verify(userRepository, times(1)).findById(1L);
         verify(userRepository, times(1)).save(any(User.class));
+        verify(principalCache, times(2)).invalidate("testuser");
+        verify(tokenService, never()).revoke(any());
+    }
+
+    @Test
+    void updateUser_WhenDeactivated_ShouldRejectTokensIssuedBefore() {
+        AccessTokenService tokens = new AccessTokenService("", Duration.ofMinutes(15));
+        UserServiceImpl service = new UserServiceImpl(userRepository, passwordEncoder, principalCache,
+                identifierIndex, tokens);
+        String token = tokens.issue(UsernamePasswordAuthenticationToken.authenticated("testuser", null,
+                AuthorityUtils.createAuthorityList("ROLE_USER"))).getAccessToken();
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.save(any(User.class))).thenReturn(user);
+        userDTO.setActive(false);
+
+        service.updateUser(1L, userDTO);
+
+        assertThrows(BadCredentialsException.class, () -> tokens.authenticate(token));
     }
 
     @Test
@@ -164,25 +269,35 @@ class UserServiceTest {
         assertThrows(ResourceNotFoundException.class, () -> userService.updateUser(1L, userDTO));
         verify(userRepository, times(1)).findById(1L);
         verify(userRepository, never()).save(any(User.class));
+        verify(principalCache, never()).invalidate(any());
     }
 
     @Test
     void deleteUser_WhenUserExists_ShouldDeleteUser() {
-        when(userRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(userRepository).deleteById(1L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        doNothing().when(userRepository).delete(user);
 
         userService.deleteUser(1L);
 
-        verify(userRepository, times(1)).existsById(1L);
-        verify(userRepository, times(1)).deleteById(1L);
+        verify(userRepository, times(1)).findById(1L);
+        verify(userRepository, times(1)).delete(user);
+        verify(principalCache, times(1)).invalidate("testuser");
+        verify(tokenService, times(1)).revoke("testuser");
+        verify(identifierIndex, times(1)).remove("testuser", "test@example.com");
     }
 
     @Test
     void deleteUser_WhenUserDoesNotExist_ShouldThrowException() {
-        when(userRepository.existsById(1L)).thenReturn(false);
+        when(userRepository.findById(1L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> userService.deleteUser(1L));
-        verify(userRepository, times(1)).existsById(1L);
-        verify(userRepository, never()).deleteById(1L);
+        verify(userRepository, times(1)).findById(1L);
+        verify(userRepository, never()).delete(any(User.class));
+    }
+
+    private static DataIntegrityViolationException duplicate(String constraint) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("Unique index or primary key violation",
+                        new SQLException("Unique index or primary key violation"), constraint));
     }
 }
\ No newline at end of file
@@ -0,0 +1,89 @@
+package com.example.GeneralWebProject.stock;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for HotStockCounter.
+ */
+class HotStockCounterTest {
+
+    @Test
+    void tryAcquire_UnderContention_ShouldNeverOversell() throws InterruptedException {
+        HotStockCounter counter = new HotStockCounter(1L, 1000);
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException ex) {
+                    return;
+                }
+                for (int i = 0; i < 500; i++) {
+                    if (counter.tryAcquire(1 + i % 3)) {
+                        granted.addAndGet(1 + i % 3);
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(1000 - granted.get(), counter.available());
+        assertTrue(counter.available() < 3);
+        assertTrue(counter.available() >= 0);
+        assertEquals(granted.get(), counter.pending.sum());
+        assertEquals(4000, counter.acquired.sum() + counter.rejected.sum());
+    }
+
+    @Test
+    void tryAcquire_ShouldGatherAcrossStripes() {
+        HotStockCounter counter = new HotStockCounter(1L, 0);
+        // Released stock lands on the releasing thread's stripe; a larger request must still see all of it
+        Thread other = new Thread(() -> counter.release(4));
+        other.start();
+        assertDoesNotThrow(() -> other.join());
+        counter.release(3);
+
+        assertTrue(counter.tryAcquire(7));
+        assertFalse(counter.tryAcquire(1));
+        assertEquals(0, counter.available());
+    }
+
+    @Test
+    void reset_ShouldReplaceBudget() {
+        HotStockCounter counter = new HotStockCounter(1L, 10);
+        counter.tryAcquire(4);
+
+        counter.reset(6);
+
+        assertEquals(2, counter.available());
+        assertFalse(counter.tryAcquire(3));
+        assertEquals(1, counter.rejected.sum());
+    }
+
+    @Test
+    void reset_ShouldKeepPendingReservationsOffBudget() {
+        HotStockCounter counter = new HotStockCounter(1L, 10);
+        counter.tryAcquire(3);
+
+        counter.reset(8);
+
+        assertEquals(5, counter.available());
+        counter.abandon(3);
+        assertEquals(0, counter.pending.sum());
+        assertEquals(8, counter.available());
+    }
+}
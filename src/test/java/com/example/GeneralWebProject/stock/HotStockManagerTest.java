@@ -0,0 +1,163 @@
+package com.example.GeneralWebProject.stock;
+
+import com.example.GeneralWebProject.cache.ProductCache;
+import com.example.GeneralWebProject.dto.HotStockStatsDTO;
+import com.example.GeneralWebProject.exception.InsufficientStockException;
+import com.example.GeneralWebProject.exception.ServiceOverloadedException;
+import com.example.GeneralWebProject.index.ProductIndexLoader;
+import com.example.GeneralWebProject.model.StockHold;
+import com.example.GeneralWebProject.repository.ProductRepository;
+import com.example.GeneralWebProject.scheduling.StockHoldScheduler;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for HotStockManager.
+ */
+class HotStockManagerTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private final StockHoldScheduler holdScheduler = mock(StockHoldScheduler.class);
+    private final ProductCache productCache = mock(ProductCache.class);
+    private final ProductIndexLoader indexLoader = mock(ProductIndexLoader.class);
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    // Flushed by the tests, never by the background interval
+    private final HotStockManager hotStock = new HotStockManager(productRepository, entityManager,
+            mock(PlatformTransactionManager.class), holdScheduler, productCache, indexLoader, true,
+            Duration.ofHours(1), Duration.ofSeconds(5), Duration.ofSeconds(1));
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        hotStock.close();
+    }
+
+    @Test
+    void reserve_ShouldAcknowledgeOnlyAfterOneGroupCommit() throws Exception {
+        when(productRepository.findQuantityInStockById(1L)).thenReturn(Optional.of(10));
+        when(productRepository.reserveStock(1L, 10)).thenReturn(1);
+        hotStock.flag(1L);
+
+        List<Future<Long>> results = reserveConcurrently(1L, 20);
+
+        int committed = 0;
+        int rejected = 0;
+        for (Future<Long> result : results) {
+            try {
+                result.get(5, TimeUnit.SECONDS);
+                committed++;
+            } catch (ExecutionException ex) {
+                assertInstanceOf(InsufficientStockException.class, ex.getCause());
+                rejected++;
+            }
+        }
+        assertEquals(10, committed);
+        assertEquals(10, rejected);
+        verify(productRepository, times(1)).reserveStock(1L, 10);
+        verify(entityManager, times(10)).persist(any(StockHold.class));
+        verify(holdScheduler, times(10)).schedule(anyString(), any(LocalDateTime.class));
+        verify(productCache, times(1)).invalidate(1L);
+        verify(indexLoader, times(1)).refresh(List.of(1L));
+
+        HotStockStatsDTO stats = hotStock.stats().get(0);
+        assertEquals(0, stats.getAvailableQuantity());
+        assertEquals(0, stats.getPendingQuantity());
+        assertEquals(1, stats.getFlushCount());
+        assertTrue(stats.getMaxFlushLagMillis() > 0);
+    }
+
+    @Test
+    void reserve_WhenRowHasLessStockThanBudgeted_ShouldFailBatchAndResync() throws Exception {
+        when(productRepository.findQuantityInStockById(1L)).thenReturn(Optional.of(5))
+                .thenReturn(Optional.of(1));
+        when(productRepository.reserveStock(1L, 2)).thenReturn(0);
+        hotStock.flag(1L);
+
+        List<Future<Long>> results = reserveConcurrently(1L, 2);
+
+        for (Future<Long> result : results) {
+            ExecutionException ex = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(InsufficientStockException.class, ex.getCause());
+        }
+        verify(entityManager, never()).persist(any());
+        verifyNoInteractions(holdScheduler, indexLoader);
+        assertEquals(1, hotStock.stats().get(0).getAvailableQuantity());
+    }
+
+    @Test
+    void reserve_WhenNotCommittedWithinMaxWait_ShouldShedRequestAndReturnStock() {
+        // Never flushed in time: the interval is an hour and the wait 50 ms
+        HotStockManager stalled = new HotStockManager(productRepository, entityManager,
+                mock(PlatformTransactionManager.class), holdScheduler, productCache, indexLoader, true,
+                Duration.ofHours(1), Duration.ofMillis(50), Duration.ofSeconds(2));
+        try {
+            when(productRepository.findQuantityInStockById(1L)).thenReturn(Optional.of(5));
+            stalled.flag(1L);
+
+            ServiceOverloadedException ex = assertThrows(ServiceOverloadedException.class, () -> stalled.reserve(
+                    new StockHold("hold-1", 1L, 2, LocalDateTime.now().plusMinutes(15))));
+            stalled.flushAll();
+
+            assertEquals(Duration.ofSeconds(2), ex.getRetryAfter());
+            HotStockStatsDTO stats = stalled.stats().get(0);
+            assertEquals(5, stats.getAvailableQuantity());
+            assertEquals(0, stats.getPendingQuantity());
+            verify(productRepository, never()).reserveStock(anyLong(), anyInt());
+            verifyNoInteractions(holdScheduler);
+        } finally {
+            stalled.close();
+        }
+    }
+
+    @Test
+    void flag_WhenModeDisabled_ShouldThrowException() {
+        HotStockManager disabled = new HotStockManager(productRepository, entityManager,
+                mock(PlatformTransactionManager.class), holdScheduler, productCache, indexLoader, false,
+                Duration.ofMillis(10), Duration.ofSeconds(5), Duration.ofSeconds(1));
+
+        assertThrows(IllegalArgumentException.class, () -> disabled.flag(1L));
+        assertFalse(disabled.isHot(1L));
+    }
+
+    /**
+     * Submit single-unit reservations, wait until each was accepted or rejected by the counter, then flush.
+     */
+    private List<Future<Long>> reserveConcurrently(Long productId, int count) throws InterruptedException {
+        List<Future<Long>> results = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            StockHold hold = new StockHold("hold-" + i, productId, 1, LocalDateTime.now().plusMinutes(15));
+            results.add(callers.submit(() -> hotStock.reserve(hold)));
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            HotStockStatsDTO stats = hotStock.stats().get(0);
+            if (stats.getAcquiredCount() + stats.getRejectedCount() == count) {
+                break;
+            }
+            Thread.sleep(5);
+        }
+        hotStock.flushAll();
+        return results;
+    }
+}